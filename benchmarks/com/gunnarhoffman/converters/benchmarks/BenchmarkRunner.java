@@ -0,0 +1,62 @@
+package com.gunnarhoffman.converters.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>
+ * Runs every converter benchmark twice: once on a single thread and once on
+ * as many threads as there are processors. Both runs attach the GC profiler
+ * so allocation rates are reported next to the timings.
+ * </p>
+ * 
+ * <p>
+ * Results are written as JSON to &lt;label&gt;-single.json and
+ * &lt;label&gt;-threaded.json, where the label is the first argument (for
+ * example the version being measured) and defaults to "current". Comparing
+ * the files of two versions shows any regressions between them.
+ * </p>
+ * 
+ * <p>
+ * Should the vector source folder be compiled in, the benchmark JVMs are
+ * started with the jdk.incubator.vector module so the vector kernel can be
+ * measured.
+ * </p>
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+public class BenchmarkRunner {
+
+	private static final String VECTOR_KERNEL_CLASS = "com/gunnarhoffman/converters/vector/VectorConversionKernel.class";
+
+	public static void main(String[] args) throws RunnerException {
+
+		String label = args.length > 0 ? args[0] : "current";
+
+		new Runner(BenchmarkRunner.options(label + "-single.json", 1)).run();
+
+		new Runner(BenchmarkRunner.options(label + "-threaded.json", Runtime
+				.getRuntime().availableProcessors())).run();
+	}
+
+	private static Options options(String result, int threads) {
+		OptionsBuilder options = new OptionsBuilder();
+		if (BenchmarkRunner.class.getClassLoader().getResource(
+				VECTOR_KERNEL_CLASS) != null) {
+			options.jvmArgsAppend("--add-modules=jdk.incubator.vector");
+		}
+		return options
+				.include(BenchmarkRunner.class.getPackage().getName()
+						+ ".*Benchmark")
+				.addProfiler(GCProfiler.class)
+				.threads(threads)
+				.resultFormat(ResultFormatType.JSON)
+				.result(result)
+				.build();
+	}
+}
@@ -0,0 +1,97 @@
+package com.gunnarhoffman.converters.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gunnarhoffman.converters.BulkConversion;
+import com.gunnarhoffman.converters.ByteConverter;
+import com.gunnarhoffman.converters.ConversionKernel;
+import com.gunnarhoffman.converters.TimeConverter;
+
+/**
+ * Measures the scalar and the vector ConversionKernel against each other on
+ * a column of values that fits in the L1 cache. Results are per value. The
+ * vector kernel needs the jdk.incubator.vector module, see the README.
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkConversionBenchmark {
+
+	private static final int SIZE = 2048;
+
+	@Param({ "scalar", "vector" })
+	private String kernelName;
+
+	private ConversionKernel kernel;
+
+	private final double[] doubles = new double[SIZE];
+	private final long[] longs = new long[SIZE];
+	private final double[] destination = new double[SIZE];
+
+	private double toKilobytes = ByteConverter.Unit.Byte
+			.factorTo(ByteConverter.Unit.Kilobyte);
+	private double toMilliseconds = TimeConverter.Unit.Microsecond
+			.factorTo(TimeConverter.Unit.Millisecond);
+
+	@Setup
+	public void setUp() {
+		if (this.kernelName.equals("scalar")) {
+			this.kernel = BulkConversion.getScalarKernel();
+		} else if (BulkConversion.getKernel() != BulkConversion
+				.getScalarKernel()) {
+			this.kernel = BulkConversion.getKernel();
+		} else {
+			throw new IllegalStateException(
+					"the vector kernel is not available in this JVM!");
+		}
+		Random random = new Random(42);
+		for (int i = 0; i < SIZE; i++) {
+			this.doubles[i] = random.nextDouble() * 1000000;
+			this.longs[i] = random.nextInt(Integer.MAX_VALUE);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public double[] microsecondsToMilliseconds() {
+		this.kernel.multiply(this.doubles, 0, this.destination, 0, SIZE,
+				this.toMilliseconds);
+		return this.destination;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public double[] wholeBytesToKilobytes() {
+		this.kernel.multiply(this.longs, 0, this.destination, 0, SIZE,
+				this.toKilobytes);
+		return this.destination;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public double[] celsiusToFahrenheit() {
+		this.kernel.multiplyAdd(this.doubles, 0, this.destination, 0, SIZE,
+				1.8, 32);
+		return this.destination;
+	}
+}
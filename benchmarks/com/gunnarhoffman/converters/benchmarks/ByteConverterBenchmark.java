@@ -0,0 +1,171 @@
+package com.gunnarhoffman.converters.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gunnarhoffman.converters.ByteConverter;
+
+/**
+ * Measures every factory and output method of ByteConverter.
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ByteConverterBenchmark {
+
+	/*
+	 * Inputs are instance fields rather than constants so the JIT cannot fold
+	 * the conversions away.
+	 */
+	private double value = 6000.25;
+	private long bytes = 1264978;
+	private BigDecimal decimal = new BigDecimal("6000.25");
+
+	private ByteConverter converter;
+
+	@Setup
+	public void setUp() {
+		this.converter = ByteConverter.fromMegabytes(6000).addGigabytes(-1.34);
+	}
+
+	// Factories
+
+	@Benchmark
+	public ByteConverter fromTerabytes() {
+		return ByteConverter.fromTerabytes(this.value);
+	}
+
+	@Benchmark
+	public ByteConverter fromGigabytes() {
+		return ByteConverter.fromGigabytes(this.value);
+	}
+
+	@Benchmark
+	public ByteConverter fromMegabytes() {
+		return ByteConverter.fromMegabytes(this.value);
+	}
+
+	@Benchmark
+	public ByteConverter fromKilobytes() {
+		return ByteConverter.fromKilobytes(this.value);
+	}
+
+	@Benchmark
+	public ByteConverter fromTerabits() {
+		return ByteConverter.fromTerabits(this.value);
+	}
+
+	@Benchmark
+	public ByteConverter fromGigabits() {
+		return ByteConverter.fromGigabits(this.value);
+	}
+
+	@Benchmark
+	public ByteConverter fromMegabits() {
+		return ByteConverter.fromMegabits(this.value);
+	}
+
+	@Benchmark
+	public ByteConverter fromKilobits() {
+		return ByteConverter.fromKilobits(this.value);
+	}
+
+	@Benchmark
+	public ByteConverter fromBytes() {
+		return ByteConverter.fromBytes(this.bytes);
+	}
+
+	@Benchmark
+	public ByteConverter fromTerabytesDecimal() {
+		return ByteConverter.fromTerabytes(this.decimal);
+	}
+
+	@Benchmark
+	public ByteConverter fromMegabytesDecimal() {
+		return ByteConverter.fromMegabytes(this.decimal);
+	}
+
+	@Benchmark
+	public ByteConverter fromKilobitsDecimal() {
+		return ByteConverter.fromKilobits(this.decimal);
+	}
+
+	// Arithmetic
+
+	@Benchmark
+	public ByteConverter addChain() {
+		return ByteConverter.fromMegabytes(this.value)
+				.addGigabytes(-this.value / 1024).addKilobytes(this.value)
+				.addBytes(this.bytes);
+	}
+
+	// Output
+
+	@Benchmark
+	public BigInteger toBytes() {
+		return this.converter.toBytes();
+	}
+
+	@Benchmark
+	public BigDecimal toKilobytes() {
+		return this.converter.toKilobytes();
+	}
+
+	@Benchmark
+	public BigDecimal toMegabytes() {
+		return this.converter.toMegabytes();
+	}
+
+	@Benchmark
+	public BigDecimal toGigabytes() {
+		return this.converter.toGigabytes();
+	}
+
+	@Benchmark
+	public BigDecimal toTerabytes() {
+		return this.converter.toTerabytes();
+	}
+
+	@Benchmark
+	public BigDecimal toKilobits() {
+		return this.converter.toKilobits();
+	}
+
+	@Benchmark
+	public BigDecimal toMegabits() {
+		return this.converter.toMegabits();
+	}
+
+	@Benchmark
+	public BigDecimal toGigabits() {
+		return this.converter.toGigabits();
+	}
+
+	@Benchmark
+	public BigDecimal toTerabits() {
+		return this.converter.toTerabits();
+	}
+
+	@Benchmark
+	public String toStringOutput() {
+		return this.converter.toString();
+	}
+}
@@ -0,0 +1,249 @@
+package com.gunnarhoffman.converters.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gunnarhoffman.converters.DistanceConverter;
+
+/**
+ * Measures every factory of DistanceConverter and every output method of both
+ * the metric and the imperial implementation.
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DistanceConverterBenchmark {
+
+	/*
+	 * Inputs are instance fields rather than constants so the JIT cannot fold
+	 * the conversions away.
+	 */
+	private double value = 26.2;
+	private long whole = 42195000000L;
+	private BigDecimal decimal = new BigDecimal("26.2");
+
+	private DistanceConverter metric;
+	private DistanceConverter imperial;
+
+	@Setup
+	public void setUp() {
+		this.metric = DistanceConverter.fromKilometers(42.195);
+		this.imperial = DistanceConverter.fromMiles(26.2);
+	}
+
+	// Factories
+
+	@Benchmark
+	public DistanceConverter fromMicrometers() {
+		return DistanceConverter.fromMicrometers(this.whole);
+	}
+
+	@Benchmark
+	public DistanceConverter fromMillimeters() {
+		return DistanceConverter.fromMillimeters(this.value);
+	}
+
+	@Benchmark
+	public DistanceConverter fromCentimeters() {
+		return DistanceConverter.fromCentimeters(this.value);
+	}
+
+	@Benchmark
+	public DistanceConverter fromMeters() {
+		return DistanceConverter.fromMeters(this.value);
+	}
+
+	@Benchmark
+	public DistanceConverter fromKilometers() {
+		return DistanceConverter.fromKilometers(this.value);
+	}
+
+	@Benchmark
+	public DistanceConverter fromInches() {
+		return DistanceConverter.fromInches(this.value);
+	}
+
+	@Benchmark
+	public DistanceConverter fromFeet() {
+		return DistanceConverter.fromFeet(this.value);
+	}
+
+	@Benchmark
+	public DistanceConverter fromYards() {
+		return DistanceConverter.fromYards(this.value);
+	}
+
+	@Benchmark
+	public DistanceConverter fromMiles() {
+		return DistanceConverter.fromMiles(this.value);
+	}
+
+	@Benchmark
+	public DistanceConverter fromAstronomicalUnits() {
+		return DistanceConverter.fromAstronomicalUnits(this.value);
+	}
+
+	@Benchmark
+	public DistanceConverter fromLightYears() {
+		return DistanceConverter.fromLightYears(this.value);
+	}
+
+	@Benchmark
+	public DistanceConverter fromParsecs() {
+		return DistanceConverter.fromParsecs(this.value);
+	}
+
+	@Benchmark
+	public DistanceConverter fromMilesDecimal() {
+		return DistanceConverter.fromMiles(this.decimal);
+	}
+
+	// Output
+
+	@Benchmark
+	public BigDecimal metricToMicrometers() {
+		return this.metric.toMicrometers();
+	}
+
+	@Benchmark
+	public BigDecimal metricToMilimeters() {
+		return this.metric.toMilimeters();
+	}
+
+	@Benchmark
+	public BigDecimal metricToCentimeters() {
+		return this.metric.toCentimeters();
+	}
+
+	@Benchmark
+	public BigDecimal metricToMeters() {
+		return this.metric.toMeters();
+	}
+
+	@Benchmark
+	public BigDecimal metricToKilometers() {
+		return this.metric.toKilometers();
+	}
+
+	@Benchmark
+	public BigDecimal metricToInches() {
+		return this.metric.toInches();
+	}
+
+	@Benchmark
+	public BigDecimal metricToFeet() {
+		return this.metric.toFeet();
+	}
+
+	@Benchmark
+	public BigDecimal metricToYards() {
+		return this.metric.toYards();
+	}
+
+	@Benchmark
+	public BigDecimal metricToMiles() {
+		return this.metric.toMiles();
+	}
+
+	@Benchmark
+	public BigDecimal metricToAstronomicalUnits() {
+		return this.metric.toAstronomicalUnits();
+	}
+
+	@Benchmark
+	public BigDecimal metricToLightYears() {
+		return this.metric.toLightYears();
+	}
+
+	@Benchmark
+	public BigDecimal metricToParsecs() {
+		return this.metric.toParsecs();
+	}
+
+	@Benchmark
+	public String metricToString() {
+		return this.metric.toString();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToMicrometers() {
+		return this.imperial.toMicrometers();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToMilimeters() {
+		return this.imperial.toMilimeters();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToCentimeters() {
+		return this.imperial.toCentimeters();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToMeters() {
+		return this.imperial.toMeters();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToKilometers() {
+		return this.imperial.toKilometers();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToInches() {
+		return this.imperial.toInches();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToFeet() {
+		return this.imperial.toFeet();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToYards() {
+		return this.imperial.toYards();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToMiles() {
+		return this.imperial.toMiles();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToAstronomicalUnits() {
+		return this.imperial.toAstronomicalUnits();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToLightYears() {
+		return this.imperial.toLightYears();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToParsecs() {
+		return this.imperial.toParsecs();
+	}
+
+	@Benchmark
+	public String imperialToString() {
+		return this.imperial.toString();
+	}
+}
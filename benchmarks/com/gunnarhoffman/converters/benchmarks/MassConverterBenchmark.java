@@ -0,0 +1,100 @@
+package com.gunnarhoffman.converters.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gunnarhoffman.converters.MassConverter;
+
+/**
+ * Measures every factory and output method of MassConverter.
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MassConverterBenchmark {
+
+	/*
+	 * Inputs are instance fields rather than constants so the JIT cannot fold
+	 * the conversions away.
+	 */
+	private double value = 1234.5;
+	private BigDecimal decimal = new BigDecimal("1234.5");
+
+	private MassConverter converter;
+
+	@Setup
+	public void setUp() {
+		this.converter = MassConverter.fromKilograms(1234.5);
+	}
+
+	// Factories
+
+	@Benchmark
+	public MassConverter fromMilligrams() {
+		return MassConverter.fromMilligrams(this.value);
+	}
+
+	@Benchmark
+	public MassConverter fromGrams() {
+		return MassConverter.fromGrams(this.value);
+	}
+
+	@Benchmark
+	public MassConverter fromKilograms() {
+		return MassConverter.fromKilograms(this.value);
+	}
+
+	@Benchmark
+	public MassConverter fromTonnes() {
+		return MassConverter.fromTonnes(this.value);
+	}
+
+	@Benchmark
+	public MassConverter fromKilogramsDecimal() {
+		return MassConverter.fromKilograms(this.decimal);
+	}
+
+	// Output
+
+	@Benchmark
+	public BigDecimal toMilligrams() {
+		return this.converter.toMilligrams();
+	}
+
+	@Benchmark
+	public BigDecimal toGrams() {
+		return this.converter.toGrams();
+	}
+
+	@Benchmark
+	public BigDecimal toKilograms() {
+		return this.converter.toKilograms();
+	}
+
+	@Benchmark
+	public BigDecimal toTonnes() {
+		return this.converter.toTonnes();
+	}
+
+	@Benchmark
+	public String toStringOutput() {
+		return this.converter.toString();
+	}
+}
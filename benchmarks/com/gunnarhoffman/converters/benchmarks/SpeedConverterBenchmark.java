@@ -0,0 +1,239 @@
+package com.gunnarhoffman.converters.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gunnarhoffman.converters.SpeedConverter;
+import com.gunnarhoffman.converters.SpeedConverter.TimeIncrement;
+
+/**
+ * Measures every factory of SpeedConverter and every output method of both the
+ * metric and the imperial implementation, per second and per hour.
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SpeedConverterBenchmark {
+
+	/*
+	 * Inputs are instance fields rather than constants so the JIT cannot fold
+	 * the conversions away.
+	 */
+	private double value = 88.5;
+	private BigDecimal decimal = new BigDecimal("88.5");
+
+	private SpeedConverter metric;
+	private SpeedConverter imperial;
+
+	@Setup
+	public void setUp() {
+		this.metric = SpeedConverter.fromKilometersPer(88.5, TimeIncrement.Hour);
+		this.imperial = SpeedConverter.fromMilesPer(55, TimeIncrement.Hour);
+	}
+
+	// Factories
+
+	@Benchmark
+	public SpeedConverter fromMetersPer() {
+		return SpeedConverter.fromMetersPer(this.value, TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public SpeedConverter fromKilometersPer() {
+		return SpeedConverter.fromKilometersPer(this.value, TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public SpeedConverter fromFeetPer() {
+		return SpeedConverter.fromFeetPer(this.value, TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public SpeedConverter fromMilesPer() {
+		return SpeedConverter.fromMilesPer(this.value, TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public SpeedConverter fromAstronomicalUnitsPer() {
+		return SpeedConverter.fromAstronomicalUnitsPer(this.value, TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public SpeedConverter fromLightYearsPer() {
+		return SpeedConverter.fromLightYearsPer(this.value, TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public SpeedConverter fromParsecsPer() {
+		return SpeedConverter.fromParsecsPer(this.decimal, TimeIncrement.Hour);
+	}
+
+	// Output
+
+	@Benchmark
+	public BigDecimal metricToMetersPerSecond() {
+		return this.metric.toMetersPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal metricToMetersPerHour() {
+		return this.metric.toMetersPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal metricToKilometersPerSecond() {
+		return this.metric.toKilometersPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal metricToKilometersPerHour() {
+		return this.metric.toKilometersPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal metricToFeetPerSecond() {
+		return this.metric.toFeetPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal metricToFeetPerHour() {
+		return this.metric.toFeetPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal metricToMilesPerSecond() {
+		return this.metric.toMilesPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal metricToMilesPerHour() {
+		return this.metric.toMilesPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal metricToAstronomicalUnitsPerSecond() {
+		return this.metric.toAstronomicalUnitsPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal metricToAstronomicalUnitsPerHour() {
+		return this.metric.toAstronomicalUnitsPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal metricToLightYearsPerSecond() {
+		return this.metric.toLightYearsPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal metricToLightYearsPerHour() {
+		return this.metric.toLightYearsPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal metricToParsecsPerSecond() {
+		return this.metric.toParsecsPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal metricToParsecsPerHour() {
+		return this.metric.toParsecsPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public String metricToString() {
+		return this.metric.toString();
+	}
+
+	@Benchmark
+	public BigDecimal imperialToMetersPerSecond() {
+		return this.imperial.toMetersPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToMetersPerHour() {
+		return this.imperial.toMetersPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToKilometersPerSecond() {
+		return this.imperial.toKilometersPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToKilometersPerHour() {
+		return this.imperial.toKilometersPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToFeetPerSecond() {
+		return this.imperial.toFeetPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToFeetPerHour() {
+		return this.imperial.toFeetPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToMilesPerSecond() {
+		return this.imperial.toMilesPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToMilesPerHour() {
+		return this.imperial.toMilesPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToAstronomicalUnitsPerSecond() {
+		return this.imperial.toAstronomicalUnitsPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToAstronomicalUnitsPerHour() {
+		return this.imperial.toAstronomicalUnitsPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToLightYearsPerSecond() {
+		return this.imperial.toLightYearsPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToLightYearsPerHour() {
+		return this.imperial.toLightYearsPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToParsecsPerSecond() {
+		return this.imperial.toParsecsPer(TimeIncrement.Second);
+	}
+
+	@Benchmark
+	public BigDecimal imperialToParsecsPerHour() {
+		return this.imperial.toParsecsPer(TimeIncrement.Hour);
+	}
+
+	@Benchmark
+	public String imperialToString() {
+		return this.imperial.toString();
+	}
+}
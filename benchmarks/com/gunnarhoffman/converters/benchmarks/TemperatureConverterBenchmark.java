@@ -0,0 +1,120 @@
+package com.gunnarhoffman.converters.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gunnarhoffman.converters.TemperatureConverter;
+
+/**
+ * Measures every factory and output method of TemperatureConverter, from each
+ * of the three scales.
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TemperatureConverterBenchmark {
+
+	/*
+	 * Inputs are instance fields rather than constants so the JIT cannot fold
+	 * the conversions away.
+	 */
+	private double value = 21.5;
+	private BigDecimal decimal = new BigDecimal("21.5");
+
+	private TemperatureConverter celsius;
+	private TemperatureConverter fahrenheit;
+	private TemperatureConverter kelvin;
+
+	@Setup
+	public void setUp() {
+		this.celsius = TemperatureConverter.fromCelsius(21.5);
+		this.fahrenheit = TemperatureConverter.fromFahrenheit(70.7);
+		this.kelvin = TemperatureConverter.fromKelvin(294.65);
+	}
+
+	// Factories
+
+	@Benchmark
+	public TemperatureConverter fromCelsius() {
+		return TemperatureConverter.fromCelsius(this.value);
+	}
+
+	@Benchmark
+	public TemperatureConverter fromFahrenheit() {
+		return TemperatureConverter.fromFahrenheit(this.value);
+	}
+
+	@Benchmark
+	public TemperatureConverter fromKelvin() {
+		return TemperatureConverter.fromKelvin(this.value);
+	}
+
+	@Benchmark
+	public TemperatureConverter fromCelsiusDecimal() {
+		return TemperatureConverter.fromCelsius(this.decimal);
+	}
+
+	// Output
+
+	@Benchmark
+	public BigDecimal celsiusToCelsius() {
+		return this.celsius.toCelsius();
+	}
+
+	@Benchmark
+	public BigDecimal celsiusToFahrenheit() {
+		return this.celsius.toFahrenheit();
+	}
+
+	@Benchmark
+	public BigDecimal celsiusToKelvin() {
+		return this.celsius.toKelvin();
+	}
+
+	@Benchmark
+	public BigDecimal fahrenheitToCelsius() {
+		return this.fahrenheit.toCelsius();
+	}
+
+	@Benchmark
+	public BigDecimal fahrenheitToFahrenheit() {
+		return this.fahrenheit.toFahrenheit();
+	}
+
+	@Benchmark
+	public BigDecimal fahrenheitToKelvin() {
+		return this.fahrenheit.toKelvin();
+	}
+
+	@Benchmark
+	public BigDecimal kelvinToCelsius() {
+		return this.kelvin.toCelsius();
+	}
+
+	@Benchmark
+	public BigDecimal kelvinToFahrenheit() {
+		return this.kelvin.toFahrenheit();
+	}
+
+	@Benchmark
+	public BigDecimal kelvinToKelvin() {
+		return this.kelvin.toKelvin();
+	}
+}
@@ -0,0 +1,142 @@
+package com.gunnarhoffman.converters.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gunnarhoffman.converters.TimeConverter;
+
+/**
+ * Measures every factory and output method of TimeConverter.
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeConverterBenchmark {
+
+	/*
+	 * Inputs are instance fields rather than constants so the JIT cannot fold
+	 * the conversions away.
+	 */
+	private double value = 467.5;
+	private long whole = 86400000;
+	private BigDecimal decimal = new BigDecimal("467.5");
+
+	private TimeConverter converter;
+
+	@Setup
+	public void setUp() {
+		this.converter = TimeConverter.fromWeeks(467);
+	}
+
+	// Factories
+
+	@Benchmark
+	public TimeConverter fromMicroseconds() {
+		return TimeConverter.fromMicroseconds(this.whole);
+	}
+
+	@Benchmark
+	public TimeConverter fromMilliseconds() {
+		return TimeConverter.fromMilliseconds(this.whole);
+	}
+
+	@Benchmark
+	public TimeConverter fromSeconds() {
+		return TimeConverter.fromSeconds(this.value);
+	}
+
+	@Benchmark
+	public TimeConverter fromMinutes() {
+		return TimeConverter.fromMinutes(this.value);
+	}
+
+	@Benchmark
+	public TimeConverter fromHours() {
+		return TimeConverter.fromHours(this.value);
+	}
+
+	@Benchmark
+	public TimeConverter fromDays() {
+		return TimeConverter.fromDays(this.value);
+	}
+
+	@Benchmark
+	public TimeConverter fromWeeks() {
+		return TimeConverter.fromWeeks(this.value);
+	}
+
+	@Benchmark
+	public TimeConverter fromYears() {
+		return TimeConverter.fromYears(this.value);
+	}
+
+	@Benchmark
+	public TimeConverter fromHoursDecimal() {
+		return TimeConverter.fromHours(this.decimal);
+	}
+
+	// Output
+
+	@Benchmark
+	public BigInteger toMicroseconds() {
+		return this.converter.toMicroseconds();
+	}
+
+	@Benchmark
+	public BigDecimal toMilliseconds() {
+		return this.converter.toMilliseconds();
+	}
+
+	@Benchmark
+	public BigDecimal toSeconds() {
+		return this.converter.toSeconds();
+	}
+
+	@Benchmark
+	public BigDecimal toMinutes() {
+		return this.converter.toMinutes();
+	}
+
+	@Benchmark
+	public BigDecimal toHours() {
+		return this.converter.toHours();
+	}
+
+	@Benchmark
+	public BigDecimal toDays() {
+		return this.converter.toDays();
+	}
+
+	@Benchmark
+	public BigDecimal toWeeks() {
+		return this.converter.toWeeks();
+	}
+
+	@Benchmark
+	public BigDecimal toYears() {
+		return this.converter.toYears();
+	}
+
+	@Benchmark
+	public String toStringOutput() {
+		return this.converter.toString();
+	}
+}
@@ -0,0 +1,380 @@
+package com.gunnarhoffman.converters.flow;
+
+import java.security.InvalidParameterException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.gunnarhoffman.converters.BulkConversion;
+import com.gunnarhoffman.converters.MeasurementUnit;
+import com.gunnarhoffman.converters.TemperatureConverter;
+
+/**
+ * <p>
+ * A stage of a java.util.concurrent.Flow pipeline that converts a stream of
+ * values from one unit to another, for any unit of the UnitRegistry or any
+ * unit of temperature.
+ * </p>
+ *
+ * <p>
+ * Values that arrive while the previous ones are being converted are
+ * gathered and converted together with BulkConversion, so the busier the
+ * stream the larger the batches, while a quiet stream never waits for a
+ * batch to fill. Converting and delivering happen on the executor, never on
+ * the thread of the publisher. Any executor will do, such as
+ * Executors.newVirtualThreadPerTaskExecutor() on Java 21.
+ * </p>
+ *
+ * <p>
+ * Backpressure is passed through: no more values are requested from the
+ * publisher than the batch size, less those not yet delivered, and values are
+ * delivered only as the subscriber requests them. A processor has a single
+ * subscriber, any further one is refused with an IllegalStateException.
+ * </p>
+ *
+ * <p>
+ * A request that is not positive ends the stream with an
+ * IllegalArgumentException straight away, without the values still held, as
+ * rule 3.9 of Reactive Streams requires. Should the subscriber or the
+ * publisher throw, or the executor refuse the task, the publisher is cancelled
+ * and the subscriber is given the exception through onError.
+ * </p>
+ *
+ * <p>
+ * This needs Java 9 or later, so it lives in the flow source folder rather
+ * than in src.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class ConversionProcessor implements
+		Flow.Processor<Double, Double> {
+
+	// Constants
+
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
+	// Instance fields
+
+	private final Conversion conversion;
+	private final Executor executor;
+	private final int batchSize;
+
+	/*
+	 * Values received but not yet converted, appended to under the lock. The
+	 * drain swaps this array for the one it has delivered, so converting and
+	 * delivering need no lock. Requests to the publisher never exceed what
+	 * these two arrays hold between them.
+	 */
+	private final Object lock = new Object();
+	private double[] pending;
+	private int pendingCount;
+
+	private double[] ready;
+	private int readyStart;
+	private int readyEnd;
+
+	private final AtomicLong demand = new AtomicLong();
+	private final AtomicInteger drains = new AtomicInteger();
+
+	private volatile Flow.Subscription upstream;
+	private volatile Flow.Subscriber<? super Double> downstream;
+	private volatile boolean subscribed;
+	private volatile boolean done;
+	private volatile boolean cancelled;
+	private volatile boolean discarded;
+	private volatile Throwable failure;
+
+	// Constructor
+
+	private ConversionProcessor(Conversion conversion, Executor executor,
+			int batchSize) {
+		if (executor == null) {
+			throw new InvalidParameterException("an executor is required!");
+		}
+		if (batchSize <= 0) {
+			throw new InvalidParameterException(
+					"the batch size must be positive!");
+		}
+		this.conversion = conversion;
+		this.executor = executor;
+		this.batchSize = batchSize;
+		this.pending = new double[batchSize];
+		this.ready = new double[batchSize];
+	}
+
+	// Initializers
+
+	public static ConversionProcessor of(MeasurementUnit from,
+			MeasurementUnit to, Executor executor) {
+		return ConversionProcessor.of(from, to, executor, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a processor converting values from one unit to another of the
+	 * same dimension.
+	 *
+	 * In the event the units are of different dimensions, the executor is
+	 * missing or the batch size is not positive a runtime exception of the
+	 * type InvalidParameterException will be thrown.
+	 */
+	public static ConversionProcessor of(MeasurementUnit from,
+			MeasurementUnit to, Executor executor, int batchSize) {
+		final double factor = from.factorTo(to);
+		return new ConversionProcessor((values, length) -> BulkConversion
+				.convert(values, 0, values, 0, length, factor), executor,
+				batchSize);
+	}
+
+	public static ConversionProcessor of(TemperatureConverter.Unit from,
+			TemperatureConverter.Unit to, Executor executor) {
+		return ConversionProcessor.of(from, to, executor, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a processor converting temperatures from one unit to another.
+	 *
+	 * In the event the executor is missing or the batch size is not positive
+	 * a runtime exception of the type InvalidParameterException will be
+	 * thrown.
+	 */
+	public static ConversionProcessor of(TemperatureConverter.Unit from,
+			TemperatureConverter.Unit to, Executor executor, int batchSize) {
+		return new ConversionProcessor((values, length) -> TemperatureConverter
+				.convert(from, values, 0, to, values, 0, length), executor,
+				batchSize);
+	}
+
+	// Subscriber
+
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+		if (this.upstream != null) {
+			subscription.cancel();
+			return;
+		}
+		this.upstream = subscription;
+		subscription.request(this.batchSize);
+	}
+
+	@Override
+	public void onNext(Double value) {
+		final boolean overflow;
+		synchronized (this.lock) {
+			overflow = this.pendingCount == this.pending.length;
+			if (!overflow) {
+				this.pending[this.pendingCount++] = value;
+			}
+		}
+		if (overflow) {
+			this.failure = new IllegalStateException(
+					"more values were published than requested!");
+			this.done = true;
+			this.cancelUpstream();
+		}
+		this.drain();
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		this.failure = throwable;
+		this.done = true;
+		this.drain();
+	}
+
+	@Override
+	public void onComplete() {
+		this.done = true;
+		this.drain();
+	}
+
+	// Publisher
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super Double> subscriber) {
+		final boolean refused;
+		synchronized (this.lock) {
+			refused = this.subscribed;
+			this.subscribed = true;
+		}
+		if (refused) {
+			subscriber.onSubscribe(Cancelled.INSTANCE);
+			subscriber.onError(new IllegalStateException(
+					"a processor has a single subscriber!"));
+			return;
+		}
+		subscriber.onSubscribe(new Subscription());
+		this.downstream = subscriber;
+		this.drain();
+	}
+
+	// Delivery
+
+	/*
+	 * Only one drain runs at a time. Every call counts itself, and the drain
+	 * that is running loops until it has seen them all, so nothing signalled
+	 * while it ran is missed.
+	 */
+	private void drain() {
+		if (this.drains.getAndIncrement() == 0) {
+			try {
+				this.executor.execute(this::run);
+			} catch (RuntimeException rejected) {
+				this.fail(rejected);
+				final Flow.Subscriber<? super Double> subscriber = this.downstream;
+				if (subscriber != null) {
+					this.abort(subscriber, rejected);
+				}
+				this.drains.set(0);
+			}
+		}
+	}
+
+	private void run() {
+		int missed = 1;
+		do {
+			final Flow.Subscriber<? super Double> subscriber = this.downstream;
+			if (subscriber != null && !this.cancelled) {
+				try {
+					this.deliver(subscriber);
+				} catch (Throwable throwable) {
+					this.abort(subscriber, throwable);
+				}
+			}
+			missed = this.drains.addAndGet(-missed);
+		} while (missed != 0);
+	}
+
+	/*
+	 * Ends the stream with the given error once the drain next runs, dropping
+	 * the values that have not been delivered yet.
+	 */
+	private void fail(Throwable throwable) {
+		this.failure = throwable;
+		this.discarded = true;
+		this.done = true;
+		this.cancelUpstream();
+	}
+
+	/*
+	 * Ends the stream at once after the subscriber, the publisher or the
+	 * executor has thrown. Letting the exception escape would leave the drain
+	 * count raised, so that nothing would ever be delivered again.
+	 */
+	private void abort(Flow.Subscriber<? super Double> subscriber,
+			Throwable throwable) {
+		this.cancelUpstream();
+		if (!this.cancelled) {
+			this.cancelled = true;
+			try {
+				subscriber.onError(throwable);
+			} catch (Throwable ignored) {
+				// Nothing is left to tell the subscriber.
+			}
+		}
+	}
+
+	private void deliver(Flow.Subscriber<? super Double> subscriber) {
+		final boolean done = this.done;
+		if (this.discarded) {
+			synchronized (this.lock) {
+				this.pendingCount = 0;
+			}
+			this.readyStart = this.readyEnd;
+		}
+		if (this.readyStart == this.readyEnd) {
+			synchronized (this.lock) {
+				final double[] swap = this.ready;
+				this.ready = this.pending;
+				this.readyStart = 0;
+				this.readyEnd = this.pendingCount;
+				this.pending = swap;
+				this.pendingCount = 0;
+			}
+			if (this.readyEnd > 0) {
+				this.conversion.convert(this.ready, this.readyEnd);
+			}
+		}
+		final int start = this.readyStart;
+		while (this.readyStart < this.readyEnd && this.demand.get() > 0
+				&& !this.cancelled && !this.discarded) {
+			this.demand.decrementAndGet();
+			subscriber.onNext(this.ready[this.readyStart++]);
+		}
+		final int delivered = this.readyStart - start;
+		if (delivered > 0 && !done) {
+			this.upstream.request(delivered);
+		}
+		if (this.readyStart < this.readyEnd) {
+			return;
+		}
+		final boolean empty;
+		synchronized (this.lock) {
+			empty = this.pendingCount == 0;
+		}
+		if (!empty) {
+			this.drains.incrementAndGet();
+		} else if (done && !this.cancelled) {
+			this.cancelled = true;
+			if (this.failure != null) {
+				subscriber.onError(this.failure);
+			} else {
+				subscriber.onComplete();
+			}
+		}
+	}
+
+	// Subscriptions
+
+	private final class Subscription implements Flow.Subscription {
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				ConversionProcessor.this.fail(new IllegalArgumentException(
+						"a request must be positive!"));
+			} else {
+				ConversionProcessor.this.demand.getAndAccumulate(n,
+						(current, added) -> current + added < 0 ? Long.MAX_VALUE
+								: current + added);
+			}
+			ConversionProcessor.this.drain();
+		}
+
+		@Override
+		public void cancel() {
+			ConversionProcessor.this.cancelled = true;
+			ConversionProcessor.this.cancelUpstream();
+		}
+	}
+
+	private void cancelUpstream() {
+		final Flow.Subscription subscription = this.upstream;
+		if (subscription != null) {
+			subscription.cancel();
+		}
+	}
+
+	private static final class Cancelled implements Flow.Subscription {
+
+		static final Cancelled INSTANCE = new Cancelled();
+
+		@Override
+		public void request(long n) {
+		}
+
+		@Override
+		public void cancel() {
+		}
+	}
+
+	/*
+	 * Converts the first length values of the array in place.
+	 */
+	private interface Conversion {
+
+		void convert(double[] values, int length);
+	}
+}
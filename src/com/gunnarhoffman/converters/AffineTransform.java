@@ -0,0 +1,181 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * <p>
+ * A conversion of the form value * scale + offset, such as the 9/5 and 32 of
+ * Celsius to Fahrenheit. Both are held as exact Rationals, so transforms can
+ * be chained with andThen and reversed with inverse without any loss.
+ * </p>
+ *
+ * <p>
+ * Applying a transform to a BigDecimal rounds the result once, as described
+ * by the context, however many transforms were chained to make it. Applying
+ * it to a double computes value * scale + offset with the nearest doubles of
+ * the two, which is what the bulk conversions do.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class AffineTransform {
+
+	// Constants
+
+	public static final AffineTransform IDENTITY = new AffineTransform(
+			Rational.ONE, Rational.ZERO);
+
+	// Instance fields
+
+	private final Rational scale;
+	private final Rational offset;
+
+	/*
+	 * The scale and offset over their lowest common denominator, so
+	 * value * scale + offset = (value * scaleNumerator + offsetNumerator) *
+	 * divisor with a single rounding at the end.
+	 */
+	private final BigDecimal scaleNumerator;
+	private final BigDecimal offsetNumerator;
+	private final Rational divisor;
+
+	private final double doubleScale;
+	private final double doubleOffset;
+
+	// Constructor
+
+	private AffineTransform(Rational scale, Rational offset) {
+		this.scale = scale;
+		this.offset = offset;
+
+		BigInteger scaleDenominator = scale.getDenominator();
+		BigInteger offsetDenominator = offset.getDenominator();
+		BigInteger denominator = scaleDenominator.divide(
+				scaleDenominator.gcd(offsetDenominator)).multiply(
+				offsetDenominator);
+		this.scaleNumerator = new BigDecimal(scale.getNumerator().multiply(
+				denominator.divide(scaleDenominator)));
+		this.offsetNumerator = new BigDecimal(offset.getNumerator().multiply(
+				denominator.divide(offsetDenominator)));
+		this.divisor = Rational.valueOf(new BigDecimal(denominator))
+				.reciprocal();
+
+		this.doubleScale = scale.doubleValue();
+		this.doubleOffset = offset.doubleValue();
+	}
+
+	// Initializers
+
+	public static AffineTransform of(Rational scale, Rational offset) {
+		if (scale.equals(Rational.ONE) && offset.signum() == 0) {
+			return AffineTransform.IDENTITY;
+		}
+		return new AffineTransform(scale, offset);
+	}
+
+	public static AffineTransform scaling(Rational scale) {
+		return AffineTransform.of(scale, Rational.ZERO);
+	}
+
+	public static AffineTransform shifting(Rational offset) {
+		return AffineTransform.of(Rational.ONE, offset);
+	}
+
+	// Getters
+
+	public Rational getScale() {
+		return this.scale;
+	}
+
+	public Rational getOffset() {
+		return this.offset;
+	}
+
+	double getDoubleScale() {
+		return this.doubleScale;
+	}
+
+	double getDoubleOffset() {
+		return this.doubleOffset;
+	}
+
+	// Composition
+
+	/**
+	 * Returns the transform that applies this one and then the next.
+	 */
+	public AffineTransform andThen(AffineTransform next) {
+		if (this == AffineTransform.IDENTITY) {
+			return next;
+		}
+		if (next == AffineTransform.IDENTITY) {
+			return this;
+		}
+		return AffineTransform.of(this.scale.multiply(next.scale), this.offset
+				.multiply(next.scale).add(next.offset));
+	}
+
+	/**
+	 * Returns the transform that undoes this one.
+	 *
+	 * In the event the scale is zero a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public AffineTransform inverse() {
+		Rational reciprocal = this.scale.reciprocal();
+		return AffineTransform.of(reciprocal, this.offset.multiply(reciprocal)
+				.negate());
+	}
+
+	// Output
+
+	/**
+	 * Transforms the value, rounding the result once as described by the
+	 * context. Without an offset this is exactly Rational.applyTo.
+	 */
+	public BigDecimal applyTo(BigDecimal value, ConversionContext context) {
+		if (this.offset.signum() == 0) {
+			return this.scale.applyTo(value, context);
+		}
+		return this.divisor.applyTo(value.multiply(this.scaleNumerator).add(
+				this.offsetNumerator), context);
+	}
+
+	public double applyTo(double value) {
+		return value * this.doubleScale + this.doubleOffset;
+	}
+
+	// Object
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof AffineTransform)) {
+			return false;
+		}
+		AffineTransform transform = (AffineTransform) other;
+		return this.scale.equals(transform.scale)
+				&& this.offset.equals(transform.offset);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.scale.hashCode() * 31 + this.offset.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		if (this.offset.signum() < 0) {
+			return "x * " + this.scale + " - " + this.offset.negate();
+		}
+		return "x * " + this.scale + " + " + this.offset;
+	}
+}
@@ -0,0 +1,374 @@
+package com.gunnarhoffman.converters;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+
+/**
+ * <p>
+ * This class allows for the conversion of data rates (data over time). A
+ * rate may be given and output in any unit of ByteConverter per any unit of
+ * TimeConverter, such as Megabits per Second or Gigabytes per Hour, and the
+ * factors between them come from the UnitRegistry. As elsewhere in this
+ * library a Kilobit is 1024 bits.
+ * </p>
+ *
+ * <p>
+ * The rate is held exactly and only rounded once it is output. Where a
+ * double is good enough, such as for a network monitor working out the rate
+ * of every flow every second, the static convert method and toDouble
+ * multiply by a factor worked out once for every pair of rate units.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class BandwidthConverter {
+
+	// Constants
+
+	private static final ByteConverter.Unit[] DATA = ByteConverter.Unit
+			.values();
+	private static final TimeConverter.Unit[] TIMES = TimeConverter.Unit
+			.values();
+
+	/*
+	 * For every data and time unit pair the exact factor from one of that
+	 * data per one of that time into bytes per second, and back out of it.
+	 * A rate unit is numbered data * TIMES.length + time, and FACTORS holds
+	 * the factor between any two of them at from * RATE_UNITS + to. Each is
+	 * the product of the factors of the UnitRegistry between the data units
+	 * and between the time units, so it is within a rounding of exact, and
+	 * exact whenever both are.
+	 */
+	private static final int RATE_UNITS = DATA.length * TIMES.length;
+	private static final Rational[][] TO_BYTES_PER_SECOND = new Rational[DATA.length][TIMES.length];
+	private static final Rational[][] FROM_BYTES_PER_SECOND = new Rational[DATA.length][TIMES.length];
+	private static final double[] FACTORS = new double[RATE_UNITS * RATE_UNITS];
+
+	static {
+		for (ByteConverter.Unit data : DATA) {
+			for (TimeConverter.Unit time : TIMES) {
+				Rational toBase = data.ratioTo(ByteConverter.Unit.Byte).divide(
+						time.ratioTo(TimeConverter.Unit.Second));
+				TO_BYTES_PER_SECOND[data.ordinal()][time.ordinal()] = toBase;
+				FROM_BYTES_PER_SECOND[data.ordinal()][time.ordinal()] = toBase
+						.reciprocal();
+			}
+		}
+		for (int from = 0; from < RATE_UNITS; from++) {
+			ByteConverter.Unit fromData = DATA[from / TIMES.length];
+			TimeConverter.Unit fromTime = TIMES[from % TIMES.length];
+			for (int to = 0; to < RATE_UNITS; to++) {
+				FACTORS[from * RATE_UNITS + to] = fromData
+						.factorTo(DATA[to / TIMES.length])
+						* TIMES[to % TIMES.length].factorTo(fromTime);
+			}
+		}
+	}
+
+	/*
+	 * The units toString writes, largest first.
+	 */
+	private static final QuantityFormat FORMAT = new QuantityFormat(
+			new BigDecimal[] { ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH,
+					ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD,
+					ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND,
+					ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST,
+					BigDecimal.ONE }, new String[] { " TB/s", " GB/s",
+					" MB/s", " KB/s", " B/s" }, new int[] { 2, 2, 2, 2, 0 });
+
+	// Instance fields
+
+	/*
+	 * The rate is held as an amount and the exact factor that turns it into
+	 * bytes per second, so creating one from another unit never rounds.
+	 */
+	private final BigDecimal amount;
+	private final Rational toBase;
+	private double bytesPerSecond = Double.NaN;
+
+	private ConversionContext context = ConversionContext.DEFAULT;
+
+	// Constructor
+
+	private BandwidthConverter(BigDecimal amount, Rational toBase) {
+		if (amount.signum() == -1) {
+			throw new InvalidParameterException(
+					"negative bandwidth makes no sense!");
+		}
+		this.amount = amount;
+		this.toBase = toBase;
+	}
+
+	/**
+	 * Binds the context used to round the results of the output methods that
+	 * are not given one explicitly.
+	 *
+	 * @param context
+	 *            The context to round with.
+	 * @return This instance.
+	 */
+	public BandwidthConverter setContext(ConversionContext context) {
+		if (context == null) {
+			throw new InvalidParameterException("a context is required!");
+		}
+		this.context = context;
+		return this;
+	}
+
+	public ConversionContext getContext() {
+		return this.context;
+	}
+
+	// Static initializers for any units
+
+	public static BandwidthConverter from(double amount,
+			ByteConverter.Unit data, TimeConverter.Unit time) {
+		return BandwidthConverter.from(
+				new BigDecimal(Double.toString(amount)), data, time);
+	}
+
+	/**
+	 * Creates a rate of amount data units per time unit, such as 100
+	 * Megabits per Second.
+	 *
+	 * In the event the amount is negative a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public static BandwidthConverter from(BigDecimal amount,
+			ByteConverter.Unit data, TimeConverter.Unit time) {
+		return new BandwidthConverter(amount,
+				TO_BYTES_PER_SECOND[data.ordinal()][time.ordinal()]);
+	}
+
+	/**
+	 * Creates the rate that transfers the data in the time.
+	 *
+	 * In the event either is negative or the time is zero a runtime exception
+	 * of the type InvalidParameterException will be thrown.
+	 */
+	public static BandwidthConverter from(ByteConverter data,
+			TimeConverter time) {
+		if (time.getTime().signum() != 1) {
+			throw new InvalidParameterException("a duration must be positive!");
+		}
+		return new BandwidthConverter(data.exactBytes(),
+				TO_BYTES_PER_SECOND[ByteConverter.Unit.Byte.ordinal()][TimeConverter.Unit.Microsecond
+						.ordinal()].divide(Rational.valueOf(time.getTime())));
+	}
+
+	// Named static initializers
+
+	public static BandwidthConverter fromBytesPerSecond(long bytes) {
+		return BandwidthConverter.from(BigDecimal.valueOf(bytes),
+				ByteConverter.Unit.Byte, TimeConverter.Unit.Second);
+	}
+
+	public static BandwidthConverter fromKilobitsPerSecond(double kilobits) {
+		return BandwidthConverter.from(kilobits, ByteConverter.Unit.Kilobit,
+				TimeConverter.Unit.Second);
+	}
+
+	public static BandwidthConverter fromMegabitsPerSecond(double megabits) {
+		return BandwidthConverter.from(megabits, ByteConverter.Unit.Megabit,
+				TimeConverter.Unit.Second);
+	}
+
+	public static BandwidthConverter fromGigabitsPerSecond(double gigabits) {
+		return BandwidthConverter.from(gigabits, ByteConverter.Unit.Gigabit,
+				TimeConverter.Unit.Second);
+	}
+
+	public static BandwidthConverter fromMegabytesPerSecond(double megabytes) {
+		return BandwidthConverter.from(megabytes,
+				ByteConverter.Unit.Megabyte, TimeConverter.Unit.Second);
+	}
+
+	public static BandwidthConverter fromGigabytesPerHour(double gigabytes) {
+		return BandwidthConverter.from(gigabytes,
+				ByteConverter.Unit.Gigabyte, TimeConverter.Unit.Hour);
+	}
+
+	// Output in any units
+
+	public BigDecimal to(ByteConverter.Unit data, TimeConverter.Unit time) {
+		return this.to(data, time, this.context);
+	}
+
+	/**
+	 * Returns this rate in data units per time unit, rounded once as
+	 * described by the context.
+	 */
+	public BigDecimal to(ByteConverter.Unit data, TimeConverter.Unit time,
+			ConversionContext context) {
+		return this.toBase.multiply(
+				FROM_BYTES_PER_SECOND[data.ordinal()][time.ordinal()])
+				.applyTo(this.amount, context);
+	}
+
+	/**
+	 * Returns this rate in data units per time unit as the nearest double,
+	 * give or take a rounding. Only the first call rounds the exact rate,
+	 * every call after that is a single multiplication.
+	 */
+	public double toDouble(ByteConverter.Unit data, TimeConverter.Unit time) {
+		double bytesPerSecond = this.bytesPerSecond;
+		if (Double.isNaN(bytesPerSecond)) {
+			bytesPerSecond = this.toBase.applyTo(this.amount,
+					ConversionContext.DECIMAL64).doubleValue();
+			this.bytesPerSecond = bytesPerSecond;
+		}
+		return bytesPerSecond
+				* BandwidthConverter.factor(ByteConverter.Unit.Byte,
+						TimeConverter.Unit.Second, data, time);
+	}
+
+	// Named output
+
+	public BigDecimal toBytesPerSecond() {
+		return this.toBytesPerSecond(this.context);
+	}
+
+	public BigDecimal toBytesPerSecond(ConversionContext context) {
+		return this.to(ByteConverter.Unit.Byte, TimeConverter.Unit.Second,
+				context);
+	}
+
+	public BigDecimal toKilobitsPerSecond() {
+		return this.toKilobitsPerSecond(this.context);
+	}
+
+	public BigDecimal toKilobitsPerSecond(ConversionContext context) {
+		return this.to(ByteConverter.Unit.Kilobit, TimeConverter.Unit.Second,
+				context);
+	}
+
+	public BigDecimal toMegabitsPerSecond() {
+		return this.toMegabitsPerSecond(this.context);
+	}
+
+	public BigDecimal toMegabitsPerSecond(ConversionContext context) {
+		return this.to(ByteConverter.Unit.Megabit, TimeConverter.Unit.Second,
+				context);
+	}
+
+	public BigDecimal toGigabitsPerSecond() {
+		return this.toGigabitsPerSecond(this.context);
+	}
+
+	public BigDecimal toGigabitsPerSecond(ConversionContext context) {
+		return this.to(ByteConverter.Unit.Gigabit, TimeConverter.Unit.Second,
+				context);
+	}
+
+	public BigDecimal toKilobytesPerSecond() {
+		return this.toKilobytesPerSecond(this.context);
+	}
+
+	public BigDecimal toKilobytesPerSecond(ConversionContext context) {
+		return this.to(ByteConverter.Unit.Kilobyte, TimeConverter.Unit.Second,
+				context);
+	}
+
+	public BigDecimal toMegabytesPerSecond() {
+		return this.toMegabytesPerSecond(this.context);
+	}
+
+	public BigDecimal toMegabytesPerSecond(ConversionContext context) {
+		return this.to(ByteConverter.Unit.Megabyte, TimeConverter.Unit.Second,
+				context);
+	}
+
+	public BigDecimal toGigabytesPerSecond() {
+		return this.toGigabytesPerSecond(this.context);
+	}
+
+	public BigDecimal toGigabytesPerSecond(ConversionContext context) {
+		return this.to(ByteConverter.Unit.Gigabyte, TimeConverter.Unit.Second,
+				context);
+	}
+
+	public BigDecimal toGigabytesPerHour() {
+		return this.toGigabytesPerHour(this.context);
+	}
+
+	public BigDecimal toGigabytesPerHour(ConversionContext context) {
+		return this.to(ByteConverter.Unit.Gigabyte, TimeConverter.Unit.Hour,
+				context);
+	}
+
+	public BigDecimal toTerabytesPerDay() {
+		return this.toTerabytesPerDay(this.context);
+	}
+
+	public BigDecimal toTerabytesPerDay(ConversionContext context) {
+		return this.to(ByteConverter.Unit.Terabyte, TimeConverter.Unit.Day,
+				context);
+	}
+
+	// Primitive conversion
+
+	/**
+	 * Returns the number to multiply a rate in the from units by to express
+	 * it in the to units, for instance to convert whole arrays of rates with
+	 * BulkConversion.
+	 */
+	public static double factor(ByteConverter.Unit fromData,
+			TimeConverter.Unit fromTime, ByteConverter.Unit toData,
+			TimeConverter.Unit toTime) {
+		return FACTORS[(fromData.ordinal() * TIMES.length + fromTime
+				.ordinal())
+				* RATE_UNITS
+				+ toData.ordinal()
+				* TIMES.length
+				+ toTime.ordinal()];
+	}
+
+	/**
+	 * Converts a single rate as a double, without creating a converter or
+	 * any other object. For example the Megabits per Second of a flow that
+	 * sent bytes in seconds is
+	 *
+	 * <pre>
+	 * BandwidthConverter.convert(bytes / seconds, ByteConverter.Unit.Byte,
+	 * 		TimeConverter.Unit.Second, ByteConverter.Unit.Megabit,
+	 * 		TimeConverter.Unit.Second);
+	 * </pre>
+	 */
+	public static double convert(double rate, ByteConverter.Unit fromData,
+			TimeConverter.Unit fromTime, ByteConverter.Unit toData,
+			TimeConverter.Unit toTime) {
+		return rate
+				* BandwidthConverter.factor(fromData, fromTime, toData, toTime);
+	}
+
+	// Output as a String
+
+	/**
+	 * Writes this rate the way toString does, in the largest unit of bytes
+	 * per second it comes to at least one of.
+	 *
+	 * In the event the Appendable fails a runtime exception of the type
+	 * UncheckedIOException will be thrown.
+	 *
+	 * @param out
+	 *            Where to write, usually a StringBuilder.
+	 * @return The same Appendable.
+	 */
+	public <A extends Appendable> A formatTo(A out) {
+		try {
+			FORMAT.formatTo(this.toBase.applyTo(this.amount,
+					ConversionContext.DECIMAL64), out);
+			return out;
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.formatTo(new StringBuilder(24)).toString();
+	}
+}
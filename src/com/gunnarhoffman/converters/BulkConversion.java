@@ -0,0 +1,845 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>
+ * Converts whole arrays of values at once, splitting arrays of more than
+ * THRESHOLD values across a ForkJoinPool. Smaller ranges are converted on the
+ * calling thread, where the cost of forking would outweigh the work. No
+ * converter objects are created along the way, so this is suited to
+ * reprocessing hundreds of millions of values.
+ * </p>
+ *
+ * <p>
+ * The stream and spliterator methods offer the same conversion as a view, so
+ * parallelStream pipelines can consume converted values without first
+ * writing them to an array. Their spliterators split by halving the index
+ * range, which costs nothing and keeps every part the same size.
+ * </p>
+ *
+ * <p>
+ * Buffers, such as direct buffers filled by the network layer, are converted
+ * in place through absolute gets and puts, so the values are never copied
+ * onto the heap.
+ * </p>
+ *
+ * <p>
+ * The conversion loops themselves are those of a ConversionKernel. When the
+ * vector source folder is compiled in and the jdk.incubator.vector module is
+ * available its SIMD kernel is used, otherwise a scalar one that gives the
+ * same results. Setting the system property
+ * com.gunnarhoffman.converters.kernel to scalar forces the scalar kernel.
+ * </p>
+ *
+ * <p>
+ * The factors passed in are usually obtained from the factorTo method of the
+ * Unit enums of the converters, or from a Rational for exact results.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class BulkConversion {
+
+	// Constants
+
+	/**
+	 * The number of values below which a range is converted sequentially.
+	 */
+	public static final int THRESHOLD = 1 << 14;
+
+	public static final String KERNEL_PROPERTY = "com.gunnarhoffman.converters.kernel";
+
+	private static final String VECTOR_KERNEL = "com.gunnarhoffman.converters.vector.VectorConversionKernel";
+
+	private static final ConversionKernel KERNEL = BulkConversion.loadKernel();
+
+	// Constructor
+
+	private BulkConversion() {
+	}
+
+	// Kernels
+
+	/**
+	 * Returns the kernel the conversions are done with.
+	 */
+	public static ConversionKernel getKernel() {
+		return KERNEL;
+	}
+
+	/**
+	 * Returns the scalar kernel, which every other kernel agrees with.
+	 */
+	public static ConversionKernel getScalarKernel() {
+		return ScalarConversionKernel.INSTANCE;
+	}
+
+	/*
+	 * The vector kernel is loaded by name, so this class neither needs it to
+	 * compile nor fails without it. Should it be missing, or the module it
+	 * needs be missing, loading it fails with a LinkageError.
+	 */
+	private static ConversionKernel loadKernel() {
+		if ("scalar".equals(System.getProperty(KERNEL_PROPERTY))) {
+			return ScalarConversionKernel.INSTANCE;
+		}
+		try {
+			return (ConversionKernel) Class.forName(VECTOR_KERNEL)
+					.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError
+				| RuntimeException unavailable) {
+			return ScalarConversionKernel.INSTANCE;
+		}
+	}
+
+	// Primitive arrays
+
+	/**
+	 * <p>
+	 * Multiplies length values of the source array, starting at sourceOffset,
+	 * by the factor and writes them to the destination array, starting at
+	 * destinationOffset. The common ForkJoinPool does the work.
+	 * </p>
+	 *
+	 * <p>
+	 * As with System.arraycopy the source and destination may be the same
+	 * array. Should the ranges overlap without being identical the values
+	 * are converted sequentially.
+	 * </p>
+	 */
+	public static void convert(double[] source, int sourceOffset,
+			double[] destination, int destinationOffset, int length,
+			double factor) {
+		BulkConversion.convert(ForkJoinPool.commonPool(), source, sourceOffset,
+				destination, destinationOffset, length, factor);
+	}
+
+	/**
+	 * Converts as convert(double[], int, double[], int, int, double) does,
+	 * using the given pool rather than the common one.
+	 */
+	public static void convert(ForkJoinPool pool, double[] source,
+			int sourceOffset, double[] destination, int destinationOffset,
+			int length, double factor) {
+
+		BulkConversion.checkRange(source.length, sourceOffset, length);
+		BulkConversion.checkRange(destination.length, destinationOffset, length);
+
+		if (source == destination && destinationOffset > sourceOffset
+				&& destinationOffset < sourceOffset + length) {
+			// Backwards, so no value is overwritten before it is read.
+			for (int i = length - 1; i >= 0; i--) {
+				destination[destinationOffset + i] = source[sourceOffset + i]
+						* factor;
+			}
+			return;
+		}
+		if (source == destination && destinationOffset < sourceOffset
+				&& sourceOffset < destinationOffset + length) {
+			for (int i = 0; i < length; i++) {
+				destination[destinationOffset + i] = source[sourceOffset + i]
+						* factor;
+			}
+			return;
+		}
+
+		BulkConversion.run(pool, new DoubleTask(source, sourceOffset,
+				destination, destinationOffset, 0, length, factor, 0, false));
+	}
+
+	/**
+	 * Multiplies length values of the source array by the factor and adds the
+	 * addend, as needed between temperature scales, and otherwise converts
+	 * as convert(double[], int, double[], int, int, double) does.
+	 */
+	public static void convert(double[] source, int sourceOffset,
+			double[] destination, int destinationOffset, int length,
+			double factor, double addend) {
+		BulkConversion.convert(ForkJoinPool.commonPool(), source, sourceOffset,
+				destination, destinationOffset, length, factor, addend);
+	}
+
+	/**
+	 * Converts as convert(double[], int, double[], int, int, double, double)
+	 * does, using the given pool rather than the common one.
+	 */
+	public static void convert(ForkJoinPool pool, double[] source,
+			int sourceOffset, double[] destination, int destinationOffset,
+			int length, double factor, double addend) {
+
+		BulkConversion.checkRange(source.length, sourceOffset, length);
+		BulkConversion.checkRange(destination.length, destinationOffset, length);
+
+		if (source == destination && destinationOffset > sourceOffset
+				&& destinationOffset < sourceOffset + length) {
+			for (int i = length - 1; i >= 0; i--) {
+				destination[destinationOffset + i] = source[sourceOffset + i]
+						* factor + addend;
+			}
+			return;
+		}
+		if (source == destination && destinationOffset < sourceOffset
+				&& sourceOffset < destinationOffset + length) {
+			for (int i = 0; i < length; i++) {
+				destination[destinationOffset + i] = source[sourceOffset + i]
+						* factor + addend;
+			}
+			return;
+		}
+
+		BulkConversion.run(pool, new DoubleTask(source, sourceOffset,
+				destination, destinationOffset, 0, length, factor, addend,
+				true));
+	}
+
+	/**
+	 * Multiplies length values of the source array, starting at sourceOffset,
+	 * by the factor and writes them to the destination array, starting at
+	 * destinationOffset. The common ForkJoinPool does the work.
+	 */
+	public static void convert(long[] source, int sourceOffset,
+			double[] destination, int destinationOffset, int length,
+			double factor) {
+		BulkConversion.convert(ForkJoinPool.commonPool(), source, sourceOffset,
+				destination, destinationOffset, length, factor);
+	}
+
+	/**
+	 * Converts as convert(long[], int, double[], int, int, double) does, using
+	 * the given pool rather than the common one.
+	 */
+	public static void convert(ForkJoinPool pool, long[] source,
+			int sourceOffset, double[] destination, int destinationOffset,
+			int length, double factor) {
+
+		BulkConversion.checkRange(source.length, sourceOffset, length);
+		BulkConversion.checkRange(destination.length, destinationOffset, length);
+
+		BulkConversion.run(pool, new LongTask(source, sourceOffset,
+				destination, destinationOffset, 0, length, factor));
+	}
+
+	// BigDecimal arrays
+
+	/**
+	 * <p>
+	 * Multiplies length values of the source array, starting at sourceOffset,
+	 * by the factor and writes them to the destination array, starting at
+	 * destinationOffset. Each value is rounded once as described by the
+	 * context. The common ForkJoinPool does the work.
+	 * </p>
+	 *
+	 * <p>
+	 * The source and destination may be the same array, on the same terms as
+	 * for arrays of doubles.
+	 * </p>
+	 */
+	public static void convert(BigDecimal[] source, int sourceOffset,
+			BigDecimal[] destination, int destinationOffset, int length,
+			Rational factor, ConversionContext context) {
+		BulkConversion.convert(ForkJoinPool.commonPool(), source, sourceOffset,
+				destination, destinationOffset, length, factor, context);
+	}
+
+	/**
+	 * Converts as convert(BigDecimal[], int, BigDecimal[], int, int, Rational,
+	 * ConversionContext) does, using the given pool rather than the common
+	 * one.
+	 */
+	public static void convert(ForkJoinPool pool, BigDecimal[] source,
+			int sourceOffset, BigDecimal[] destination, int destinationOffset,
+			int length, Rational factor, ConversionContext context) {
+		BulkConversion.convert(pool, source, sourceOffset, destination,
+				destinationOffset, length, AffineTransform.scaling(factor),
+				context);
+	}
+
+	/**
+	 * Applies the transform to length values of the source array and writes
+	 * them to the destination array, as convert(BigDecimal[], int,
+	 * BigDecimal[], int, int, Rational, ConversionContext) does. The common
+	 * ForkJoinPool does the work.
+	 */
+	public static void convert(BigDecimal[] source, int sourceOffset,
+			BigDecimal[] destination, int destinationOffset, int length,
+			AffineTransform transform, ConversionContext context) {
+		BulkConversion.convert(ForkJoinPool.commonPool(), source, sourceOffset,
+				destination, destinationOffset, length, transform, context);
+	}
+
+	/**
+	 * Converts as convert(BigDecimal[], int, BigDecimal[], int, int,
+	 * AffineTransform, ConversionContext) does, using the given pool rather
+	 * than the common one.
+	 */
+	public static void convert(ForkJoinPool pool, BigDecimal[] source,
+			int sourceOffset, BigDecimal[] destination, int destinationOffset,
+			int length, AffineTransform transform, ConversionContext context) {
+
+		BulkConversion.checkRange(source.length, sourceOffset, length);
+		BulkConversion.checkRange(destination.length, destinationOffset, length);
+
+		if (source == destination && destinationOffset != sourceOffset
+				&& destinationOffset < sourceOffset + length
+				&& sourceOffset < destinationOffset + length) {
+			// Overlapping ranges are converted through a copy.
+			BigDecimal[] copy = new BigDecimal[length];
+			System.arraycopy(source, sourceOffset, copy, 0, length);
+			source = copy;
+			sourceOffset = 0;
+		}
+
+		BulkConversion.run(pool, new DecimalTask(source, sourceOffset,
+				destination, destinationOffset, 0, length, transform, context));
+	}
+
+	// Buffers
+
+	/**
+	 * <p>
+	 * Multiplies the remaining values of the source buffer by the factor and
+	 * writes them to the destination buffer, starting at its position. The
+	 * positions of both buffers are then advanced past the values converted,
+	 * as DoubleBuffer.put(DoubleBuffer) would. The common ForkJoinPool does
+	 * the work.
+	 * </p>
+	 *
+	 * <p>
+	 * The source and destination may be the same buffer, in which case the
+	 * values are converted in place. Otherwise they should not share memory.
+	 * </p>
+	 *
+	 * <p>
+	 * In the event the destination has fewer values remaining than the
+	 * source a BufferOverflowException is thrown, and in the event it is read
+	 * only a ReadOnlyBufferException is thrown, before anything is written.
+	 * </p>
+	 */
+	public static void convert(DoubleBuffer source, DoubleBuffer destination,
+			double factor) {
+		BulkConversion.convert(ForkJoinPool.commonPool(), source, destination,
+				factor);
+	}
+
+	/**
+	 * Converts as convert(DoubleBuffer, DoubleBuffer, double) does, using the
+	 * given pool rather than the common one.
+	 */
+	public static void convert(ForkJoinPool pool, DoubleBuffer source,
+			DoubleBuffer destination, double factor) {
+
+		int length = BulkConversion.checkBuffers(source.remaining(),
+				destination.remaining(), destination.isReadOnly());
+		int sourceOffset = source.position();
+		int destinationOffset = destination.position();
+
+		if (source.hasArray() && destination.hasArray()) {
+			BulkConversion.convert(pool, source.array(), source.arrayOffset()
+					+ sourceOffset, destination.array(),
+					destination.arrayOffset() + destinationOffset, length,
+					factor);
+		} else {
+			BulkConversion.run(pool, new DoubleBufferTask(source,
+					sourceOffset, destination, destinationOffset, 0, length,
+					factor));
+		}
+
+		source.position(sourceOffset + length);
+		destination.position(destinationOffset + length);
+	}
+
+	/**
+	 * Multiplies the remaining values of the source buffer by the factor and
+	 * writes them to the destination buffer, as convert(DoubleBuffer,
+	 * DoubleBuffer, double) does. The common ForkJoinPool does the work.
+	 */
+	public static void convert(LongBuffer source, DoubleBuffer destination,
+			double factor) {
+		BulkConversion.convert(ForkJoinPool.commonPool(), source, destination,
+				factor);
+	}
+
+	/**
+	 * Converts as convert(LongBuffer, DoubleBuffer, double) does, using the
+	 * given pool rather than the common one.
+	 */
+	public static void convert(ForkJoinPool pool, LongBuffer source,
+			DoubleBuffer destination, double factor) {
+
+		int length = BulkConversion.checkBuffers(source.remaining(),
+				destination.remaining(), destination.isReadOnly());
+		int sourceOffset = source.position();
+		int destinationOffset = destination.position();
+
+		if (source.hasArray() && destination.hasArray()) {
+			BulkConversion.convert(pool, source.array(), source.arrayOffset()
+					+ sourceOffset, destination.array(),
+					destination.arrayOffset() + destinationOffset, length,
+					factor);
+		} else {
+			BulkConversion.run(pool, new LongBufferTask(source, sourceOffset,
+					destination, destinationOffset, 0, length, factor));
+		}
+
+		source.position(sourceOffset + length);
+		destination.position(destinationOffset + length);
+	}
+
+	// Streams
+
+	/**
+	 * Returns a stream of the values multiplied by the factor. The values are
+	 * converted as the stream consumes them and the array is not copied, so
+	 * it should not be modified while the stream is in use.
+	 */
+	public static DoubleStream stream(double[] values, double factor,
+			boolean parallel) {
+		return StreamSupport.doubleStream(BulkConversion.spliterator(values, 0,
+				values.length, factor), parallel);
+	}
+
+	/**
+	 * Returns a stream of the values multiplied by the factor, each rounded
+	 * once as described by the context. The values are converted as the
+	 * stream consumes them and the array is not copied.
+	 */
+	public static Stream<BigDecimal> stream(BigDecimal[] values,
+			Rational factor, ConversionContext context, boolean parallel) {
+		return StreamSupport.stream(BulkConversion.spliterator(values, 0,
+				values.length, factor, context), parallel);
+	}
+
+	/**
+	 * Returns a spliterator over the values from fromIndex, inclusive, to
+	 * toIndex, exclusive, multiplied by the factor.
+	 */
+	public static Spliterator.OfDouble spliterator(double[] values,
+			int fromIndex, int toIndex, double factor) {
+		BulkConversion.checkRange(values.length, fromIndex, toIndex - fromIndex);
+		return new DoubleSpliterator(values, fromIndex, toIndex, factor);
+	}
+
+	/**
+	 * Returns a spliterator over the values from fromIndex, inclusive, to
+	 * toIndex, exclusive, multiplied by the factor and rounded as described by
+	 * the context.
+	 */
+	public static Spliterator<BigDecimal> spliterator(BigDecimal[] values,
+			int fromIndex, int toIndex, Rational factor,
+			ConversionContext context) {
+		BulkConversion.checkRange(values.length, fromIndex, toIndex - fromIndex);
+		return new DecimalSpliterator(values, fromIndex, toIndex, factor,
+				context);
+	}
+
+	// Helpers
+
+	static void checkRange(int arrayLength, int offset, int length) {
+		if (offset < 0 || length < 0 || offset > arrayLength - length) {
+			throw new ArrayIndexOutOfBoundsException("range [" + offset
+					+ ", " + offset + " + " + length
+					+ ") out of bounds for length " + arrayLength);
+		}
+	}
+
+	private static int checkBuffers(int sourceRemaining,
+			int destinationRemaining, boolean destinationReadOnly) {
+		if (destinationReadOnly) {
+			throw new ReadOnlyBufferException();
+		}
+		if (destinationRemaining < sourceRemaining) {
+			throw new BufferOverflowException();
+		}
+		return sourceRemaining;
+	}
+
+	/*
+	 * Small ranges never reach the pool, and a task already running in the
+	 * pool forks into it rather than blocking one of its threads.
+	 */
+	private static void run(ForkJoinPool pool, RangeTask task) {
+		if (task.end - task.start <= THRESHOLD) {
+			task.convert(task.start, task.end);
+		} else if (ForkJoinTask.inForkJoinPool()) {
+			task.invoke();
+		} else {
+			pool.invoke(task);
+		}
+	}
+
+	// Tasks
+
+	/*
+	 * Converts the range [start, end) of the source, halving it until it is
+	 * no larger than THRESHOLD.
+	 */
+	private static abstract class RangeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		final int start;
+		final int end;
+
+		RangeTask(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		abstract RangeTask split(int start, int end);
+
+		abstract void convert(int start, int end);
+
+		@Override
+		protected void compute() {
+			if (this.end - this.start <= THRESHOLD) {
+				this.convert(this.start, this.end);
+				return;
+			}
+			int middle = (this.start + this.end) >>> 1;
+			RecursiveAction.invokeAll(this.split(this.start, middle),
+					this.split(middle, this.end));
+		}
+	}
+
+	private static final class DoubleTask extends RangeTask {
+
+		private static final long serialVersionUID = 1L;
+
+		private final double[] source;
+		private final int sourceOffset;
+		private final double[] destination;
+		private final int destinationOffset;
+		private final double factor;
+		private final double addend;
+		private final boolean affine;
+
+		DoubleTask(double[] source, int sourceOffset, double[] destination,
+				int destinationOffset, int start, int end, double factor,
+				double addend, boolean affine) {
+			super(start, end);
+			this.source = source;
+			this.sourceOffset = sourceOffset;
+			this.destination = destination;
+			this.destinationOffset = destinationOffset;
+			this.factor = factor;
+			this.addend = addend;
+			this.affine = affine;
+		}
+
+		@Override
+		RangeTask split(int start, int end) {
+			return new DoubleTask(this.source, this.sourceOffset,
+					this.destination, this.destinationOffset, start, end,
+					this.factor, this.addend, this.affine);
+		}
+
+		@Override
+		void convert(int start, int end) {
+			// Adding zero would turn -0.0 into 0.0, so a plain multiplication
+			// is kept apart.
+			if (this.affine) {
+				KERNEL.multiplyAdd(this.source, this.sourceOffset + start,
+						this.destination, this.destinationOffset + start, end
+								- start, this.factor, this.addend);
+			} else {
+				KERNEL.multiply(this.source, this.sourceOffset + start,
+						this.destination, this.destinationOffset + start, end
+								- start, this.factor);
+			}
+		}
+	}
+
+	private static final class LongTask extends RangeTask {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long[] source;
+		private final int sourceOffset;
+		private final double[] destination;
+		private final int destinationOffset;
+		private final double factor;
+
+		LongTask(long[] source, int sourceOffset, double[] destination,
+				int destinationOffset, int start, int end, double factor) {
+			super(start, end);
+			this.source = source;
+			this.sourceOffset = sourceOffset;
+			this.destination = destination;
+			this.destinationOffset = destinationOffset;
+			this.factor = factor;
+		}
+
+		@Override
+		RangeTask split(int start, int end) {
+			return new LongTask(this.source, this.sourceOffset,
+					this.destination, this.destinationOffset, start, end,
+					this.factor);
+		}
+
+		@Override
+		void convert(int start, int end) {
+			KERNEL.multiply(this.source, this.sourceOffset + start,
+					this.destination, this.destinationOffset + start, end
+							- start, this.factor);
+		}
+	}
+
+	private static final class DecimalTask extends RangeTask {
+
+		private static final long serialVersionUID = 1L;
+
+		private final BigDecimal[] source;
+		private final int sourceOffset;
+		private final BigDecimal[] destination;
+		private final int destinationOffset;
+		private final AffineTransform transform;
+		private final ConversionContext context;
+
+		DecimalTask(BigDecimal[] source, int sourceOffset,
+				BigDecimal[] destination, int destinationOffset, int start,
+				int end, AffineTransform transform, ConversionContext context) {
+			super(start, end);
+			this.source = source;
+			this.sourceOffset = sourceOffset;
+			this.destination = destination;
+			this.destinationOffset = destinationOffset;
+			this.transform = transform;
+			this.context = context;
+		}
+
+		@Override
+		RangeTask split(int start, int end) {
+			return new DecimalTask(this.source, this.sourceOffset,
+					this.destination, this.destinationOffset, start, end,
+					this.transform, this.context);
+		}
+
+		@Override
+		void convert(int start, int end) {
+			int shift = this.destinationOffset - this.sourceOffset;
+			for (int i = this.sourceOffset + start; i < this.sourceOffset + end; i++) {
+				this.destination[i + shift] = this.transform.applyTo(
+						this.source[i], this.context);
+			}
+		}
+	}
+
+	private static final class DoubleBufferTask extends RangeTask {
+
+		private static final long serialVersionUID = 1L;
+
+		private final DoubleBuffer source;
+		private final int sourceOffset;
+		private final DoubleBuffer destination;
+		private final int destinationOffset;
+		private final double factor;
+
+		DoubleBufferTask(DoubleBuffer source, int sourceOffset,
+				DoubleBuffer destination, int destinationOffset, int start,
+				int end, double factor) {
+			super(start, end);
+			this.source = source;
+			this.sourceOffset = sourceOffset;
+			this.destination = destination;
+			this.destinationOffset = destinationOffset;
+			this.factor = factor;
+		}
+
+		@Override
+		RangeTask split(int start, int end) {
+			return new DoubleBufferTask(this.source, this.sourceOffset,
+					this.destination, this.destinationOffset, start, end,
+					this.factor);
+		}
+
+		@Override
+		void convert(int start, int end) {
+			// Absolute gets and puts leave the positions alone, so the parts
+			// can be converted at once.
+			DoubleBuffer source = this.source;
+			DoubleBuffer destination = this.destination;
+			int shift = this.destinationOffset - this.sourceOffset;
+			double factor = this.factor;
+			for (int i = this.sourceOffset + start; i < this.sourceOffset + end; i++) {
+				destination.put(i + shift, source.get(i) * factor);
+			}
+		}
+	}
+
+	private static final class LongBufferTask extends RangeTask {
+
+		private static final long serialVersionUID = 1L;
+
+		private final LongBuffer source;
+		private final int sourceOffset;
+		private final DoubleBuffer destination;
+		private final int destinationOffset;
+		private final double factor;
+
+		LongBufferTask(LongBuffer source, int sourceOffset,
+				DoubleBuffer destination, int destinationOffset, int start,
+				int end, double factor) {
+			super(start, end);
+			this.source = source;
+			this.sourceOffset = sourceOffset;
+			this.destination = destination;
+			this.destinationOffset = destinationOffset;
+			this.factor = factor;
+		}
+
+		@Override
+		RangeTask split(int start, int end) {
+			return new LongBufferTask(this.source, this.sourceOffset,
+					this.destination, this.destinationOffset, start, end,
+					this.factor);
+		}
+
+		@Override
+		void convert(int start, int end) {
+			LongBuffer source = this.source;
+			DoubleBuffer destination = this.destination;
+			int shift = this.destinationOffset - this.sourceOffset;
+			double factor = this.factor;
+			for (int i = this.sourceOffset + start; i < this.sourceOffset + end; i++) {
+				destination.put(i + shift, source.get(i) * factor);
+			}
+		}
+	}
+
+	// Spliterators
+
+	private static final class DoubleSpliterator implements
+			Spliterator.OfDouble {
+
+		private final double[] values;
+		private final double factor;
+		private int index;
+		private final int fence;
+
+		DoubleSpliterator(double[] values, int index, int fence, double factor) {
+			this.values = values;
+			this.index = index;
+			this.fence = fence;
+			this.factor = factor;
+		}
+
+		@Override
+		public OfDouble trySplit() {
+			int middle = (this.index + this.fence) >>> 1;
+			if (middle <= this.index) {
+				return null;
+			}
+			DoubleSpliterator prefix = new DoubleSpliterator(this.values,
+					this.index, middle, this.factor);
+			this.index = middle;
+			return prefix;
+		}
+
+		@Override
+		public boolean tryAdvance(DoubleConsumer action) {
+			if (this.index >= this.fence) {
+				return false;
+			}
+			action.accept(this.values[this.index++] * this.factor);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(DoubleConsumer action) {
+			double[] values = this.values;
+			double factor = this.factor;
+			int fence = this.fence;
+			for (int i = this.index; i < fence; i++) {
+				action.accept(values[i] * factor);
+			}
+			this.index = fence;
+		}
+
+		@Override
+		public long estimateSize() {
+			return this.fence - this.index;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED
+					| Spliterator.SUBSIZED;
+		}
+	}
+
+	private static final class DecimalSpliterator implements
+			Spliterator<BigDecimal> {
+
+		private final BigDecimal[] values;
+		private final Rational factor;
+		private final ConversionContext context;
+		private int index;
+		private final int fence;
+
+		DecimalSpliterator(BigDecimal[] values, int index, int fence,
+				Rational factor, ConversionContext context) {
+			this.values = values;
+			this.index = index;
+			this.fence = fence;
+			this.factor = factor;
+			this.context = context;
+		}
+
+		@Override
+		public Spliterator<BigDecimal> trySplit() {
+			int middle = (this.index + this.fence) >>> 1;
+			if (middle <= this.index) {
+				return null;
+			}
+			DecimalSpliterator prefix = new DecimalSpliterator(this.values,
+					this.index, middle, this.factor, this.context);
+			this.index = middle;
+			return prefix;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super BigDecimal> action) {
+			if (this.index >= this.fence) {
+				return false;
+			}
+			action.accept(this.factor.applyTo(this.values[this.index++],
+					this.context));
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super BigDecimal> action) {
+			int fence = this.fence;
+			for (int i = this.index; i < fence; i++) {
+				action.accept(this.factor.applyTo(this.values[i], this.context));
+			}
+			this.index = fence;
+		}
+
+		@Override
+		public long estimateSize() {
+			return this.fence - this.index;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SIZED
+					| Spliterator.SUBSIZED | Spliterator.NONNULL;
+		}
+	}
+}
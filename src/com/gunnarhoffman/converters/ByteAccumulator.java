@@ -0,0 +1,187 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A running byte count that any number of threads can add to at once, such
+ * as the traffic sent and received by a pool of workers. It offers the add
+ * methods of ByteConverter, and snapshot returns the count so far as a
+ * ByteConverter.
+ * </p>
+ *
+ * <p>
+ * The count is held as ByteConverter holds it, in whole bytes plus
+ * billionths of a byte, but in a pair of LongAdders. These give each
+ * contending thread a cell of its own, so adding never waits on a lock or
+ * on a cache line written by another thread. Adding whole bytes creates no
+ * objects. Fractions of a byte are kept to the billionth, rounding down, and
+ * the whole bytes among them are carried out every so often, so that no
+ * number of additions overflows the billionths.
+ * </p>
+ *
+ * <p>
+ * As with LongAdder, a snapshot taken while other threads are adding may or
+ * may not include their latest additions.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class ByteAccumulator {
+
+	// Constants
+
+	/*
+	 * The billionths are carried about once in this many fractional
+	 * additions. Between carries they grow by about CARRY_INTERVAL bytes,
+	 * where a long holds the billionths of some nine billion.
+	 */
+	private static final int CARRY_INTERVAL = 1 << 16;
+
+	// Instance fields
+
+	private final LongAdder wholeBytes = new LongAdder();
+	private final LongAdder nanobytes = new LongAdder();
+
+	// Addition and (via the use of negative numbers) subtraction
+
+	public ByteAccumulator addBytes(long bytes) {
+		this.wholeBytes.add(bytes);
+		return this;
+	}
+
+	public ByteAccumulator addKilobytes(double kilobytes) {
+		return this.add(kilobytes, ByteConverter.KILOBYTE_SHIFT);
+	}
+
+	public ByteAccumulator addMegabytes(double megabytes) {
+		return this.add(megabytes, ByteConverter.MEGABYTE_SHIFT);
+	}
+
+	public ByteAccumulator addGigabytes(double gigabytes) {
+		return this.add(gigabytes, ByteConverter.GIGABYTE_SHIFT);
+	}
+
+	public ByteAccumulator addTerabytes(double terabytes) {
+		return this.add(terabytes, ByteConverter.TERABYTE_SHIFT);
+	}
+
+	/**
+	 * Adds the size held by a converter.
+	 *
+	 * In the event the converter holds a negative size a runtime exception of
+	 * the type InvalidParameterException will be thrown.
+	 */
+	public ByteAccumulator add(ByteConverter converter) {
+		if (converter.isFixedPoint()) {
+			this.wholeBytes.add(converter.fixedWholeBytes());
+			this.addNanobytes(converter.fixedNanobytes());
+			return this;
+		}
+		return this.add(converter.exactBytes());
+	}
+
+	/*
+	 * Multiplying by a power of two is exact, so a quantity that comes to a
+	 * whole number of bytes is added as one. Anything else is split into
+	 * whole bytes and billionths the way ByteConverter does.
+	 */
+	private ByteAccumulator add(double value, int shift) {
+		final double bytes = Math.scalb(value, shift);
+		if (bytes == Math.rint(bytes) && Math.abs(bytes) < 0x1p63) {
+			this.wholeBytes.add((long) bytes);
+			return this;
+		}
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			throw new InvalidParameterException(value + " is not a size!");
+		}
+		return this.add(new BigDecimal(value).multiply(new BigDecimal(
+				1L << shift)));
+	}
+
+	private ByteAccumulator add(BigDecimal bytes) {
+		final BigDecimal whole = bytes.setScale(0, BigDecimal.ROUND_FLOOR);
+		try {
+			this.wholeBytes.add(whole.longValueExact());
+		} catch (ArithmeticException overflow) {
+			throw new InvalidParameterException(bytes
+					+ " bytes cannot be accumulated!");
+		}
+		this.addNanobytes(bytes.subtract(whole)
+				.movePointRight(ByteConverter.FRACTION_DIGITS)
+				.setScale(0, BigDecimal.ROUND_FLOOR).longValue());
+		return this;
+	}
+
+	/*
+	 * Each addition adds less than a byte of billionths, yet after some nine
+	 * billion of them their sum would overflow. So every CARRY_INTERVAL
+	 * additions or so, picked at random so that threads share no counter, the
+	 * whole bytes are moved from the billionths to the whole bytes. Threads
+	 * carrying at once may carry too much, leaving the billionths negative,
+	 * but each carry leaves the count as it was and the next one evens it
+	 * out. A snapshot taken during a carry may miss the bytes carried, as it
+	 * may miss any addition under way.
+	 */
+	private void addNanobytes(long nanos) {
+		if (nanos == 0) {
+			return;
+		}
+		this.nanobytes.add(nanos);
+		if (ThreadLocalRandom.current().nextInt(CARRY_INTERVAL) == 0) {
+			final long carry = Math.floorDiv(this.nanobytes.sum(),
+					ByteConverter.NANOBYTES_IN_A_BYTE);
+			if (carry != 0) {
+				this.nanobytes.add(-carry * ByteConverter.NANOBYTES_IN_A_BYTE);
+				this.wholeBytes.add(carry);
+			}
+		}
+	}
+
+	// Output
+
+	/**
+	 * Returns the count so far. The converter is independent of this
+	 * accumulator, and like any converter reports a negative count only when
+	 * it is output.
+	 */
+	public ByteConverter snapshot() {
+		return ByteAccumulator.toConverter(this.wholeBytes.sum(),
+				this.nanobytes.sum());
+	}
+
+	/**
+	 * Returns the count so far and starts over from zero, for reporting the
+	 * traffic of each interval. Additions made while this runs are counted
+	 * either in this interval or in the next one, but never in both.
+	 */
+	public ByteConverter snapshotThenReset() {
+		return ByteAccumulator.toConverter(this.wholeBytes.sumThenReset(),
+				this.nanobytes.sumThenReset());
+	}
+
+	public void reset() {
+		this.wholeBytes.reset();
+		this.nanobytes.reset();
+	}
+
+	private static ByteConverter toConverter(long whole, long nanos) {
+		try {
+			return ByteConverter.fromFixedBytes(Math.addExact(whole, Math
+					.floorDiv(nanos, ByteConverter.NANOBYTES_IN_A_BYTE)), Math
+					.floorMod(nanos, ByteConverter.NANOBYTES_IN_A_BYTE));
+		} catch (ArithmeticException overflow) {
+			return ByteConverter.fromBytes(BigDecimal.valueOf(whole).add(
+					BigDecimal.valueOf(nanos, ByteConverter.FRACTION_DIGITS)));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.snapshot().toString();
+	}
+}
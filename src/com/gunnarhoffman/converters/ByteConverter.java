@@ -1,16 +1,22 @@
 package com.gunnarhoffman.converters;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
 import java.security.InvalidParameterException;
+import java.util.stream.DoubleStream;
 
 /**
  * This class aids in conversion between all the various byte and bit
  * increments. The highest understood value for this class is a Terabyte. While
  * it supports values well into the range of Petabytes all sizes above a
  * Terabyte will be reported as a number of Terabytes. Negative values are not
- * supported except for use with the add* methods assuming it does not produce a
- * completely negative value for the current byte sum.
+ * supported except for use with the from* and add* methods assuming the chain
+ * does not end in a completely negative value for the byte sum. That is
+ * checked once, when the sum is output.
  * 
  * @author Gunnar Hoffman
  * 
@@ -19,8 +25,19 @@ public class ByteConverter {
 
 	// Constants
 
-	public static int DEFAULT_SCALE = 100;
-	public static int DEFAULT_ROUNDING_MODE = BigDecimal.ROUND_HALF_UP;
+	/**
+	 * @deprecated Use ConversionContext.DEFAULT, or bind another context with
+	 *             setContext.
+	 */
+	@Deprecated
+	public static final int DEFAULT_SCALE = 100;
+
+	/**
+	 * @deprecated Use ConversionContext.DEFAULT, or bind another context with
+	 *             setContext.
+	 */
+	@Deprecated
+	public static final int DEFAULT_ROUNDING_MODE = BigDecimal.ROUND_HALF_UP;
 
 	public static final BigDecimal TEN_TWENTY_FOUR_TO_THE_FOURTH = new BigDecimal(
 			"1099511627776");
@@ -32,14 +49,115 @@ public class ByteConverter {
 			"1024");
 	public static final BigDecimal EIGHT = new BigDecimal("8");
 
+	/*
+	 * Every bit unit is a whole number of bytes, so converting from one is a
+	 * single multiplication rather than one by a power of 1024 and a division
+	 * by eight.
+	 */
+	private static final BigDecimal BYTES_IN_A_KILOBIT = new BigDecimal("128");
+	private static final BigDecimal BYTES_IN_A_MEGABIT = new BigDecimal(
+			"131072");
+	private static final BigDecimal BYTES_IN_A_GIGABIT = new BigDecimal(
+			"134217728");
+	private static final BigDecimal BYTES_IN_A_TERABIT = new BigDecimal(
+			"137438953472");
+
+	static final int FRACTION_DIGITS = 9;
+	static final long NANOBYTES_IN_A_BYTE = 1000000000L;
+	private static final BigDecimal LARGEST_WHOLE_BYTES = new BigDecimal(
+			Long.MAX_VALUE);
+
+	private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1000L,
+			10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L };
+	private static final double[] DOUBLE_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3,
+			1e4, 1e5, 1e6, 1e7, 1e8, 1e9 };
+
+	/*
+	 * Every unit this class understands is a power of two bytes, so converting
+	 * into bytes is a left shift by the following amounts.
+	 */
+	private static final int BYTE_SHIFT = 0;
+	static final int KILOBYTE_SHIFT = 10;
+	static final int MEGABYTE_SHIFT = 20;
+	static final int GIGABYTE_SHIFT = 30;
+	static final int TERABYTE_SHIFT = 40;
+	private static final int BITS_IN_A_BYTE_SHIFT = 3;
+
+	private static final String[] SUFFIXES = { " B", " KB", " MB", " GB",
+			" TB" };
+
+	/**
+	 * This enumeration contains all the units of data, for converting
+	 * primitive values without creating a converter. The factors between them
+	 * come from the UnitRegistry.
+	 * 
+	 * @author Gunnar Hoffman
+	 * 
+	 */
+	public static enum Unit {
+		Byte,
+		Kilobyte,
+		Megabyte,
+		Gigabyte,
+		Terabyte,
+		Kilobit,
+		Megabit,
+		Gigabit,
+		Terabit;
+
+		private final MeasurementUnit unit;
+
+		Unit() {
+			this.unit = UnitRegistry.of(Dimension.Data).get(this.name());
+		}
+
+		public MeasurementUnit getMeasurementUnit() {
+			return this.unit;
+		}
+
+		public BigDecimal getBytes() {
+			return this.unit.getSize().toBigDecimal(ConversionContext.DEFAULT);
+		}
+
+		/**
+		 * Returns the number to multiply a value in this unit by to express it
+		 * in the target unit.
+		 */
+		public double factorTo(Unit target) {
+			return this.unit.factorTo(target.unit);
+		}
+
+		/**
+		 * Returns the exact fraction to multiply a value in this unit by to
+		 * express it in the target unit.
+		 */
+		public Rational ratioTo(Unit target) {
+			return this.unit.ratioTo(target.unit);
+		}
+	}
+
 	// Instance fields
 
+	/*
+	 * The byte sum is normally held as a fixed point number: a count of whole
+	 * bytes plus a remainder in billionths of a byte. Should a value ever
+	 * overflow that representation the converter falls back to the exact
+	 * BigDecimal held in bytes, which is null otherwise.
+	 */
+	private long wholeBytes;
+	private long nanobytes;
 	private BigDecimal bytes;
 
+	private ConversionContext context = ConversionContext.DEFAULT;
+
 	// Constructors
 
 	private ByteConverter(BigDecimal bytes) {
-		this.setBytes(bytes);
+		this.assign(bytes);
+	}
+
+	private ByteConverter(long wholeBytes, long nanobytes) {
+		this.assignFixed(wholeBytes, nanobytes);
 	}
 
 	// Setters
@@ -56,9 +174,9 @@ public class ByteConverter {
 	 * 
 	 * <p>
 	 * In the event a negative number is passed into this function a runtime
-	 * exception of the type InvalidParameterException will be thrown. All
-	 * static methods on this object indirectly call this method and therefor
-	 * can also throw this exception.
+	 * exception of the type InvalidParameterException will be thrown. The
+	 * static and add methods leave this check to the output methods instead,
+	 * which throw the same exception should the sum be negative.
 	 * </p>
 	 * 
 	 * @param number
@@ -70,231 +188,618 @@ public class ByteConverter {
 			throw new InvalidParameterException(
 					"negative bytes makes no sense!");
 		}
-		this.bytes = number;
+		return this.assign(number);
+	}
+
+	/**
+	 * Binds the context used to round the results of the output methods that
+	 * are not given one explicitly.
+	 * 
+	 * @param context
+	 *            The context to round with.
+	 * @return This instance.
+	 */
+	public final ByteConverter setContext(ConversionContext context) {
+		if (context == null) {
+			throw new InvalidParameterException("a context is required!");
+		}
+		this.context = context;
+		return this;
+	}
+
+	public final ConversionContext getContext() {
+		return this.context;
+	}
+
+	// Deferred validation
+
+	/*
+	 * The factories and the add methods only accumulate, without checking the
+	 * sign, so a chain may pass through a negative size on its way to a
+	 * positive one. Whatever reads the size checks it once, with checkSign.
+	 * The fixed point fields hold negative sizes as floor(bytes) plus a
+	 * non-negative remainder, so checking whole bytes is enough.
+	 */
+
+	private ByteConverter assign(BigDecimal number) {
+		if (number.scale() <= FRACTION_DIGITS
+				&& number.abs().compareTo(LARGEST_WHOLE_BYTES) <= 0) {
+			BigDecimal whole = number.setScale(0, BigDecimal.ROUND_FLOOR);
+			this.wholeBytes = whole.longValue();
+			this.nanobytes = number.subtract(whole)
+					.movePointRight(FRACTION_DIGITS).longValue();
+			this.bytes = null;
+		} else {
+			this.bytes = number;
+		}
 		return this;
 	}
 
+	private ByteConverter assignFixed(long wholeBytes, long nanobytes) {
+		this.wholeBytes = wholeBytes;
+		this.nanobytes = nanobytes;
+		this.bytes = null;
+		return this;
+	}
+
+	private void checkSign() {
+		if (this.bytes != null ? this.bytes.signum() == -1
+				: this.wholeBytes < 0) {
+			throw new InvalidParameterException(
+					"negative bytes makes no sense!");
+		}
+	}
+
+	/**
+	 * Returns the exact number of bytes held by this instance regardless of
+	 * which representation is currently in use.
+	 * 
+	 * In the event that number is negative a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	BigDecimal exactBytes() {
+		this.checkSign();
+		return this.sum();
+	}
+
+	private BigDecimal sum() {
+		if (this.bytes != null) {
+			return this.bytes;
+		}
+		if (this.nanobytes == 0) {
+			return BigDecimal.valueOf(this.wholeBytes);
+		}
+		return BigDecimal.valueOf(this.wholeBytes).add(
+				BigDecimal.valueOf(this.nanobytes, FRACTION_DIGITS));
+	}
+
+	/*
+	 * Accessors used by QuantityCollectors to sum converters without creating
+	 * a BigDecimal per converter. The fixed point fields are only meaningful
+	 * while isFixedPoint returns true.
+	 */
+	boolean isFixedPoint() {
+		this.checkSign();
+		return this.bytes == null;
+	}
+
+	long fixedWholeBytes() {
+		return this.wholeBytes;
+	}
+
+	long fixedNanobytes() {
+		return this.nanobytes;
+	}
+
+	static ByteConverter fromFixedBytes(long wholeBytes, long nanobytes) {
+		return new ByteConverter(wholeBytes, nanobytes);
+	}
+
+	// Fixed point arithmetic
+
+	/*
+	 * Finds the fewest fractional decimal digits (at most FRACTION_DIGITS)
+	 * needed to write the given double the way Double.toString would, or -1
+	 * if it needs more than that.
+	 */
+	private static int fractionDigits(double value) {
+		for (int digits = 0; digits <= FRACTION_DIGITS; digits++) {
+			double unscaled = Math.rint(value * DOUBLE_POWERS_OF_TEN[digits]);
+			if (Math.abs(unscaled) < 0x1p53
+					&& unscaled / DOUBLE_POWERS_OF_TEN[digits] == value) {
+				return digits;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Builds a converter from a decimal quantity of a unit that is 2^shift
+	 * bytes in size. This mirrors new BigDecimal(Double.toString(value)) but
+	 * stays on the fixed point representation unless it would overflow.
+	 */
+	private static ByteConverter fromDecimal(double value, int shift) {
+		int digits = ByteConverter.fractionDigits(value);
+		if (digits >= 0) {
+			long unscaled = (long) Math.rint(value
+					* DOUBLE_POWERS_OF_TEN[digits]);
+			try {
+				long scaled = Math.multiplyExact(unscaled, 1L << shift);
+				long divisor = POWERS_OF_TEN[digits];
+				return new ByteConverter(Math.floorDiv(scaled, divisor),
+						Math.floorMod(scaled, divisor)
+								* POWERS_OF_TEN[FRACTION_DIGITS - digits]);
+			} catch (ArithmeticException overflow) {
+				// Fall through to the exact path.
+			}
+		}
+		return new ByteConverter(new BigDecimal(Double.toString(value))
+				.multiply(new BigDecimal(1L << shift)));
+	}
+
+	/*
+	 * Adds the exact binary value of a double quantity of a unit that is
+	 * 2^shift bytes in size. This mirrors new BigDecimal(value) and stays on
+	 * the fixed point representation whenever the result can be held exactly.
+	 */
+	private ByteConverter addBinary(double value, int shift) {
+		if (value == 0) {
+			return this;
+		}
+		int exponent = Math.getExponent(value);
+		if (this.bytes == null && exponent >= Double.MIN_EXPONENT
+				&& exponent <= Double.MAX_EXPONENT) {
+			long mantissa = (Double.doubleToRawLongBits(value) & 0x000FFFFFFFFFFFFFL)
+					| 0x0010000000000000L;
+			int trailingZeros = Long.numberOfTrailingZeros(mantissa);
+			mantissa >>= trailingZeros;
+			int power = exponent - 52 + trailingZeros + shift;
+			if (power >= -FRACTION_DIGITS && power < Long.SIZE - 1) {
+				try {
+					long whole;
+					long nanos;
+					if (power >= 0) {
+						whole = Math.multiplyExact(mantissa, 1L << power);
+						nanos = 0;
+					} else {
+						whole = mantissa >> -power;
+						nanos = ((mantissa & ((1L << -power) - 1)) * NANOBYTES_IN_A_BYTE)
+								>> -power;
+					}
+					if (value < 0) {
+						whole = -whole;
+						if (nanos != 0) {
+							whole = Math.subtractExact(whole, 1);
+							nanos = NANOBYTES_IN_A_BYTE - nanos;
+						}
+					}
+					return this.addFixed(whole, nanos);
+				} catch (ArithmeticException overflow) {
+					// Fall through to the exact path.
+				}
+			}
+		}
+		return this.assign(this.sum().add(
+				new BigDecimal(value).multiply(new BigDecimal(1L << shift))));
+	}
+
+	private ByteConverter addFixed(long whole, long nanos) {
+		if (this.bytes != null) {
+			return this.assign(this.bytes.add(BigDecimal.valueOf(whole)
+					.add(BigDecimal.valueOf(nanos, FRACTION_DIGITS))));
+		}
+		long sumNanos = this.nanobytes + nanos;
+		long sumWhole = Math.addExact(this.wholeBytes, whole);
+		if (sumNanos >= NANOBYTES_IN_A_BYTE) {
+			sumNanos -= NANOBYTES_IN_A_BYTE;
+			sumWhole = Math.addExact(sumWhole, 1);
+		}
+		return this.assignFixed(sumWhole, sumNanos);
+	}
+
+	/*
+	 * Counts a conversion of a single value for ConversionMetrics.
+	 */
+	private static void count(Unit from, Unit to) {
+		ConversionMetrics.count(from.getMeasurementUnit(),
+				to.getMeasurementUnit());
+	}
+
 	// Byte initializers
 
 	public static ByteConverter fromTerabytes(double terabytes) {
-
-		return ByteConverter.fromTerabytes(new BigDecimal(
-				Double.toString(terabytes)));
+		ByteConverter.count(Unit.Terabyte, Unit.Byte);
+		return ByteConverter.fromDecimal(terabytes, TERABYTE_SHIFT);
 	}
 
 	public static ByteConverter fromTerabytes(BigDecimal terabytes) {
-
-		BigDecimal calculator = new BigDecimal(terabytes.toString());
-		calculator = calculator.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH);
-		return new ByteConverter(calculator);
+		ByteConverter.count(Unit.Terabyte, Unit.Byte);
+		return new ByteConverter(
+				terabytes.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH));
 	}
 
 	public static ByteConverter fromGigabytes(double gigabytes) {
-
-		return ByteConverter.fromGigabytes(new BigDecimal(
-				Double.toString(gigabytes)));
+		ByteConverter.count(Unit.Gigabyte, Unit.Byte);
+		return ByteConverter.fromDecimal(gigabytes, GIGABYTE_SHIFT);
 	}
 
 	public static ByteConverter fromGigabytes(BigDecimal gigabytes) {
-
-		BigDecimal calculator = new BigDecimal(gigabytes.toString());
-		calculator = calculator.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD);
-		return new ByteConverter(calculator);
+		ByteConverter.count(Unit.Gigabyte, Unit.Byte);
+		return new ByteConverter(
+				gigabytes.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD));
 	}
 
 	public static ByteConverter fromMegabytes(double megabytes) {
-
-		return ByteConverter.fromMegabytes(new BigDecimal(
-				Double.toString(megabytes)));
+		ByteConverter.count(Unit.Megabyte, Unit.Byte);
+		return ByteConverter.fromDecimal(megabytes, MEGABYTE_SHIFT);
 	}
 
 	public static ByteConverter fromMegabytes(BigDecimal megabytes) {
-
-		BigDecimal calculator = new BigDecimal(megabytes.toString());
-		calculator = calculator.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND);
-		return new ByteConverter(calculator);
+		ByteConverter.count(Unit.Megabyte, Unit.Byte);
+		return new ByteConverter(
+				megabytes.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND));
 	}
 
 	public static ByteConverter fromKilobytes(double kilobytes) {
-
-		return ByteConverter.fromKilobytes(new BigDecimal(
-				Double.toString(kilobytes)));
+		ByteConverter.count(Unit.Kilobyte, Unit.Byte);
+		return ByteConverter.fromDecimal(kilobytes, KILOBYTE_SHIFT);
 	}
 
 	public static ByteConverter fromKilobytes(BigDecimal kilobytes) {
-
-		BigDecimal calculator = new BigDecimal(kilobytes.toString());
-		calculator = calculator.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST);
-		return new ByteConverter(calculator);
+		ByteConverter.count(Unit.Kilobyte, Unit.Byte);
+		return new ByteConverter(
+				kilobytes.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST));
 	}
 
 	public static ByteConverter fromBytes(long bytes) {
-		return ByteConverter.fromBytes(new BigDecimal(Long.toString(bytes)));
+		return new ByteConverter(bytes, 0);
 	}
 
 	public static ByteConverter fromBytes(BigDecimal bytes) {
-		return new ByteConverter(new BigDecimal(bytes.toString()));
+		return new ByteConverter(bytes);
 	}
 
 	// Bit initializers
 
 	public static ByteConverter fromTerabits(double terabits) {
-
-		return ByteConverter.fromTerabits(new BigDecimal(
-				Double.toString(terabits)));
+		ByteConverter.count(Unit.Terabit, Unit.Byte);
+		return ByteConverter.fromDecimal(terabits, TERABYTE_SHIFT
+				- BITS_IN_A_BYTE_SHIFT);
 	}
 
 	public static ByteConverter fromTerabits(BigDecimal terabits) {
-
-		BigDecimal calculator = new BigDecimal(terabits.toString());
-		calculator = calculator.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH);
-		calculator = calculator.divide(ByteConverter.EIGHT);
-		return new ByteConverter(calculator);
+		ByteConverter.count(Unit.Terabit, Unit.Byte);
+		return new ByteConverter(terabits.multiply(BYTES_IN_A_TERABIT));
 	}
 
 	public static ByteConverter fromGigabits(double gigabits) {
-
-		return ByteConverter.fromGigabits(new BigDecimal(
-				Double.toString(gigabits)));
+		ByteConverter.count(Unit.Gigabit, Unit.Byte);
+		return ByteConverter.fromDecimal(gigabits, GIGABYTE_SHIFT
+				- BITS_IN_A_BYTE_SHIFT);
 	}
 
 	public static ByteConverter fromGigabits(BigDecimal gigabits) {
-
-		BigDecimal calculator = new BigDecimal(gigabits.toString());
-		calculator = calculator.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD);
-		calculator = calculator.divide(ByteConverter.EIGHT);
-		return new ByteConverter(calculator);
+		ByteConverter.count(Unit.Gigabit, Unit.Byte);
+		return new ByteConverter(gigabits.multiply(BYTES_IN_A_GIGABIT));
 	}
 
 	public static ByteConverter fromMegabits(double megabits) {
-
-		return ByteConverter.fromMegabits(new BigDecimal(
-				Double.toString(megabits)));
+		ByteConverter.count(Unit.Megabit, Unit.Byte);
+		return ByteConverter.fromDecimal(megabits, MEGABYTE_SHIFT
+				- BITS_IN_A_BYTE_SHIFT);
 	}
 
 	public static ByteConverter fromMegabits(BigDecimal megabits) {
-
-		BigDecimal calculator = new BigDecimal(megabits.toString());
-		calculator = calculator.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND);
-		calculator = calculator.divide(ByteConverter.EIGHT);
-		return new ByteConverter(calculator);
+		ByteConverter.count(Unit.Megabit, Unit.Byte);
+		return new ByteConverter(megabits.multiply(BYTES_IN_A_MEGABIT));
 	}
 
 	public static ByteConverter fromKilobits(double kilobits) {
-		return ByteConverter.fromKilobits(new BigDecimal(
-				Double.toString(kilobits)));
+		ByteConverter.count(Unit.Kilobit, Unit.Byte);
+		return ByteConverter.fromDecimal(kilobits, KILOBYTE_SHIFT
+				- BITS_IN_A_BYTE_SHIFT);
 	}
 
 	public static ByteConverter fromKilobits(BigDecimal kilobits) {
-
-		BigDecimal calculator = new BigDecimal(kilobits.toString());
-		calculator = calculator.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST);
-		calculator = calculator.divide(ByteConverter.EIGHT);
-		return new ByteConverter(calculator);
+		ByteConverter.count(Unit.Kilobit, Unit.Byte);
+		return new ByteConverter(kilobits.multiply(BYTES_IN_A_KILOBIT));
 	}
 
 	// Addition and (via the use of negative numbers) subtraction
 
 	public ByteConverter addBytes(long bytes) {
-		this.setBytes(this.bytes.add(new BigDecimal(bytes)));
-		return this;
+		try {
+			return this.addFixed(bytes, 0);
+		} catch (ArithmeticException overflow) {
+			return this.assign(this.sum().add(new BigDecimal(bytes)));
+		}
 	}
 
 	public ByteConverter addKilobytes(double kilobytes) {
-		this.setBytes(this.bytes.add(new BigDecimal(kilobytes).multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST)));
-		return this;
+		return this.addBinary(kilobytes, KILOBYTE_SHIFT);
 	}
 
 	public ByteConverter addMegabytes(double megabytes) {
-		this.setBytes(this.bytes.add(new BigDecimal(megabytes).multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND)));
-		return this;
+		return this.addBinary(megabytes, MEGABYTE_SHIFT);
 	}
 
 	public ByteConverter addGigabytes(double gigabytes) {
-		this.setBytes(this.bytes.add(new BigDecimal(gigabytes).multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD)));
-		return this;
+		return this.addBinary(gigabytes, GIGABYTE_SHIFT);
 	}
 
 	public ByteConverter addTerabytes(double terabytes) {
-		this.setBytes(this.bytes.add(new BigDecimal(terabytes).multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH)));
-		return this;
+		return this.addBinary(terabytes, TERABYTE_SHIFT);
 	}
 
 	// Output as bytes
 
 	public BigInteger toBytes() {
+		this.checkSign();
+		if (this.bytes == null) {
+			return BigInteger.valueOf(this.wholeBytes);
+		}
 		return this.bytes.toBigInteger();
 	}
 
 	public BigDecimal toKilobytes() {
-		return this.bytes.divide(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST,
-				DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+		return this.toKilobytes(this.context);
+	}
+
+	public BigDecimal toKilobytes(ConversionContext context) {
+		ByteConverter.count(Unit.Byte, Unit.Kilobyte);
+		return context.divide(this.exactBytes(),
+				ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST);
 	}
 
 	public BigDecimal toMegabytes() {
-		return this.bytes.divide(ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND,
-				DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+		return this.toMegabytes(this.context);
+	}
+
+	public BigDecimal toMegabytes(ConversionContext context) {
+		ByteConverter.count(Unit.Byte, Unit.Megabyte);
+		return context.divide(this.exactBytes(),
+				ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND);
 	}
 
 	public BigDecimal toGigabytes() {
-		return this.bytes.divide(ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD,
-				DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+		return this.toGigabytes(this.context);
+	}
+
+	public BigDecimal toGigabytes(ConversionContext context) {
+		ByteConverter.count(Unit.Byte, Unit.Gigabyte);
+		return context.divide(this.exactBytes(),
+				ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD);
 	}
 
 	public BigDecimal toTerabytes() {
-		return this.bytes.divide(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH,
-				DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+		return this.toTerabytes(this.context);
+	}
+
+	public BigDecimal toTerabytes(ConversionContext context) {
+		ByteConverter.count(Unit.Byte, Unit.Terabyte);
+		return context.divide(this.exactBytes(),
+				ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH);
 	}
 
 	// Output as bits
 
 	public BigDecimal toKilobits() {
-		return this.toKilobytes()
-				.divide(ByteConverter.EIGHT, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+		return this.toKilobits(this.context);
+	}
+
+	public BigDecimal toKilobits(ConversionContext context) {
+		ByteConverter.count(Unit.Byte, Unit.Kilobit);
+		return context.divide(
+				context.divide(this.exactBytes(),
+						ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST),
+				ByteConverter.EIGHT);
 	}
 
 	public BigDecimal toMegabits() {
-		return this.toMegabytes()
-				.divide(ByteConverter.EIGHT, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+		return this.toMegabits(this.context);
+	}
+
+	public BigDecimal toMegabits(ConversionContext context) {
+		ByteConverter.count(Unit.Byte, Unit.Megabit);
+		return context.divide(
+				context.divide(this.exactBytes(),
+						ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND),
+				ByteConverter.EIGHT);
 	}
 
 	public BigDecimal toGigabits() {
-		return this.toGigabytes()
-				.divide(ByteConverter.EIGHT, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+		return this.toGigabits(this.context);
+	}
+
+	public BigDecimal toGigabits(ConversionContext context) {
+		ByteConverter.count(Unit.Byte, Unit.Gigabit);
+		return context.divide(
+				context.divide(this.exactBytes(),
+						ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD),
+				ByteConverter.EIGHT);
 	}
 
 	public BigDecimal toTerabits() {
-		return this.toTerabytes()
-				.divide(ByteConverter.EIGHT, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+		return this.toTerabits(this.context);
 	}
 
-	// Output as a String
+	public BigDecimal toTerabits(ConversionContext context) {
+		ByteConverter.count(Unit.Byte, Unit.Terabit);
+		return context.divide(
+				context.divide(this.exactBytes(),
+						ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH),
+				ByteConverter.EIGHT);
+	}
 
-	@Override
-	public String toString() {
+	// Bulk conversion
 
-		if (this.bytes.compareTo(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH) >= 0) {
-			return String.format("%.2f TB", this.toTerabytes()
-					.doubleValue());
+	/**
+	 * <p>
+	 * Converts sizes from the source array, starting at sourceOffset, into
+	 * the destination array, starting at destinationOffset. Arrays of more
+	 * than BulkConversion.THRESHOLD values are split across the common
+	 * ForkJoinPool, smaller ones are converted on the calling thread.
+	 * </p>
+	 * 
+	 * <p>
+	 * As with System.arraycopy the source and destination may be the same
+	 * array.
+	 * </p>
+	 * 
+	 * @param from
+	 *            The unit the source values are in.
+	 * @param source
+	 *            The values to convert.
+	 * @param sourceOffset
+	 *            The index of the first value to convert.
+	 * @param to
+	 *            The unit to write the converted values in.
+	 * @param destination
+	 *            The array to write the converted values to.
+	 * @param destinationOffset
+	 *            The index to write the first converted value to.
+	 * @param length
+	 *            The number of values to convert.
+	 */
+	public static void convert(Unit from, double[] source, int sourceOffset,
+			Unit to, double[] destination, int destinationOffset, int length) {
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, sourceOffset, destination,
+				destinationOffset, length, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), length, start);
+	}
 
-		} else if (this.bytes.compareTo(ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD) >= 0) {
-			return String.format("%.2f GB", this.toGigabytes()
-					.doubleValue());
+	/**
+	 * Converts whole numbers of the from unit as convert(Unit, double[], int,
+	 * Unit, double[], int, int) does.
+	 */
+	public static void convert(Unit from, long[] source, int sourceOffset,
+			Unit to, double[] destination, int destinationOffset, int length) {
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, sourceOffset, destination,
+				destinationOffset, length, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), length, start);
+	}
 
-		} else if (this.bytes.compareTo(ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND) >= 0) {
-			return String.format("%.2f MB", this.toMegabytes()
-					.doubleValue());
+	/**
+	 * Converts exact sizes as convert(Unit, double[], int, Unit, double[],
+	 * int, int) does, rounding each value once as described by the context.
+	 */
+	public static void convert(Unit from, BigDecimal[] source,
+			int sourceOffset, Unit to, BigDecimal[] destination,
+			int destinationOffset, int length, ConversionContext context) {
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, sourceOffset, destination,
+				destinationOffset, length, from.ratioTo(to), context);
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), length, start);
+	}
 
-		} else if (this.bytes.compareTo(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST) >= 0) {
-			return String.format("%.2f KB", this.toKilobytes()
-					.doubleValue());
+	/**
+	 * Converts the remaining values of the source buffer into the destination
+	 * buffer in place, advancing both positions past them. Direct buffers are
+	 * read and written where they are, without a copy onto the heap.
+	 * 
+	 * @param from
+	 *            The unit the source values are in.
+	 * @param source
+	 *            The values to convert.
+	 * @param to
+	 *            The unit to write the converted values in.
+	 * @param destination
+	 *            The buffer to write the converted values to, which may be
+	 *            the source itself.
+	 */
+	public static void convert(Unit from, DoubleBuffer source, Unit to,
+			DoubleBuffer destination) {
+		final int count = source.remaining();
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, destination, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), count, start);
+	}
 
-		} else {
-			return String.format("%d B", this.bytes.intValue());
+	/**
+	 * Converts whole values from the source buffer into the destination
+	 * buffer. This behaves exactly like the DoubleBuffer variant of this
+	 * method.
+	 */
+	public static void convert(Unit from, LongBuffer source, Unit to,
+			DoubleBuffer destination) {
+		final int count = source.remaining();
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, destination, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), count, start);
+	}
+
+	/**
+	 * Returns a parallel stream of the values converted from one unit to
+	 * another. The values are converted as the stream consumes them.
+	 */
+	public static DoubleStream parallelStream(Unit from, double[] values,
+			Unit to) {
+		return BulkConversion.stream(values, from.factorTo(to), true);
+	}
+
+	// Output as a String
+
+	/**
+	 * Writes this size the way toString does, without String.format or any
+	 * intermediate BigDecimal or String.
+	 * 
+	 * In the event the Appendable fails a runtime exception of the type
+	 * UncheckedIOException will be thrown.
+	 * 
+	 * @param out
+	 *            Where to write, usually a StringBuilder.
+	 * @return The same Appendable.
+	 */
+	public <A extends Appendable> A formatTo(A out) {
+		this.checkSign();
+		try {
+			// Every unit is a power of 1024, so the highest set bit picks it.
+			int shift = Math.min(TERABYTE_SHIFT, Math.max(0, this.wholeBits() - 1)
+					/ KILOBYTE_SHIFT * KILOBYTE_SHIFT);
+
+			if (shift == BYTE_SHIFT) {
+				QuantityFormat.appendLong(out, this.bytes != null ? this.bytes
+						.longValue() : this.wholeBytes, 1);
+			} else {
+				double bytes = this.bytes != null ? this.bytes.doubleValue()
+						: this.wholeBytes + (double) this.nanobytes
+								/ NANOBYTES_IN_A_BYTE;
+				if (!QuantityFormat.tryAppendFixed(out,
+						Math.scalb(bytes, -shift), 2,
+						QuantityFormat.QUOTIENT_ERROR)) {
+					QuantityFormat.appendFixed(out, ConversionContext.DEFAULT
+							.divide(this.exactBytes(),
+									new BigDecimal(1L << shift)).doubleValue(),
+							2);
+				}
+			}
+			out.append(SUFFIXES[shift / KILOBYTE_SHIFT]);
+			return out;
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/*
+	 * The number of bits in the whole bytes of this size, whichever way it is
+	 * held.
+	 */
+	private int wholeBits() {
+		if (this.bytes != null) {
+			return this.bytes.toBigInteger().bitLength();
 		}
+		return Long.SIZE - Long.numberOfLeadingZeros(this.wholeBytes);
+	}
+
+	@Override
+	public String toString() {
+		return this.formatTo(new StringBuilder(16)).toString();
 	}
-}
\ No newline at end of file
+}
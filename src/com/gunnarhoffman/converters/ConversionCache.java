@@ -0,0 +1,242 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A bounded cache of rounded results, for workloads that convert the same
+ * values over and over, such as standard plan sizes or fixed durations. It
+ * is used through a context created by ConversionContext.withCache, which
+ * looks up here every division and every multiplication by a fraction
+ * (Rational.applyTo) before doing it, so every output that is rounded is
+ * cached, whatever its dimension:
+ * </p>
+ *
+ * <pre>
+ * ConversionContext cached = ConversionContext.DEFAULT
+ * 		.withCache(new ConversionCache(4096));
+ * ByteConverter.fromGigabytes(2).toMegabytes(cached);
+ * </pre>
+ *
+ * <p>
+ * A result is keyed by the value in the base unit, the divisor or fraction
+ * applied to it and the rounding of the context, which between them stand
+ * for the dimension, both units, the input and the precision. Values are
+ * compared with equals, so 2.0 and 2.00 are cached apart, just as their
+ * results may differ in scale. Multiplying by a whole number is exact and
+ * cheaper than a lookup, so those results are never cached.
+ * </p>
+ *
+ * <p>
+ * The entries are spread over STRIPES least recently used maps, each locked
+ * on its own, so threads converting different values rarely wait on each
+ * other. Results are computed outside the locks. Once a stripe is full,
+ * adding an entry evicts the one of that stripe used longest ago.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class ConversionCache {
+
+	// Constants
+
+	public static final int STRIPES = 16;
+
+	// Instance fields
+
+	private final Stripe[] stripes = new Stripe[STRIPES];
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	// Constructor
+
+	/**
+	 * Creates a cache holding up to about capacity results.
+	 *
+	 * In the event the capacity is less than STRIPES a runtime exception of
+	 * the type InvalidParameterException will be thrown.
+	 */
+	public ConversionCache(int capacity) {
+		if (capacity < STRIPES) {
+			throw new InvalidParameterException("capacity must be at least "
+					+ STRIPES + "!");
+		}
+		for (int i = 0; i < STRIPES; i++) {
+			this.stripes[i] = new Stripe(capacity / STRIPES);
+		}
+	}
+
+	// Lookup
+
+	/**
+	 * Returns the dividend divided by the divisor and rounded as described by
+	 * the context, computing it only if it is not cached.
+	 */
+	BigDecimal divide(BigDecimal dividend, BigDecimal divisor,
+			ConversionContext context) {
+		final Key key = new Key(dividend, divisor, context);
+		final BigDecimal quotient = this.get(key);
+		if (quotient != null) {
+			return quotient;
+		}
+		return this.put(key, context.divideUncached(dividend, divisor));
+	}
+
+	/**
+	 * Returns the value multiplied by the fraction and rounded as described
+	 * by the context, computing it only if it is not cached.
+	 */
+	BigDecimal apply(Rational fraction, BigDecimal value,
+			ConversionContext context) {
+		final Key key = new Key(value, fraction, context);
+		final BigDecimal product = this.get(key);
+		if (product != null) {
+			return product;
+		}
+		return this.put(key, fraction.applyUncached(value, context));
+	}
+
+	private BigDecimal get(Key key) {
+		final Stripe stripe = this.stripes[key.hash & (STRIPES - 1)];
+		final BigDecimal result;
+		synchronized (stripe) {
+			result = stripe.get(key);
+		}
+		if (result != null) {
+			this.hits.increment();
+		} else {
+			this.misses.increment();
+		}
+		return result;
+	}
+
+	private BigDecimal put(Key key, BigDecimal result) {
+		final Stripe stripe = this.stripes[key.hash & (STRIPES - 1)];
+		synchronized (stripe) {
+			stripe.put(key, result);
+		}
+		return result;
+	}
+
+	// Statistics
+
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	public long getEvictions() {
+		return this.evictions.sum();
+	}
+
+	/**
+	 * The share of lookups that were hits, or 0 before the first lookup.
+	 */
+	public double getHitRatio() {
+		final long hits = this.hits.sum();
+		final long lookups = hits + this.misses.sum();
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : this.stripes) {
+			synchronized (stripe) {
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Forgets every cached result and resets the statistics.
+	 */
+	public void clear() {
+		for (Stripe stripe : this.stripes) {
+			synchronized (stripe) {
+				stripe.clear();
+			}
+		}
+		this.hits.reset();
+		this.misses.reset();
+		this.evictions.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "hits=" + this.getHits() + " misses=" + this.getMisses()
+				+ " evictions=" + this.getEvictions() + " size="
+				+ this.size();
+	}
+
+	// Stripes
+
+	private final class Stripe extends LinkedHashMap<Key, BigDecimal> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		Stripe(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, BigDecimal> eldest) {
+			if (this.size() > this.capacity) {
+				ConversionCache.this.evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/*
+	 * The operand is the BigDecimal divisor of a division or the Rational of
+	 * a multiplication. The two never equal each other, so a quotient and a
+	 * product are never mistaken for one another.
+	 */
+	private static final class Key {
+
+		final BigDecimal value;
+		final Object operand;
+		final ConversionContext context;
+		final int hash;
+
+		Key(BigDecimal value, Object operand, ConversionContext context) {
+			this.value = value;
+			this.operand = operand;
+			this.context = context;
+			final int hash = (value.hashCode() * 31 + operand.hashCode())
+					* 31 + context.hashCode();
+			this.hash = hash ^ (hash >>> 16);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return this.value.equals(key.value)
+					&& this.operand.equals(key.operand)
+					&& this.context.equals(key.context);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+	}
+}
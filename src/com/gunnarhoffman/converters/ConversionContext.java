@@ -0,0 +1,233 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.security.InvalidParameterException;
+
+/**
+ * <p>
+ * An immutable policy describing how a converter rounds results that cannot
+ * be expressed exactly, such as a number of bytes divided into Kilobytes.
+ * </p>
+ * 
+ * <p>
+ * A context either keeps a fixed number of digits after the decimal point
+ * (the historical behavior of this library, see DEFAULT) or a fixed number of
+ * significant digits (see DECIMAL32, DECIMAL64 and DECIMAL128). The latter is
+ * far cheaper for callers who do not need 100 decimal places.
+ * </p>
+ * 
+ * <p>
+ * A context can be passed to an individual output method or bound to a
+ * converter instance through its setContext method.
+ * </p>
+ * 
+ * <p>
+ * A context created by withCache looks up its divisions, and the
+ * multiplications of Rational.applyTo, in a ConversionCache first. It rounds
+ * exactly like the context it was created from and is equal to it, though
+ * the withContext methods of the immutable converters still bind it in place
+ * of that context.
+ * </p>
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+public final class ConversionContext {
+
+	// Presets
+
+	/**
+	 * Rounds half up at the hundredth decimal place. Every converter uses this
+	 * unless told otherwise.
+	 */
+	public static final ConversionContext DEFAULT = ConversionContext.ofScale(
+			100, RoundingMode.HALF_UP);
+
+	/**
+	 * 7 significant digits, rounding half even.
+	 */
+	public static final ConversionContext DECIMAL32 = new ConversionContext(
+			MathContext.DECIMAL32);
+
+	/**
+	 * 16 significant digits, rounding half even.
+	 */
+	public static final ConversionContext DECIMAL64 = new ConversionContext(
+			MathContext.DECIMAL64);
+
+	/**
+	 * 34 significant digits, rounding half even.
+	 */
+	public static final ConversionContext DECIMAL128 = new ConversionContext(
+			MathContext.DECIMAL128);
+
+	// Instance fields
+
+	private final int scale;
+	private final MathContext mathContext;
+	private final RoundingMode roundingMode;
+	private final ConversionCache cache;
+
+	// Constructors
+
+	private ConversionContext(int scale, RoundingMode roundingMode) {
+		this.scale = scale;
+		this.mathContext = null;
+		this.roundingMode = roundingMode;
+		this.cache = null;
+	}
+
+	private ConversionContext(MathContext mathContext) {
+		this.scale = 0;
+		this.mathContext = mathContext;
+		this.roundingMode = mathContext.getRoundingMode();
+		this.cache = null;
+	}
+
+	private ConversionContext(ConversionContext context, ConversionCache cache) {
+		this.scale = context.scale;
+		this.mathContext = context.mathContext;
+		this.roundingMode = context.roundingMode;
+		this.cache = cache;
+	}
+
+	// Initializers
+
+	/**
+	 * Creates a context that keeps the given number of digits after the
+	 * decimal point.
+	 */
+	public static ConversionContext ofScale(int scale,
+			RoundingMode roundingMode) {
+		if (roundingMode == null) {
+			throw new InvalidParameterException("a rounding mode is required!");
+		}
+		return new ConversionContext(scale, roundingMode);
+	}
+
+	/**
+	 * Creates a context that keeps the given number of significant digits.
+	 * 
+	 * In the event the precision is not positive a runtime exception of the
+	 * type InvalidParameterException will be thrown, since an unlimited
+	 * precision cannot represent every quotient.
+	 */
+	public static ConversionContext ofPrecision(int precision,
+			RoundingMode roundingMode) {
+		if (precision <= 0) {
+			throw new InvalidParameterException(
+					"precision must be positive!");
+		}
+		if (roundingMode == null) {
+			throw new InvalidParameterException("a rounding mode is required!");
+		}
+		return new ConversionContext(new MathContext(precision, roundingMode));
+	}
+
+	/**
+	 * Creates a context that rounds like this one and keeps the results it
+	 * rounds in the given cache, or one that keeps none if the cache is null.
+	 */
+	public ConversionContext withCache(ConversionCache cache) {
+		return new ConversionContext(this, cache);
+	}
+
+	// Getters
+
+	/**
+	 * Returns true if this context keeps a fixed number of significant digits
+	 * rather than a fixed number of decimal places.
+	 */
+	public boolean isPrecisionBased() {
+		return this.mathContext != null;
+	}
+
+	/**
+	 * Returns the number of decimal places kept, or 0 for a precision based
+	 * context.
+	 */
+	public int getScale() {
+		return this.scale;
+	}
+
+	/**
+	 * Returns the number of significant digits kept, or 0 for a scale based
+	 * context.
+	 */
+	public int getPrecision() {
+		return this.mathContext == null ? 0 : this.mathContext.getPrecision();
+	}
+
+	public RoundingMode getRoundingMode() {
+		return this.roundingMode;
+	}
+
+	/**
+	 * Returns the cache this context rounds through, or null.
+	 */
+	public ConversionCache getCache() {
+		return this.cache;
+	}
+
+	// Arithmetic
+
+	/**
+	 * Divides the dividend by the divisor, rounding as described by this
+	 * context.
+	 */
+	public BigDecimal divide(BigDecimal dividend, BigDecimal divisor) {
+		if (this.cache != null) {
+			return this.cache.divide(dividend, divisor, this);
+		}
+		return this.divideUncached(dividend, divisor);
+	}
+
+	BigDecimal divideUncached(BigDecimal dividend, BigDecimal divisor) {
+		if (this.mathContext != null) {
+			return dividend.divide(divisor, this.mathContext);
+		}
+		return dividend.divide(divisor, this.scale, this.roundingMode);
+	}
+
+	/**
+	 * Rounds an exact value as described by this context.
+	 */
+	public BigDecimal round(BigDecimal value) {
+		if (this.mathContext != null) {
+			return value.round(this.mathContext);
+		}
+		return value.setScale(this.scale, this.roundingMode);
+	}
+
+	// Object
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof ConversionContext)) {
+			return false;
+		}
+		ConversionContext context = (ConversionContext) other;
+		return this.scale == context.scale
+				&& this.getPrecision() == context.getPrecision()
+				&& this.roundingMode == context.roundingMode;
+	}
+
+	@Override
+	public int hashCode() {
+		return (this.scale * 31 + this.getPrecision()) * 31
+				+ this.roundingMode.ordinal();
+	}
+
+	@Override
+	public String toString() {
+		if (this.mathContext != null) {
+			return "precision=" + this.getPrecision() + " " + this.roundingMode;
+		}
+		return "scale=" + this.scale + " " + this.roundingMode;
+	}
+}
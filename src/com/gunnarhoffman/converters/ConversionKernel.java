@@ -0,0 +1,36 @@
+package com.gunnarhoffman.converters;
+
+/**
+ * <p>
+ * The loops at the heart of BulkConversion. Nearly every conversion between
+ * two units is a single multiplication, and the rest, such as temperatures,
+ * are a multiplication followed by an addition.
+ * </p>
+ *
+ * <p>
+ * BulkConversion uses the vector kernel from the vector source folder when it
+ * is compiled in and the jdk.incubator.vector module is available, and
+ * otherwise a plain scalar loop. Every kernel must give exactly the results
+ * of the scalar loop, value * factor (+ addend), so which one is in use never
+ * changes an answer. Kernels are only ever given ranges that do not overlap,
+ * or that are the same range.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public interface ConversionKernel {
+
+	void multiply(double[] source, int sourceOffset, double[] destination,
+			int destinationOffset, int length, double factor);
+
+	void multiply(long[] source, int sourceOffset, double[] destination,
+			int destinationOffset, int length, double factor);
+
+	/**
+	 * Writes source * factor + addend, rounding the product before the
+	 * addition rather than fusing the two.
+	 */
+	void multiplyAdd(double[] source, int sourceOffset, double[] destination,
+			int destinationOffset, int length, double factor, double addend);
+}
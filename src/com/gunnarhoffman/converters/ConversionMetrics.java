@@ -0,0 +1,335 @@
+package com.gunnarhoffman.converters;
+
+import java.lang.management.ManagementFactory;
+import java.security.InvalidParameterException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * Counts the conversions done through the static convert methods of the
+ * converters, per dimension and per pair of units, along with the time they
+ * took and a latency histogram per dimension.
+ * </p>
+ *
+ * <p>
+ * The fluent factories and output methods of the byte, time, mass, volume
+ * and distance converters, such as ByteConverter.fromMegabytes or
+ * toGigabytes, are counted too, but only as calls of their pair of units:
+ * each adds a single LongAdder increment, and neither values, time nor a
+ * histogram entry, since reading the clock would cost more than the
+ * conversion itself.
+ * </p>
+ *
+ * <p>
+ * Recording is off unless the system property
+ * com.gunnarhoffman.converters.metrics is set to true when this class is
+ * loaded. Since the flag is a constant the JIT compiles the calls to start and
+ * stop away entirely when it is off. When it is on the counters are
+ * LongAdders, which spread concurrent updates over several cells rather than
+ * contending on one, and the metrics are registered with the platform MBean
+ * server as com.gunnarhoffman.converters:type=ConversionMetrics.
+ * </p>
+ *
+ * <p>
+ * Instances can also be created and fed directly, to count conversions done
+ * elsewhere without registering anything.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class ConversionMetrics implements ConversionMetricsMXBean {
+
+	// Constants
+
+	public static final String PROPERTY = "com.gunnarhoffman.converters.metrics";
+
+	public static final String OBJECT_NAME = "com.gunnarhoffman.converters:type=ConversionMetrics";
+
+	/**
+	 * The number of buckets of each latency histogram.
+	 */
+	public static final int BUCKETS = 40;
+
+	private static final Dimension[] DIMENSIONS = Dimension.values();
+
+	private static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+	private static final ConversionMetrics INSTANCE = ENABLED ? ConversionMetrics
+			.register(new ConversionMetrics()) : null;
+
+	// Instance fields
+
+	private final LongAdder values = new LongAdder();
+	private final LongAdder nanos = new LongAdder();
+
+	/*
+	 * Per dimension, the counters of each pair of units at from * units + to,
+	 * created the first time the pair is converted.
+	 */
+	private final AtomicReferenceArray<?>[] pairs = new AtomicReferenceArray<?>[DIMENSIONS.length];
+
+	private final int[] units = new int[DIMENSIONS.length];
+
+	private final LongAdder[][] histograms = new LongAdder[DIMENSIONS.length][BUCKETS];
+
+	// Constructor
+
+	public ConversionMetrics() {
+		for (int d = 0; d < DIMENSIONS.length; d++) {
+			this.units[d] = UnitRegistry.of(DIMENSIONS[d]).getUnits().size();
+			this.pairs[d] = new AtomicReferenceArray<Counters>(this.units[d]
+					* this.units[d]);
+			for (int i = 0; i < BUCKETS; i++) {
+				this.histograms[d][i] = new LongAdder();
+			}
+		}
+	}
+
+	/*
+	 * Should the name be taken, by another class loader for instance, the
+	 * metrics are still recorded and can be reached through getInstance.
+	 */
+	private static ConversionMetrics register(ConversionMetrics metrics) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(metrics,
+					new ObjectName(OBJECT_NAME));
+		} catch (JMException notRegistered) {
+		}
+		return metrics;
+	}
+
+	// Recording
+
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * Returns the metrics the converters record to, or null when recording is
+	 * off.
+	 */
+	public static ConversionMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the time to pass to stop once the conversion is done, or 0 when
+	 * recording is off.
+	 */
+	static long start() {
+		return ENABLED ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Records a conversion of count values that started at the given time.
+	 */
+	static void stop(MeasurementUnit from, MeasurementUnit to, long count,
+			long start) {
+		if (ENABLED) {
+			INSTANCE.record(from, to, count, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Counts a call of a fluent factory or output method.
+	 */
+	static void count(MeasurementUnit from, MeasurementUnit to) {
+		if (ENABLED) {
+			INSTANCE.record(from, to);
+		}
+	}
+
+	/**
+	 * Records a single call that converted count values from one unit to
+	 * another and took the given number of nanoseconds.
+	 *
+	 * In the event the units are of different dimensions a runtime exception
+	 * of the type InvalidParameterException will be thrown.
+	 */
+	public void record(MeasurementUnit from, MeasurementUnit to, long count,
+			long elapsed) {
+		if (from.getDimension() != to.getDimension()) {
+			throw new InvalidParameterException("cannot convert "
+					+ from.getDimension() + " to " + to.getDimension() + "!");
+		}
+		final int dimension = from.getDimension().ordinal();
+		final Counters counters = this.counters(dimension, from.getIndex(),
+				to.getIndex());
+		counters.calls.increment();
+		counters.values.add(count);
+		counters.nanos.add(elapsed);
+		this.values.add(count);
+		this.nanos.add(elapsed);
+		this.histograms[dimension][ConversionMetrics.bucket(elapsed)]
+				.increment();
+	}
+
+	/**
+	 * Records a single call that converted one value from one unit to
+	 * another, as the fluent factories and output methods do. Only the call
+	 * is counted, against its pair of units.
+	 *
+	 * In the event the units are of different dimensions a runtime exception
+	 * of the type InvalidParameterException will be thrown.
+	 */
+	public void record(MeasurementUnit from, MeasurementUnit to) {
+		if (from.getDimension() != to.getDimension()) {
+			throw new InvalidParameterException("cannot convert "
+					+ from.getDimension() + " to " + to.getDimension() + "!");
+		}
+		this.counters(from.getDimension().ordinal(), from.getIndex(),
+				to.getIndex()).calls.increment();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Counters counters(int dimension, int from, int to) {
+		final AtomicReferenceArray<Counters> table = (AtomicReferenceArray<Counters>) this.pairs[dimension];
+		final int index = from * this.units[dimension] + to;
+		Counters counters = table.get(index);
+		if (counters == null) {
+			table.compareAndSet(index, null, new Counters());
+			counters = table.get(index);
+		}
+		return counters;
+	}
+
+	private static int bucket(long elapsed) {
+		final int bucket = 64 - Long.numberOfLeadingZeros(Math.max(elapsed, 0));
+		return Math.min(bucket, BUCKETS - 1);
+	}
+
+	// ConversionMetricsMXBean
+
+	/*
+	 * The calls are only counted per pair of units, so that a fluent call
+	 * costs a single increment.
+	 */
+	@Override
+	public long getCalls() {
+		long sum = 0;
+		for (int d = 0; d < DIMENSIONS.length; d++) {
+			final AtomicReferenceArray<?> table = this.pairs[d];
+			for (int i = 0; i < table.length(); i++) {
+				final Counters counters = (Counters) table.get(i);
+				if (counters != null) {
+					sum += counters.calls.sum();
+				}
+			}
+		}
+		return sum;
+	}
+
+	@Override
+	public long getValues() {
+		return this.values.sum();
+	}
+
+	@Override
+	public long getNanos() {
+		return this.nanos.sum();
+	}
+
+	@Override
+	public Map<String, Long> getValuesByDimension() {
+		final Map<String, Long> result = new LinkedHashMap<String, Long>();
+		for (int d = 0; d < DIMENSIONS.length; d++) {
+			long sum = 0;
+			final AtomicReferenceArray<?> table = this.pairs[d];
+			for (int i = 0; i < table.length(); i++) {
+				final Counters counters = (Counters) table.get(i);
+				if (counters != null) {
+					sum += counters.values.sum();
+				}
+			}
+			result.put(DIMENSIONS[d].name(), sum);
+		}
+		return result;
+	}
+
+	@Override
+	public Map<String, Long> getCallsByConversion() {
+		return this.byConversion(Counters.CALLS);
+	}
+
+	@Override
+	public Map<String, Long> getValuesByConversion() {
+		return this.byConversion(Counters.VALUES);
+	}
+
+	@Override
+	public Map<String, Long> getNanosByConversion() {
+		return this.byConversion(Counters.NANOS);
+	}
+
+	private Map<String, Long> byConversion(int field) {
+		final Map<String, Long> result = new LinkedHashMap<String, Long>();
+		for (int d = 0; d < DIMENSIONS.length; d++) {
+			final List<MeasurementUnit> units = UnitRegistry.of(DIMENSIONS[d])
+					.getUnits();
+			final AtomicReferenceArray<?> table = this.pairs[d];
+			for (int i = 0; i < table.length(); i++) {
+				final Counters counters = (Counters) table.get(i);
+				if (counters != null) {
+					result.put(units.get(i / units.size()) + " to "
+							+ units.get(i % units.size()),
+							counters.get(field).sum());
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public Map<String, long[]> getLatencyHistograms() {
+		final Map<String, long[]> result = new LinkedHashMap<String, long[]>();
+		for (int d = 0; d < DIMENSIONS.length; d++) {
+			final long[] histogram = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) {
+				histogram[i] = this.histograms[d][i].sum();
+			}
+			result.put(DIMENSIONS[d].name(), histogram);
+		}
+		return result;
+	}
+
+	@Override
+	public void reset() {
+		this.values.reset();
+		this.nanos.reset();
+		for (int d = 0; d < DIMENSIONS.length; d++) {
+			final AtomicReferenceArray<?> table = this.pairs[d];
+			for (int i = 0; i < table.length(); i++) {
+				table.set(i, null);
+			}
+			for (int i = 0; i < BUCKETS; i++) {
+				this.histograms[d][i].reset();
+			}
+		}
+	}
+
+	// Counters
+
+	private static final class Counters {
+
+		static final int CALLS = 0;
+		static final int VALUES = 1;
+		static final int NANOS = 2;
+
+		final LongAdder calls = new LongAdder();
+		final LongAdder values = new LongAdder();
+		final LongAdder nanos = new LongAdder();
+
+		LongAdder get(int field) {
+			return field == CALLS ? this.calls : field == VALUES ? this.values
+					: this.nanos;
+		}
+	}
+}
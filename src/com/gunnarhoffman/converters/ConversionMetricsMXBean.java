@@ -0,0 +1,54 @@
+package com.gunnarhoffman.converters;
+
+import java.util.Map;
+
+/**
+ * The management interface of ConversionMetrics, as shown by JConsole or any
+ * other JMX client. Conversions are named after their units, for example
+ * "Megabyte to Gigabyte".
+ *
+ * Calls of the fluent factories and output methods are counted by getCalls
+ * and getCallsByConversion only. The values, times and histograms cover the
+ * static convert methods alone, and conversions done by the immutable,
+ * speed, temperature and bandwidth converters are not recorded at all.
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public interface ConversionMetricsMXBean {
+
+	/**
+	 * The number of conversion calls recorded, fluent ones included.
+	 */
+	long getCalls();
+
+	/**
+	 * The number of values the static convert methods converted.
+	 */
+	long getValues();
+
+	/**
+	 * The time spent in the static convert methods, in nanoseconds.
+	 */
+	long getNanos();
+
+	Map<String, Long> getValuesByDimension();
+
+	Map<String, Long> getCallsByConversion();
+
+	Map<String, Long> getValuesByConversion();
+
+	Map<String, Long> getNanosByConversion();
+
+	/**
+	 * The latency histogram of each dimension. Bucket i counts the calls that
+	 * took less than 2 to the power of i nanoseconds and no less than half
+	 * that, the last bucket counts every slower call.
+	 */
+	Map<String, long[]> getLatencyHistograms();
+
+	/**
+	 * Forgets everything recorded so far.
+	 */
+	void reset();
+}
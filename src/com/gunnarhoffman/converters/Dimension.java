@@ -0,0 +1,13 @@
+package com.gunnarhoffman.converters;
+
+/**
+ * The kinds of quantity the converters handle. Only quantities of the same
+ * dimension can be added to, subtracted from or expressed in each other, and
+ * each dimension has its own UnitRegistry.
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+public enum Dimension {
+	Data, Time, Distance, Mass, Volume
+}
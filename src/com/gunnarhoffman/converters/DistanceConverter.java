@@ -1,6 +1,8 @@
 package com.gunnarhoffman.converters;
 
 import java.math.BigDecimal;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
 import java.security.InvalidParameterException;
 
 import com.gunnarhoffman.converters.concrete.distance.ImperialDistanceConverter;
@@ -22,7 +24,18 @@ public abstract class DistanceConverter {
 
 	// Constants
 
+	/**
+	 * @deprecated Use ConversionContext.DEFAULT, or bind another context with
+	 *             setContext.
+	 */
+	@Deprecated
 	public static final int DEFAULT_SCALE = 100;
+
+	/**
+	 * @deprecated Use ConversionContext.DEFAULT, or bind another context with
+	 *             setContext.
+	 */
+	@Deprecated
 	public static final int DEFAULT_ROUNDING_MODE = BigDecimal.ROUND_HALF_UP;
 
 	public static final BigDecimal MILLIMETERS_IN_AN_INCH = new BigDecimal(
@@ -58,20 +71,101 @@ public abstract class DistanceConverter {
 	public static final BigDecimal INCHES_IN_A_FOOT = new BigDecimal("12");
 	public static final BigDecimal INCHES_IN_A_YARD = new BigDecimal("36");
 	public static final BigDecimal INCHES_IN_A_MILE = new BigDecimal("63360");
+	/**
+	 * @deprecated Use DistanceConverter.Unit.Meter.ratioTo(Unit.Inch), which
+	 *             is exact.
+	 */
+	@Deprecated
 	public static final BigDecimal INCHES_IN_A_METER = new BigDecimal("39.3701");
+	/**
+	 * @deprecated Use DistanceConverter.Unit.Kilometer.ratioTo(Unit.Inch),
+	 *             which is exact.
+	 */
+	@Deprecated
 	public static final BigDecimal INCHES_IN_A_KILOMETER = new BigDecimal(
 			"39370.1");
+	/**
+	 * @deprecated Use
+	 *             DistanceConverter.Unit.AstronomicalUnit.ratioTo(Unit.Inch),
+	 *             which is exact.
+	 */
+	@Deprecated
 	public static final BigDecimal INCHES_IN_AN_ASTRONOMICAL_UNIT = new BigDecimal(
 			"5889679950000");
+	/**
+	 * @deprecated Use DistanceConverter.Unit.LightYear.ratioTo(Unit.Inch),
+	 *             which is exact.
+	 */
+	@Deprecated
 	public static final BigDecimal INCHES_IN_A_LIGHT_YEAR = new BigDecimal(
 			"372461748000000000");
+	/**
+	 * @deprecated Use DistanceConverter.Unit.Parsec.ratioTo(Unit.Inch), which
+	 *             is exact.
+	 */
+	@Deprecated
 	public static final BigDecimal INCHES_IN_A_PARSEC = new BigDecimal(
 			"1214833690000000000");
 
+	/**
+	 * This enumeration contains all the units of distance that can be
+	 * converted in bulk. The factors between them come from the UnitRegistry,
+	 * exactly as the single value converters' do.
+	 * 
+	 * @author Gunnar Hoffman
+	 * 
+	 */
+	public static enum Unit {
+		Micrometer,
+		Millimeter,
+		Centimeter,
+		Meter,
+		Kilometer,
+		Inch,
+		Foot,
+		Yard,
+		Mile,
+		AstronomicalUnit,
+		LightYear,
+		Parsec;
+
+		private final MeasurementUnit unit;
+
+		Unit() {
+			this.unit = UnitRegistry.of(Dimension.Distance).get(this.name());
+		}
+
+		public MeasurementUnit getMeasurementUnit() {
+			return this.unit;
+		}
+
+		public BigDecimal getMicrometers() {
+			return this.unit.getSize().toBigDecimal(ConversionContext.DEFAULT);
+		}
+
+		/**
+		 * Returns the number to multiply a value in this unit by to express it
+		 * in the target unit.
+		 */
+		public double factorTo(Unit target) {
+			return this.unit.factorTo(target.unit);
+		}
+
+		/**
+		 * Returns the exact fraction to multiply a value in this unit by to
+		 * express it in the target unit.
+		 */
+		public Rational ratioTo(Unit target) {
+			return this.unit.ratioTo(target.unit);
+		}
+	}
+
 	// Instance fields
 
 	private BigDecimal unit;
 
+	private ConversionContext context = ConversionContext.DEFAULT;
+
 	// Setters
 
 	/**
@@ -104,12 +198,42 @@ public abstract class DistanceConverter {
 		return this;
 	}
 
+	/**
+	 * Binds the context used to round the results of the output methods that
+	 * are not given one explicitly.
+	 * 
+	 * @param context
+	 *            The context to round with.
+	 * @return This instance.
+	 */
+	public final DistanceConverter setContext(ConversionContext context) {
+		if (context == null) {
+			throw new InvalidParameterException("a context is required!");
+		}
+		this.context = context;
+		return this;
+	}
+
 	// Constructors
 
 	public final BigDecimal getUnit() {
 		return this.unit;
 	}
 
+	public final ConversionContext getContext() {
+		return this.context;
+	}
+
+	/**
+	 * Counts a conversion of a single value for ConversionMetrics. The output
+	 * methods of the subclasses call this with the unit they hold the
+	 * distance in.
+	 */
+	protected static void count(Unit from, Unit to) {
+		ConversionMetrics.count(from.getMeasurementUnit(),
+				to.getMeasurementUnit());
+	}
+
 	// Metric static initializers
 
 	public static DistanceConverter fromMicrometers(long micrometers) {
@@ -127,6 +251,7 @@ public abstract class DistanceConverter {
 	}
 
 	public static DistanceConverter fromMillimeters(BigDecimal millimeters) {
+		DistanceConverter.count(Unit.Millimeter, Unit.Micrometer);
 		return new MetricDistanceConverter(
 				millimeters.multiply(DistanceConverter.MICROMETERS_IN_A_MILAMETER));
 	}
@@ -137,6 +262,7 @@ public abstract class DistanceConverter {
 	}
 
 	public static DistanceConverter fromCentimeters(BigDecimal centimeters) {
+		DistanceConverter.count(Unit.Centimeter, Unit.Micrometer);
 		return new MetricDistanceConverter(
 				centimeters.multiply(DistanceConverter.MICROMETERS_IN_A_CENTIMETER));
 	}
@@ -147,6 +273,7 @@ public abstract class DistanceConverter {
 	}
 
 	public static DistanceConverter fromMeters(BigDecimal meters) {
+		DistanceConverter.count(Unit.Meter, Unit.Micrometer);
 		return new MetricDistanceConverter(
 				meters.multiply(DistanceConverter.MICROMETERS_IN_A_METER));
 	}
@@ -157,6 +284,7 @@ public abstract class DistanceConverter {
 	}
 
 	public static DistanceConverter fromKilometers(BigDecimal kilometers) {
+		DistanceConverter.count(Unit.Kilometer, Unit.Micrometer);
 		return new MetricDistanceConverter(
 				kilometers.multiply(DistanceConverter.MICROMETERS_IN_A_KILOMETER));
 	}
@@ -177,6 +305,7 @@ public abstract class DistanceConverter {
 	}
 
 	public static DistanceConverter fromFeet(BigDecimal feet) {
+		DistanceConverter.count(Unit.Foot, Unit.Inch);
 		return new ImperialDistanceConverter(
 				feet.multiply(DistanceConverter.INCHES_IN_A_FOOT));
 	}
@@ -187,6 +316,7 @@ public abstract class DistanceConverter {
 	}
 
 	public static DistanceConverter fromYards(BigDecimal yards) {
+		DistanceConverter.count(Unit.Yard, Unit.Inch);
 		return new ImperialDistanceConverter(
 				yards.multiply(DistanceConverter.INCHES_IN_A_YARD));
 	}
@@ -197,6 +327,7 @@ public abstract class DistanceConverter {
 	}
 
 	public static DistanceConverter fromMiles(BigDecimal miles) {
+		DistanceConverter.count(Unit.Mile, Unit.Inch);
 		return new ImperialDistanceConverter(
 				miles.multiply(DistanceConverter.INCHES_IN_A_MILE));
 	}
@@ -211,6 +342,7 @@ public abstract class DistanceConverter {
 
 	public static DistanceConverter fromAstronomicalUnits(
 			BigDecimal astronomicalUnits) {
+		DistanceConverter.count(Unit.AstronomicalUnit, Unit.Micrometer);
 		return new MetricDistanceConverter(
 				DistanceConverter.MICROMETERS_IN_AN_ASTRONOMICAL_UNIT.multiply(astronomicalUnits));
 	}
@@ -221,6 +353,7 @@ public abstract class DistanceConverter {
 	}
 
 	public static DistanceConverter fromLightYears(BigDecimal lightYears) {
+		DistanceConverter.count(Unit.LightYear, Unit.Micrometer);
 		return new MetricDistanceConverter(
 				DistanceConverter.MICROMETERS_IN_A_LIGHT_YEAR.multiply(lightYears));
 	}
@@ -231,37 +364,193 @@ public abstract class DistanceConverter {
 	}
 
 	public static DistanceConverter fromParsecs(BigDecimal parsecs) {
+		DistanceConverter.count(Unit.Parsec, Unit.Micrometer);
 		return new MetricDistanceConverter(
 				DistanceConverter.MICROMETERS_IN_A_PARSEC.multiply(parsecs));
 	}
 
+	// Bulk conversion
+
+	/**
+	 * <p>
+	 * Converts length values from the source array, starting at sourceOffset,
+	 * into the destination array, starting at destinationOffset. No objects
+	 * are created along the way so this is suited to very large data sets such
+	 * as GPS tracks. Arrays of more than BulkConversion.THRESHOLD values are
+	 * split across the common ForkJoinPool, smaller ones are converted on the
+	 * calling thread.
+	 * </p>
+	 * 
+	 * <p>
+	 * As with System.arraycopy the source and destination may be the same
+	 * array, even when the ranges overlap.
+	 * </p>
+	 * 
+	 * @param from
+	 *            The unit the source values are in.
+	 * @param source
+	 *            The values to convert.
+	 * @param sourceOffset
+	 *            The index of the first value to convert.
+	 * @param to
+	 *            The unit to write the converted values in.
+	 * @param destination
+	 *            The array to write the converted values to.
+	 * @param destinationOffset
+	 *            The index to write the first converted value to.
+	 * @param length
+	 *            The number of values to convert.
+	 */
+	public static void convert(Unit from, double[] source, int sourceOffset,
+			Unit to, double[] destination, int destinationOffset, int length) {
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, sourceOffset, destination,
+				destinationOffset, length, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), length, start);
+	}
+
+	/**
+	 * Converts whole length values from the source array into the destination
+	 * array. This behaves exactly like the double[] variant of this method.
+	 */
+	public static void convert(Unit from, long[] source, int sourceOffset,
+			Unit to, double[] destination, int destinationOffset, int length) {
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, sourceOffset, destination,
+				destinationOffset, length, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), length, start);
+	}
+
+	/**
+	 * Converts the remaining values of the source buffer into the destination
+	 * buffer in place, advancing both positions past them. Direct buffers are
+	 * read and written where they are, without a copy onto the heap.
+	 * 
+	 * @param from
+	 *            The unit the source values are in.
+	 * @param source
+	 *            The values to convert.
+	 * @param to
+	 *            The unit to write the converted values in.
+	 * @param destination
+	 *            The buffer to write the converted values to, which may be
+	 *            the source itself.
+	 */
+	public static void convert(Unit from, DoubleBuffer source, Unit to,
+			DoubleBuffer destination) {
+		final int count = source.remaining();
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, destination, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), count, start);
+	}
+
+	/**
+	 * Converts whole values from the source buffer into the destination
+	 * buffer. This behaves exactly like the DoubleBuffer variant of this
+	 * method.
+	 */
+	public static void convert(Unit from, LongBuffer source, Unit to,
+			DoubleBuffer destination) {
+		final int count = source.remaining();
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, destination, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), count, start);
+	}
+
 	// Metric output
 
-	public abstract BigDecimal toMicrometers();
+	public BigDecimal toMicrometers() {
+		return this.toMicrometers(this.context);
+	}
+
+	public abstract BigDecimal toMicrometers(ConversionContext context);
+
+	public BigDecimal toMilimeters() {
+		return this.toMilimeters(this.context);
+	}
 
-	public abstract BigDecimal toMilimeters();
+	public abstract BigDecimal toMilimeters(ConversionContext context);
 
-	public abstract BigDecimal toCentimeters();
+	public BigDecimal toCentimeters() {
+		return this.toCentimeters(this.context);
+	}
 
-	public abstract BigDecimal toMeters();
+	public abstract BigDecimal toCentimeters(ConversionContext context);
 
-	public abstract BigDecimal toKilometers();
+	public BigDecimal toMeters() {
+		return this.toMeters(this.context);
+	}
+
+	public abstract BigDecimal toMeters(ConversionContext context);
+
+	public BigDecimal toKilometers() {
+		return this.toKilometers(this.context);
+	}
+
+	public abstract BigDecimal toKilometers(ConversionContext context);
 
 	// Imperal output
 
-	public abstract BigDecimal toInches();
+	public BigDecimal toInches() {
+		return this.toInches(this.context);
+	}
+
+	public abstract BigDecimal toInches(ConversionContext context);
 
-	public abstract BigDecimal toFeet();
+	public BigDecimal toFeet() {
+		return this.toFeet(this.context);
+	}
+
+	public abstract BigDecimal toFeet(ConversionContext context);
+
+	public BigDecimal toYards() {
+		return this.toYards(this.context);
+	}
+
+	public abstract BigDecimal toYards(ConversionContext context);
 
-	public abstract BigDecimal toYards();
+	public BigDecimal toMiles() {
+		return this.toMiles(this.context);
+	}
 
-	public abstract BigDecimal toMiles();
+	public abstract BigDecimal toMiles(ConversionContext context);
 
 	// Astronomy output
 
-	public abstract BigDecimal toAstronomicalUnits();
+	public BigDecimal toAstronomicalUnits() {
+		return this.toAstronomicalUnits(this.context);
+	}
+
+	public abstract BigDecimal toAstronomicalUnits(ConversionContext context);
+
+	public BigDecimal toLightYears() {
+		return this.toLightYears(this.context);
+	}
+
+	public abstract BigDecimal toLightYears(ConversionContext context);
+
+	public BigDecimal toParsecs() {
+		return this.toParsecs(this.context);
+	}
+
+	public abstract BigDecimal toParsecs(ConversionContext context);
 
-	public abstract BigDecimal toLightYears();
+	// String output
 
-	public abstract BigDecimal toParsecs();
+	/**
+	 * Writes this distance the way toString does, without String.format or
+	 * any intermediate BigDecimal or String.
+	 * 
+	 * In the event the Appendable fails a runtime exception of the type
+	 * UncheckedIOException will be thrown.
+	 * 
+	 * @param out
+	 *            Where to write, usually a StringBuilder.
+	 * @return The same Appendable.
+	 */
+	public abstract <A extends Appendable> A formatTo(A out);
 }
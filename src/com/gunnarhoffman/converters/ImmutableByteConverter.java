@@ -0,0 +1,273 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.security.InvalidParameterException;
+
+/**
+ * <p>
+ * An immutable counterpart to ByteConverter. Every add* method returns a new
+ * instance and all fields are final, so instances can be cached and shared
+ * between threads without copying.
+ * </p>
+ * 
+ * <p>
+ * Frequently used values are interned: any factory or arithmetic that
+ * produces one of the constants below returns that constant rather than a
+ * new instance.
+ * </p>
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+public final class ImmutableByteConverter {
+
+	// Constants
+
+	public static final ImmutableByteConverter ZERO = new ImmutableByteConverter(
+			BigDecimal.ZERO, ConversionContext.DEFAULT);
+	public static final ImmutableByteConverter ONE_BYTE = new ImmutableByteConverter(
+			BigDecimal.ONE, ConversionContext.DEFAULT);
+	public static final ImmutableByteConverter ONE_KILOBYTE = new ImmutableByteConverter(
+			ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST,
+			ConversionContext.DEFAULT);
+	public static final ImmutableByteConverter ONE_MEGABYTE = new ImmutableByteConverter(
+			ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND,
+			ConversionContext.DEFAULT);
+	public static final ImmutableByteConverter ONE_GIGABYTE = new ImmutableByteConverter(
+			ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD,
+			ConversionContext.DEFAULT);
+	public static final ImmutableByteConverter ONE_TERABYTE = new ImmutableByteConverter(
+			ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH,
+			ConversionContext.DEFAULT);
+
+	private static final ImmutableByteConverter[] INTERNED = { ZERO, ONE_BYTE,
+			ONE_KILOBYTE, ONE_MEGABYTE, ONE_GIGABYTE, ONE_TERABYTE };
+
+	// Instance fields
+
+	private final BigDecimal bytes;
+	private final ConversionContext context;
+
+	// Constructors
+
+	private ImmutableByteConverter(BigDecimal bytes, ConversionContext context) {
+		this.bytes = bytes;
+		this.context = context;
+	}
+
+	/*
+	 * Every instance is created through this method so that negative values
+	 * are rejected and common values are interned.
+	 */
+	private static ImmutableByteConverter of(BigDecimal bytes,
+			ConversionContext context) {
+		if (bytes.signum() == -1) {
+			throw new InvalidParameterException(
+					"negative bytes makes no sense!");
+		}
+		if (context == ConversionContext.DEFAULT) {
+			for (ImmutableByteConverter interned : INTERNED) {
+				if (interned.bytes.compareTo(bytes) == 0) {
+					return interned;
+				}
+			}
+		}
+		return new ImmutableByteConverter(bytes, context);
+	}
+
+	// Conversion to and from the mutable converter
+
+	public static ImmutableByteConverter of(ByteConverter converter) {
+		return ImmutableByteConverter.of(converter.exactBytes(),
+				converter.getContext());
+	}
+
+	public ByteConverter toMutable() {
+		return ByteConverter.fromBytes(this.bytes).setContext(this.context);
+	}
+
+	// Context
+
+	public ConversionContext getContext() {
+		return this.context;
+	}
+
+	/**
+	 * Returns an instance holding the same number of bytes whose output
+	 * methods round with the given context.
+	 */
+	public ImmutableByteConverter withContext(ConversionContext context) {
+		if (context == null) {
+			throw new InvalidParameterException("a context is required!");
+		}
+		if (context == this.context) {
+			return this;
+		}
+		return ImmutableByteConverter.of(this.bytes, context);
+	}
+
+	// Byte initializers
+
+	public static ImmutableByteConverter fromTerabytes(double terabytes) {
+		return ImmutableByteConverter.fromTerabytes(new BigDecimal(
+				Double.toString(terabytes)));
+	}
+
+	public static ImmutableByteConverter fromTerabytes(BigDecimal terabytes) {
+		return ImmutableByteConverter.of(
+				terabytes.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH),
+				ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableByteConverter fromGigabytes(double gigabytes) {
+		return ImmutableByteConverter.fromGigabytes(new BigDecimal(
+				Double.toString(gigabytes)));
+	}
+
+	public static ImmutableByteConverter fromGigabytes(BigDecimal gigabytes) {
+		return ImmutableByteConverter.of(
+				gigabytes.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD),
+				ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableByteConverter fromMegabytes(double megabytes) {
+		return ImmutableByteConverter.fromMegabytes(new BigDecimal(
+				Double.toString(megabytes)));
+	}
+
+	public static ImmutableByteConverter fromMegabytes(BigDecimal megabytes) {
+		return ImmutableByteConverter.of(
+				megabytes.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND),
+				ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableByteConverter fromKilobytes(double kilobytes) {
+		return ImmutableByteConverter.fromKilobytes(new BigDecimal(
+				Double.toString(kilobytes)));
+	}
+
+	public static ImmutableByteConverter fromKilobytes(BigDecimal kilobytes) {
+		return ImmutableByteConverter.of(
+				kilobytes.multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST),
+				ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableByteConverter fromBytes(long bytes) {
+		return ImmutableByteConverter.fromBytes(BigDecimal.valueOf(bytes));
+	}
+
+	public static ImmutableByteConverter fromBytes(BigDecimal bytes) {
+		return ImmutableByteConverter.of(bytes, ConversionContext.DEFAULT);
+	}
+
+	// Addition and (via the use of negative numbers) subtraction
+
+	public ImmutableByteConverter add(ImmutableByteConverter other) {
+		return ImmutableByteConverter.of(this.bytes.add(other.bytes),
+				this.context);
+	}
+
+	public ImmutableByteConverter addBytes(long bytes) {
+		return ImmutableByteConverter.of(
+				this.bytes.add(BigDecimal.valueOf(bytes)), this.context);
+	}
+
+	public ImmutableByteConverter addKilobytes(double kilobytes) {
+		return ImmutableByteConverter.of(this.bytes.add(new BigDecimal(
+				kilobytes).multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST)),
+				this.context);
+	}
+
+	public ImmutableByteConverter addMegabytes(double megabytes) {
+		return ImmutableByteConverter.of(this.bytes.add(new BigDecimal(
+				megabytes).multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND)),
+				this.context);
+	}
+
+	public ImmutableByteConverter addGigabytes(double gigabytes) {
+		return ImmutableByteConverter.of(this.bytes.add(new BigDecimal(
+				gigabytes).multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD)),
+				this.context);
+	}
+
+	public ImmutableByteConverter addTerabytes(double terabytes) {
+		return ImmutableByteConverter.of(this.bytes.add(new BigDecimal(
+				terabytes).multiply(ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH)),
+				this.context);
+	}
+
+	// Output as bytes
+
+	public BigInteger toBytes() {
+		return this.bytes.toBigInteger();
+	}
+
+	public BigDecimal toKilobytes() {
+		return this.context.divide(this.bytes,
+				ByteConverter.TEN_TWENTY_FOUR_TO_THE_FIRST);
+	}
+
+	public BigDecimal toMegabytes() {
+		return this.context.divide(this.bytes,
+				ByteConverter.TEN_TWENTY_FOUR_TO_THE_SECOND);
+	}
+
+	public BigDecimal toGigabytes() {
+		return this.context.divide(this.bytes,
+				ByteConverter.TEN_TWENTY_FOUR_TO_THE_THIRD);
+	}
+
+	public BigDecimal toTerabytes() {
+		return this.context.divide(this.bytes,
+				ByteConverter.TEN_TWENTY_FOUR_TO_THE_FOURTH);
+	}
+
+	// Output as bits
+
+	public BigDecimal toKilobits() {
+		return this.context.divide(this.toKilobytes(), ByteConverter.EIGHT);
+	}
+
+	public BigDecimal toMegabits() {
+		return this.context.divide(this.toMegabytes(), ByteConverter.EIGHT);
+	}
+
+	public BigDecimal toGigabits() {
+		return this.context.divide(this.toGigabytes(), ByteConverter.EIGHT);
+	}
+
+	public BigDecimal toTerabits() {
+		return this.context.divide(this.toTerabytes(), ByteConverter.EIGHT);
+	}
+
+	// Object
+
+	/**
+	 * Two instances are equal when they hold the same number of bytes and
+	 * round with the same context, regardless of the scale of their values.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof ImmutableByteConverter)) {
+			return false;
+		}
+		ImmutableByteConverter converter = (ImmutableByteConverter) other;
+		return this.bytes.compareTo(converter.bytes) == 0
+				&& this.context.equals(converter.context);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.bytes.stripTrailingZeros().hashCode() * 31
+				+ this.context.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return this.toMutable().toString();
+	}
+}
@@ -0,0 +1,362 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+
+/**
+ * <p>
+ * An immutable counterpart to DistanceConverter. Distance is held in
+ * micrometers whatever unit it was created from. Every arithmetic method
+ * returns a new instance and all fields are final, so instances can be cached
+ * and shared between threads without copying.
+ * </p>
+ * 
+ * <p>
+ * Frequently used values are interned: any factory or arithmetic that produces
+ * one of the constants below returns that constant rather than a new instance.
+ * </p>
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+public final class ImmutableDistanceConverter {
+
+	// Constants
+
+	public static final ImmutableDistanceConverter ZERO = new ImmutableDistanceConverter(
+			BigDecimal.ZERO, ConversionContext.DEFAULT);
+	public static final ImmutableDistanceConverter ONE_MILLIMETER = new ImmutableDistanceConverter(
+			DistanceConverter.MICROMETERS_IN_A_MILAMETER,
+			ConversionContext.DEFAULT);
+	public static final ImmutableDistanceConverter ONE_CENTIMETER = new ImmutableDistanceConverter(
+			DistanceConverter.MICROMETERS_IN_A_CENTIMETER,
+			ConversionContext.DEFAULT);
+	public static final ImmutableDistanceConverter ONE_METER = new ImmutableDistanceConverter(
+			DistanceConverter.MICROMETERS_IN_A_METER,
+			ConversionContext.DEFAULT);
+	public static final ImmutableDistanceConverter ONE_KILOMETER = new ImmutableDistanceConverter(
+			DistanceConverter.MICROMETERS_IN_A_KILOMETER,
+			ConversionContext.DEFAULT);
+	public static final ImmutableDistanceConverter ONE_INCH = new ImmutableDistanceConverter(
+			DistanceConverter.MICROMETERS_IN_AN_INCH,
+			ConversionContext.DEFAULT);
+	public static final ImmutableDistanceConverter ONE_FOOT = new ImmutableDistanceConverter(
+			DistanceConverter.MICROMETERS_IN_A_FOOT, ConversionContext.DEFAULT);
+	public static final ImmutableDistanceConverter ONE_YARD = new ImmutableDistanceConverter(
+			DistanceConverter.MICROMETERS_IN_A_YARD, ConversionContext.DEFAULT);
+	public static final ImmutableDistanceConverter ONE_MILE = new ImmutableDistanceConverter(
+			DistanceConverter.MICROMETERS_IN_A_MILE, ConversionContext.DEFAULT);
+
+	private static final ImmutableDistanceConverter[] INTERNED = { ZERO,
+			ONE_MILLIMETER, ONE_CENTIMETER, ONE_METER, ONE_KILOMETER, ONE_INCH,
+			ONE_FOOT, ONE_YARD, ONE_MILE };
+
+	// Instance fields
+
+	private final BigDecimal micrometers;
+	private final ConversionContext context;
+
+	// Constructors
+
+	private ImmutableDistanceConverter(BigDecimal micrometers,
+			ConversionContext context) {
+		this.micrometers = micrometers;
+		this.context = context;
+	}
+
+	/*
+	 * Every instance is created through this method so that negative values are
+	 * rejected and common values are interned.
+	 */
+	private static ImmutableDistanceConverter of(BigDecimal micrometers,
+			ConversionContext context) {
+		if (micrometers.signum() == -1) {
+			throw new InvalidParameterException("negative distance makes no sense!");
+		}
+		if (context == ConversionContext.DEFAULT) {
+			for (ImmutableDistanceConverter interned : INTERNED) {
+				if (interned.micrometers.compareTo(micrometers) == 0) {
+					return interned;
+				}
+			}
+		}
+		return new ImmutableDistanceConverter(micrometers, context);
+	}
+
+	// Conversion to and from the mutable converter
+
+	public static ImmutableDistanceConverter of(DistanceConverter converter) {
+		return ImmutableDistanceConverter.of(converter.toMicrometers(),
+				converter.getContext());
+	}
+
+	public DistanceConverter toMutable() {
+		return DistanceConverter.fromMicrometers(this.micrometers).setContext(
+				this.context);
+	}
+
+	// Context
+
+	public ConversionContext getContext() {
+		return this.context;
+	}
+
+	/**
+	 * Returns an instance holding the same distance whose output methods round
+	 * with the given context.
+	 */
+	public ImmutableDistanceConverter withContext(ConversionContext context) {
+		if (context == null) {
+			throw new InvalidParameterException("a context is required!");
+		}
+		if (context == this.context) {
+			return this;
+		}
+		return ImmutableDistanceConverter.of(this.micrometers, context);
+	}
+
+	// Initializers
+
+	public static ImmutableDistanceConverter fromMicrometers(long micrometers) {
+		return ImmutableDistanceConverter.fromMicrometers(BigDecimal.valueOf(
+				micrometers));
+	}
+
+	public static ImmutableDistanceConverter fromMicrometers(
+			BigDecimal micrometers) {
+		return ImmutableDistanceConverter.of(micrometers,
+				ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableDistanceConverter fromMillimeters(
+			double millimeters) {
+		return ImmutableDistanceConverter.fromMillimeters(new BigDecimal(Double
+				.toString(millimeters)));
+	}
+
+	public static ImmutableDistanceConverter fromMillimeters(
+			BigDecimal millimeters) {
+		return ImmutableDistanceConverter.of(millimeters.multiply(
+				DistanceConverter.MICROMETERS_IN_A_MILAMETER),
+				ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableDistanceConverter fromCentimeters(
+			double centimeters) {
+		return ImmutableDistanceConverter.fromCentimeters(new BigDecimal(Double
+				.toString(centimeters)));
+	}
+
+	public static ImmutableDistanceConverter fromCentimeters(
+			BigDecimal centimeters) {
+		return ImmutableDistanceConverter.of(centimeters.multiply(
+				DistanceConverter.MICROMETERS_IN_A_CENTIMETER),
+				ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableDistanceConverter fromMeters(double meters) {
+		return ImmutableDistanceConverter.fromMeters(new BigDecimal(Double
+				.toString(meters)));
+	}
+
+	public static ImmutableDistanceConverter fromMeters(BigDecimal meters) {
+		return ImmutableDistanceConverter.of(meters.multiply(DistanceConverter
+				.MICROMETERS_IN_A_METER), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableDistanceConverter fromKilometers(double kilometers) {
+		return ImmutableDistanceConverter.fromKilometers(new BigDecimal(Double
+				.toString(kilometers)));
+	}
+
+	public static ImmutableDistanceConverter fromKilometers(
+			BigDecimal kilometers) {
+		return ImmutableDistanceConverter.of(kilometers.multiply(
+				DistanceConverter.MICROMETERS_IN_A_KILOMETER),
+				ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableDistanceConverter fromInches(double inches) {
+		return ImmutableDistanceConverter.fromInches(new BigDecimal(Double
+				.toString(inches)));
+	}
+
+	public static ImmutableDistanceConverter fromInches(BigDecimal inches) {
+		return ImmutableDistanceConverter.of(inches.multiply(DistanceConverter
+				.MICROMETERS_IN_AN_INCH), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableDistanceConverter fromFeet(double feet) {
+		return ImmutableDistanceConverter.fromFeet(new BigDecimal(Double
+				.toString(feet)));
+	}
+
+	public static ImmutableDistanceConverter fromFeet(BigDecimal feet) {
+		return ImmutableDistanceConverter.of(feet.multiply(DistanceConverter
+				.MICROMETERS_IN_A_FOOT), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableDistanceConverter fromYards(double yards) {
+		return ImmutableDistanceConverter.fromYards(new BigDecimal(Double
+				.toString(yards)));
+	}
+
+	public static ImmutableDistanceConverter fromYards(BigDecimal yards) {
+		return ImmutableDistanceConverter.of(yards.multiply(DistanceConverter
+				.MICROMETERS_IN_A_YARD), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableDistanceConverter fromMiles(double miles) {
+		return ImmutableDistanceConverter.fromMiles(new BigDecimal(Double
+				.toString(miles)));
+	}
+
+	public static ImmutableDistanceConverter fromMiles(BigDecimal miles) {
+		return ImmutableDistanceConverter.of(miles.multiply(DistanceConverter
+				.MICROMETERS_IN_A_MILE), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableDistanceConverter fromAstronomicalUnits(
+			double astronomicalUnits) {
+		return ImmutableDistanceConverter.fromAstronomicalUnits(new BigDecimal(
+				Double.toString(astronomicalUnits)));
+	}
+
+	public static ImmutableDistanceConverter fromAstronomicalUnits(
+			BigDecimal astronomicalUnits) {
+		return ImmutableDistanceConverter.of(astronomicalUnits.multiply(
+				DistanceConverter.MICROMETERS_IN_AN_ASTRONOMICAL_UNIT),
+				ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableDistanceConverter fromLightYears(double lightYears) {
+		return ImmutableDistanceConverter.fromLightYears(new BigDecimal(Double
+				.toString(lightYears)));
+	}
+
+	public static ImmutableDistanceConverter fromLightYears(
+			BigDecimal lightYears) {
+		return ImmutableDistanceConverter.of(lightYears.multiply(
+				DistanceConverter.MICROMETERS_IN_A_LIGHT_YEAR),
+				ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableDistanceConverter fromParsecs(double parsecs) {
+		return ImmutableDistanceConverter.fromParsecs(new BigDecimal(Double
+				.toString(parsecs)));
+	}
+
+	public static ImmutableDistanceConverter fromParsecs(BigDecimal parsecs) {
+		return ImmutableDistanceConverter.of(parsecs.multiply(DistanceConverter
+				.MICROMETERS_IN_A_PARSEC), ConversionContext.DEFAULT);
+	}
+
+	// Arithmetic
+
+	public ImmutableDistanceConverter add(ImmutableDistanceConverter other) {
+		return ImmutableDistanceConverter.of(this.micrometers.add(other
+				.micrometers), this.context);
+	}
+
+	/**
+	 * In the event the result would be negative a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public ImmutableDistanceConverter subtract(
+			ImmutableDistanceConverter other) {
+		return ImmutableDistanceConverter.of(this.micrometers.subtract(other
+				.micrometers), this.context);
+	}
+
+	// Output
+
+	public BigDecimal toMicrometers() {
+		return this.micrometers;
+	}
+
+	public BigDecimal toMilimeters() {
+		return this.context.divide(this.micrometers,
+				DistanceConverter.MICROMETERS_IN_A_MILAMETER);
+	}
+
+	public BigDecimal toCentimeters() {
+		return this.context.divide(this.micrometers,
+				DistanceConverter.MICROMETERS_IN_A_CENTIMETER);
+	}
+
+	public BigDecimal toMeters() {
+		return this.context.divide(this.micrometers,
+				DistanceConverter.MICROMETERS_IN_A_METER);
+	}
+
+	public BigDecimal toKilometers() {
+		return this.context.divide(this.micrometers,
+				DistanceConverter.MICROMETERS_IN_A_KILOMETER);
+	}
+
+	public BigDecimal toInches() {
+		return this.context.divide(this.micrometers,
+				DistanceConverter.MICROMETERS_IN_AN_INCH);
+	}
+
+	public BigDecimal toFeet() {
+		return this.context.divide(this.micrometers,
+				DistanceConverter.MICROMETERS_IN_A_FOOT);
+	}
+
+	public BigDecimal toYards() {
+		return this.context.divide(this.micrometers,
+				DistanceConverter.MICROMETERS_IN_A_YARD);
+	}
+
+	public BigDecimal toMiles() {
+		return this.context.divide(this.micrometers,
+				DistanceConverter.MICROMETERS_IN_A_MILE);
+	}
+
+	public BigDecimal toAstronomicalUnits() {
+		return this.context.divide(this.micrometers,
+				DistanceConverter.MICROMETERS_IN_AN_ASTRONOMICAL_UNIT);
+	}
+
+	public BigDecimal toLightYears() {
+		return this.context.divide(this.micrometers,
+				DistanceConverter.MICROMETERS_IN_A_LIGHT_YEAR);
+	}
+
+	public BigDecimal toParsecs() {
+		return this.context.divide(this.micrometers,
+				DistanceConverter.MICROMETERS_IN_A_PARSEC);
+	}
+
+	// Object
+
+	/**
+	 * Two instances are equal when they hold the same distance and round with
+	 * the same context, regardless of the scale of their values.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof ImmutableDistanceConverter)) {
+			return false;
+		}
+		ImmutableDistanceConverter converter = (
+				ImmutableDistanceConverter) other;
+		return this.micrometers.compareTo(converter.micrometers) == 0
+				&& this.context.equals(converter.context);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.micrometers.stripTrailingZeros().hashCode() * 31
+				+ this.context.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return this.toMutable().toString();
+	}
+}
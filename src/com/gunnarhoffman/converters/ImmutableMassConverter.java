@@ -0,0 +1,210 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+
+/**
+ * <p>
+ * An immutable counterpart to MassConverter. Mass is held in milligrams. Every
+ * arithmetic method returns a new instance and all fields are final, so
+ * instances can be cached and shared between threads without copying.
+ * </p>
+ * 
+ * <p>
+ * Frequently used values are interned: any factory or arithmetic that produces
+ * one of the constants below returns that constant rather than a new instance.
+ * </p>
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+public final class ImmutableMassConverter {
+
+	// Constants
+
+	public static final ImmutableMassConverter ZERO = new ImmutableMassConverter(
+			BigDecimal.ZERO, ConversionContext.DEFAULT);
+	public static final ImmutableMassConverter ONE_MILLIGRAM = new ImmutableMassConverter(
+			BigDecimal.ONE, ConversionContext.DEFAULT);
+	public static final ImmutableMassConverter ONE_GRAM = new ImmutableMassConverter(
+			MassConverter.MILLIGRAMS_IN_A_GRAM, ConversionContext.DEFAULT);
+	public static final ImmutableMassConverter ONE_KILOGRAM = new ImmutableMassConverter(
+			MassConverter.MILLIGRAMS_IN_A_KILOGRAM, ConversionContext.DEFAULT);
+	public static final ImmutableMassConverter ONE_TONNE = new ImmutableMassConverter(
+			MassConverter.MILLIGRAMS_IN_A_TONNE, ConversionContext.DEFAULT);
+
+	private static final ImmutableMassConverter[] INTERNED = { ZERO,
+			ONE_MILLIGRAM, ONE_GRAM, ONE_KILOGRAM, ONE_TONNE };
+
+	// Instance fields
+
+	private final BigDecimal milligrams;
+	private final ConversionContext context;
+
+	// Constructors
+
+	private ImmutableMassConverter(BigDecimal milligrams,
+			ConversionContext context) {
+		this.milligrams = milligrams;
+		this.context = context;
+	}
+
+	/*
+	 * Every instance is created through this method so that negative values are
+	 * rejected and common values are interned.
+	 */
+	private static ImmutableMassConverter of(BigDecimal milligrams,
+			ConversionContext context) {
+		if (milligrams.signum() == -1) {
+			throw new InvalidParameterException("negative mass makes no sense!");
+		}
+		if (context == ConversionContext.DEFAULT) {
+			for (ImmutableMassConverter interned : INTERNED) {
+				if (interned.milligrams.compareTo(milligrams) == 0) {
+					return interned;
+				}
+			}
+		}
+		return new ImmutableMassConverter(milligrams, context);
+	}
+
+	// Conversion to and from the mutable converter
+
+	public static ImmutableMassConverter of(MassConverter converter) {
+		return ImmutableMassConverter.of(converter.toMilligrams(),
+				converter.getContext());
+	}
+
+	public MassConverter toMutable() {
+		return MassConverter.fromMilligrams(this.milligrams).setContext(this
+				.context);
+	}
+
+	// Context
+
+	public ConversionContext getContext() {
+		return this.context;
+	}
+
+	/**
+	 * Returns an instance holding the same mass whose output methods round with
+	 * the given context.
+	 */
+	public ImmutableMassConverter withContext(ConversionContext context) {
+		if (context == null) {
+			throw new InvalidParameterException("a context is required!");
+		}
+		if (context == this.context) {
+			return this;
+		}
+		return ImmutableMassConverter.of(this.milligrams, context);
+	}
+
+	// Initializers
+
+	public static ImmutableMassConverter fromMilligrams(double milligrams) {
+		return ImmutableMassConverter.fromMilligrams(new BigDecimal(Double
+				.toString(milligrams)));
+	}
+
+	public static ImmutableMassConverter fromMilligrams(BigDecimal milligrams) {
+		return ImmutableMassConverter.of(milligrams, ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableMassConverter fromGrams(double grams) {
+		return ImmutableMassConverter.fromGrams(new BigDecimal(Double.toString(
+				grams)));
+	}
+
+	public static ImmutableMassConverter fromGrams(BigDecimal grams) {
+		return ImmutableMassConverter.of(grams.multiply(MassConverter
+				.MILLIGRAMS_IN_A_GRAM), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableMassConverter fromKilograms(double kilograms) {
+		return ImmutableMassConverter.fromKilograms(new BigDecimal(Double
+				.toString(kilograms)));
+	}
+
+	public static ImmutableMassConverter fromKilograms(BigDecimal kilograms) {
+		return ImmutableMassConverter.of(kilograms.multiply(MassConverter
+				.MILLIGRAMS_IN_A_KILOGRAM), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableMassConverter fromTonnes(double tonnes) {
+		return ImmutableMassConverter.fromTonnes(new BigDecimal(Double.toString(
+				tonnes)));
+	}
+
+	public static ImmutableMassConverter fromTonnes(BigDecimal tonnes) {
+		return ImmutableMassConverter.of(tonnes.multiply(MassConverter
+				.MILLIGRAMS_IN_A_TONNE), ConversionContext.DEFAULT);
+	}
+
+	// Arithmetic
+
+	public ImmutableMassConverter add(ImmutableMassConverter other) {
+		return ImmutableMassConverter.of(this.milligrams.add(other.milligrams),
+				this.context);
+	}
+
+	/**
+	 * In the event the result would be negative a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public ImmutableMassConverter subtract(ImmutableMassConverter other) {
+		return ImmutableMassConverter.of(this.milligrams.subtract(other
+				.milligrams), this.context);
+	}
+
+	// Output
+
+	public BigDecimal toMilligrams() {
+		return this.milligrams;
+	}
+
+	public BigDecimal toGrams() {
+		return this.context.divide(this.milligrams,
+				MassConverter.MILLIGRAMS_IN_A_GRAM);
+	}
+
+	public BigDecimal toKilograms() {
+		return this.context.divide(this.milligrams,
+				MassConverter.MILLIGRAMS_IN_A_KILOGRAM);
+	}
+
+	public BigDecimal toTonnes() {
+		return this.context.divide(this.milligrams,
+				MassConverter.MILLIGRAMS_IN_A_TONNE);
+	}
+
+	// Object
+
+	/**
+	 * Two instances are equal when they hold the same mass and round with the
+	 * same context, regardless of the scale of their values.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof ImmutableMassConverter)) {
+			return false;
+		}
+		ImmutableMassConverter converter = (ImmutableMassConverter) other;
+		return this.milligrams.compareTo(converter.milligrams) == 0
+				&& this.context.equals(converter.context);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.milligrams.stripTrailingZeros().hashCode() * 31
+				+ this.context.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return this.toMutable().toString();
+	}
+}
@@ -0,0 +1,282 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.security.InvalidParameterException;
+
+/**
+ * <p>
+ * An immutable counterpart to TimeConverter. Time is held in microseconds.
+ * Every arithmetic method returns a new instance and all fields are final, so
+ * instances can be cached and shared between threads without copying.
+ * </p>
+ * 
+ * <p>
+ * Frequently used values are interned: any factory or arithmetic that produces
+ * one of the constants below returns that constant rather than a new instance.
+ * </p>
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+public final class ImmutableTimeConverter {
+
+	// Constants
+
+	public static final ImmutableTimeConverter ZERO = new ImmutableTimeConverter(
+			BigDecimal.ZERO, ConversionContext.DEFAULT);
+	public static final ImmutableTimeConverter ONE_MICROSECOND = new ImmutableTimeConverter(
+			BigDecimal.ONE, ConversionContext.DEFAULT);
+	public static final ImmutableTimeConverter ONE_MILLISECOND = new ImmutableTimeConverter(
+			TimeConverter.MICROSECONDS_IN_A_MILLISECOND,
+			ConversionContext.DEFAULT);
+	public static final ImmutableTimeConverter ONE_SECOND = new ImmutableTimeConverter(
+			TimeConverter.MICROSECONDS_IN_A_SECOND, ConversionContext.DEFAULT);
+	public static final ImmutableTimeConverter ONE_MINUTE = new ImmutableTimeConverter(
+			TimeConverter.MICROSECONDS_IN_A_MINUTE, ConversionContext.DEFAULT);
+	public static final ImmutableTimeConverter ONE_HOUR = new ImmutableTimeConverter(
+			TimeConverter.MICROSECONDS_IN_AN_HOUR, ConversionContext.DEFAULT);
+	public static final ImmutableTimeConverter ONE_DAY = new ImmutableTimeConverter(
+			TimeConverter.MICROSECONDS_IN_A_DAY, ConversionContext.DEFAULT);
+	public static final ImmutableTimeConverter ONE_WEEK = new ImmutableTimeConverter(
+			TimeConverter.MICROSECONDS_IN_A_WEEK, ConversionContext.DEFAULT);
+
+	private static final ImmutableTimeConverter[] INTERNED = { ZERO,
+			ONE_MICROSECOND, ONE_MILLISECOND, ONE_SECOND, ONE_MINUTE, ONE_HOUR,
+			ONE_DAY, ONE_WEEK };
+
+	// Instance fields
+
+	private final BigDecimal microseconds;
+	private final ConversionContext context;
+
+	// Constructors
+
+	private ImmutableTimeConverter(BigDecimal microseconds,
+			ConversionContext context) {
+		this.microseconds = microseconds;
+		this.context = context;
+	}
+
+	/*
+	 * Every instance is created through this method so that negative values are
+	 * rejected and common values are interned.
+	 */
+	private static ImmutableTimeConverter of(BigDecimal microseconds,
+			ConversionContext context) {
+		if (microseconds.signum() == -1) {
+			throw new InvalidParameterException("negative time makes no sense!");
+		}
+		if (context == ConversionContext.DEFAULT) {
+			for (ImmutableTimeConverter interned : INTERNED) {
+				if (interned.microseconds.compareTo(microseconds) == 0) {
+					return interned;
+				}
+			}
+		}
+		return new ImmutableTimeConverter(microseconds, context);
+	}
+
+	// Conversion to and from the mutable converter
+
+	public static ImmutableTimeConverter of(TimeConverter converter) {
+		return ImmutableTimeConverter.of(converter.getTime(),
+				converter.getContext());
+	}
+
+	public TimeConverter toMutable() {
+		return TimeConverter.fromMicroseconds(this.microseconds).setContext(
+				this.context);
+	}
+
+	// Context
+
+	public ConversionContext getContext() {
+		return this.context;
+	}
+
+	/**
+	 * Returns an instance holding the same length of time whose output methods
+	 * round with the given context.
+	 */
+	public ImmutableTimeConverter withContext(ConversionContext context) {
+		if (context == null) {
+			throw new InvalidParameterException("a context is required!");
+		}
+		if (context == this.context) {
+			return this;
+		}
+		return ImmutableTimeConverter.of(this.microseconds, context);
+	}
+
+	// Initializers
+
+	public static ImmutableTimeConverter fromMicroseconds(long microseconds) {
+		return ImmutableTimeConverter.fromMicroseconds(BigDecimal.valueOf(
+				microseconds));
+	}
+
+	public static ImmutableTimeConverter fromMicroseconds(
+			BigDecimal microseconds) {
+		return ImmutableTimeConverter.of(microseconds,
+				ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableTimeConverter fromMilliseconds(long milliseconds) {
+		return ImmutableTimeConverter.fromMilliseconds(BigDecimal.valueOf(
+				milliseconds));
+	}
+
+	public static ImmutableTimeConverter fromMilliseconds(
+			BigDecimal milliseconds) {
+		return ImmutableTimeConverter.of(milliseconds.multiply(TimeConverter
+				.MICROSECONDS_IN_A_MILLISECOND), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableTimeConverter fromSeconds(double seconds) {
+		return ImmutableTimeConverter.fromSeconds(new BigDecimal(Double
+				.toString(seconds)));
+	}
+
+	public static ImmutableTimeConverter fromSeconds(BigDecimal seconds) {
+		return ImmutableTimeConverter.of(seconds.multiply(TimeConverter
+				.MICROSECONDS_IN_A_SECOND), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableTimeConverter fromMinutes(double minutes) {
+		return ImmutableTimeConverter.fromMinutes(new BigDecimal(Double
+				.toString(minutes)));
+	}
+
+	public static ImmutableTimeConverter fromMinutes(BigDecimal minutes) {
+		return ImmutableTimeConverter.of(minutes.multiply(TimeConverter
+				.MICROSECONDS_IN_A_MINUTE), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableTimeConverter fromHours(double hours) {
+		return ImmutableTimeConverter.fromHours(new BigDecimal(Double.toString(
+				hours)));
+	}
+
+	public static ImmutableTimeConverter fromHours(BigDecimal hours) {
+		return ImmutableTimeConverter.of(hours.multiply(TimeConverter
+				.MICROSECONDS_IN_AN_HOUR), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableTimeConverter fromDays(double days) {
+		return ImmutableTimeConverter.fromDays(new BigDecimal(Double.toString(
+				days)));
+	}
+
+	public static ImmutableTimeConverter fromDays(BigDecimal days) {
+		return ImmutableTimeConverter.of(days.multiply(TimeConverter
+				.MICROSECONDS_IN_A_DAY), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableTimeConverter fromWeeks(double weeks) {
+		return ImmutableTimeConverter.fromWeeks(new BigDecimal(Double.toString(
+				weeks)));
+	}
+
+	public static ImmutableTimeConverter fromWeeks(BigDecimal weeks) {
+		return ImmutableTimeConverter.of(weeks.multiply(TimeConverter
+				.MICROSECONDS_IN_A_WEEK), ConversionContext.DEFAULT);
+	}
+
+	public static ImmutableTimeConverter fromYears(double years) {
+		return ImmutableTimeConverter.fromYears(new BigDecimal(Double.toString(
+				years)));
+	}
+
+	public static ImmutableTimeConverter fromYears(BigDecimal years) {
+		return ImmutableTimeConverter.of(years.multiply(TimeConverter
+				.MICROSECONDS_IN_A_YEAR), ConversionContext.DEFAULT);
+	}
+
+	// Arithmetic
+
+	public ImmutableTimeConverter add(ImmutableTimeConverter other) {
+		return ImmutableTimeConverter.of(this.microseconds.add(other
+				.microseconds), this.context);
+	}
+
+	/**
+	 * In the event the result would be negative a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public ImmutableTimeConverter subtract(ImmutableTimeConverter other) {
+		return ImmutableTimeConverter.of(this.microseconds.subtract(other
+				.microseconds), this.context);
+	}
+
+	// Output
+
+	public BigInteger toMicroseconds() {
+		return this.microseconds.toBigInteger();
+	}
+
+	public BigDecimal toMilliseconds() {
+		return this.context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_MILLISECOND);
+	}
+
+	public BigDecimal toSeconds() {
+		return this.context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_SECOND);
+	}
+
+	public BigDecimal toMinutes() {
+		return this.context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_MINUTE);
+	}
+
+	public BigDecimal toHours() {
+		return this.context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_AN_HOUR);
+	}
+
+	public BigDecimal toDays() {
+		return this.context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_DAY);
+	}
+
+	public BigDecimal toWeeks() {
+		return this.context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_WEEK);
+	}
+
+	public BigDecimal toYears() {
+		return this.context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_YEAR);
+	}
+
+	// Object
+
+	/**
+	 * Two instances are equal when they hold the same length of time and round
+	 * with the same context, regardless of the scale of their values.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof ImmutableTimeConverter)) {
+			return false;
+		}
+		ImmutableTimeConverter converter = (ImmutableTimeConverter) other;
+		return this.microseconds.compareTo(converter.microseconds) == 0
+				&& this.context.equals(converter.context);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.microseconds.stripTrailingZeros().hashCode() * 31
+				+ this.context.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return this.toMutable().toString();
+	}
+}
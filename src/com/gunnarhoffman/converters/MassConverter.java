@@ -1,6 +1,10 @@
 package com.gunnarhoffman.converters;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
 import java.security.InvalidParameterException;
 
 /**
@@ -13,8 +17,19 @@ public class MassConverter {
 
 	// Constants.
 
-	public static int DEFAULT_SCALE = 100;
-	public static int DEFAULT_ROUNDING_MODE = BigDecimal.ROUND_HALF_UP;
+	/**
+	 * @deprecated Use ConversionContext.DEFAULT, or bind another context with
+	 *             setContext.
+	 */
+	@Deprecated
+	public static final int DEFAULT_SCALE = 100;
+
+	/**
+	 * @deprecated Use ConversionContext.DEFAULT, or bind another context with
+	 *             setContext.
+	 */
+	@Deprecated
+	public static final int DEFAULT_ROUNDING_MODE = BigDecimal.ROUND_HALF_UP;
 
 	public static final BigDecimal MILLIGRAMS_IN_A_GRAM = new BigDecimal("1000");
 	public static final BigDecimal MILLIGRAMS_IN_A_KILOGRAM = new BigDecimal(
@@ -22,10 +37,66 @@ public class MassConverter {
 	public static final BigDecimal MILLIGRAMS_IN_A_TONNE = new BigDecimal(
 			"1000000000");
 
+	/*
+	 * The units toString writes, largest first.
+	 */
+	private static final QuantityFormat FORMAT = new QuantityFormat(
+			new BigDecimal[] { MILLIGRAMS_IN_A_TONNE, MILLIGRAMS_IN_A_KILOGRAM,
+					MILLIGRAMS_IN_A_GRAM, BigDecimal.ONE },
+			new String[] { " t", " Kg", " g", " mg" },
+			new int[] { 2, 2, 2, 2 });
+
+	/**
+	 * This enumeration contains all the units of mass, for converting
+	 * primitive values without creating a converter. The factors between them
+	 * come from the UnitRegistry.
+	 * 
+	 * @author Gunnar Hoffman
+	 * 
+	 */
+	public static enum Unit {
+		Milligram,
+		Gram,
+		Kilogram,
+		Tonne;
+
+		private final MeasurementUnit unit;
+
+		Unit() {
+			this.unit = UnitRegistry.of(Dimension.Mass).get(this.name());
+		}
+
+		public MeasurementUnit getMeasurementUnit() {
+			return this.unit;
+		}
+
+		public BigDecimal getMilligrams() {
+			return this.unit.getSize().toBigDecimal(ConversionContext.DEFAULT);
+		}
+
+		/**
+		 * Returns the number to multiply a value in this unit by to express it
+		 * in the target unit.
+		 */
+		public double factorTo(Unit target) {
+			return this.unit.factorTo(target.unit);
+		}
+
+		/**
+		 * Returns the exact fraction to multiply a value in this unit by to
+		 * express it in the target unit.
+		 */
+		public Rational ratioTo(Unit target) {
+			return this.unit.ratioTo(target.unit);
+		}
+	}
+
 	// Instance fields.
 
 	private BigDecimal milligrams;
 
+	private ConversionContext context = ConversionContext.DEFAULT;
+
 	// Constructor.
 
 	public MassConverter(BigDecimal milligrams) {
@@ -42,6 +113,34 @@ public class MassConverter {
 		return this;
 	}
 
+	/**
+	 * Binds the context used to round the results of the output methods that
+	 * are not given one explicitly.
+	 * 
+	 * @param context
+	 *            The context to round with.
+	 * @return This instance.
+	 */
+	public final MassConverter setContext(ConversionContext context) {
+		if (context == null) {
+			throw new InvalidParameterException("a context is required!");
+		}
+		this.context = context;
+		return this;
+	}
+
+	public final ConversionContext getContext() {
+		return this.context;
+	}
+
+	/*
+	 * Counts a conversion of a single value for ConversionMetrics.
+	 */
+	private static void count(Unit from, Unit to) {
+		ConversionMetrics.count(from.getMeasurementUnit(),
+				to.getMeasurementUnit());
+	}
+
 	// Initialize with metric mass units.
 
 	public static MassConverter fromMilligrams(double milligrams) {
@@ -58,6 +157,7 @@ public class MassConverter {
 	}
 
 	public static MassConverter fromGrams(BigDecimal grams) {
+		MassConverter.count(Unit.Gram, Unit.Milligram);
 		return new MassConverter(grams.multiply(MILLIGRAMS_IN_A_GRAM));
 	}
 
@@ -67,6 +167,7 @@ public class MassConverter {
 	}
 
 	public static MassConverter fromKilograms(BigDecimal kilograms) {
+		MassConverter.count(Unit.Kilogram, Unit.Milligram);
 		return new MassConverter(kilograms.multiply(MILLIGRAMS_IN_A_KILOGRAM));
 	}
 
@@ -76,6 +177,7 @@ public class MassConverter {
 	}
 
 	public static MassConverter fromTonnes(BigDecimal tonnes) {
+		MassConverter.count(Unit.Tonne, Unit.Milligram);
 		return new MassConverter(tonnes.multiply(MILLIGRAMS_IN_A_TONNE));
 	}
 
@@ -86,36 +188,96 @@ public class MassConverter {
 	}
 
 	public BigDecimal toGrams() {
-		return this.milligrams.divide(MILLIGRAMS_IN_A_GRAM, DEFAULT_SCALE,
-				DEFAULT_ROUNDING_MODE);
+		return this.toGrams(this.context);
+	}
+
+	public BigDecimal toGrams(ConversionContext context) {
+		MassConverter.count(Unit.Milligram, Unit.Gram);
+		return context.divide(this.milligrams, MILLIGRAMS_IN_A_GRAM);
 	}
 
 	public BigDecimal toKilograms() {
-		return this.milligrams.divide(MILLIGRAMS_IN_A_KILOGRAM, DEFAULT_SCALE,
-				DEFAULT_ROUNDING_MODE);
+		return this.toKilograms(this.context);
+	}
+
+	public BigDecimal toKilograms(ConversionContext context) {
+		MassConverter.count(Unit.Milligram, Unit.Kilogram);
+		return context.divide(this.milligrams, MILLIGRAMS_IN_A_KILOGRAM);
 	}
 
 	public BigDecimal toTonnes() {
-		return this.milligrams.divide(MILLIGRAMS_IN_A_TONNE, DEFAULT_SCALE,
-				DEFAULT_ROUNDING_MODE);
+		return this.toTonnes(this.context);
 	}
 
-	// Output as a String.
+	public BigDecimal toTonnes(ConversionContext context) {
+		MassConverter.count(Unit.Milligram, Unit.Tonne);
+		return context.divide(this.milligrams, MILLIGRAMS_IN_A_TONNE);
+	}
 
-	@Override
-	public String toString() {
+	// Bulk conversion.
 
-		if (this.milligrams.compareTo(MILLIGRAMS_IN_A_TONNE) >= 0) {
-			return String.format("%.2f t", this.toTonnes().doubleValue());
+	/**
+	 * Converts the remaining values of the source buffer into the destination
+	 * buffer in place, advancing both positions past them. Direct buffers are
+	 * read and written where they are, without a copy onto the heap.
+	 * 
+	 * @param from
+	 *            The unit the source values are in.
+	 * @param source
+	 *            The values to convert.
+	 * @param to
+	 *            The unit to write the converted values in.
+	 * @param destination
+	 *            The buffer to write the converted values to, which may be
+	 *            the source itself.
+	 */
+	public static void convert(Unit from, DoubleBuffer source, Unit to,
+			DoubleBuffer destination) {
+		final int count = source.remaining();
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, destination, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), count, start);
+	}
 
-		} else if (this.milligrams.compareTo(MILLIGRAMS_IN_A_KILOGRAM) >= 0) {
-			return String.format("%.2f Kg", this.toKilograms().doubleValue());
+	/**
+	 * Converts whole values from the source buffer into the destination
+	 * buffer. This behaves exactly like the DoubleBuffer variant of this
+	 * method.
+	 */
+	public static void convert(Unit from, LongBuffer source, Unit to,
+			DoubleBuffer destination) {
+		final int count = source.remaining();
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, destination, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), count, start);
+	}
 
-		} else if (this.milligrams.compareTo(MILLIGRAMS_IN_A_GRAM) >= 0) {
-			return String.format("%.2f g", this.toGrams().doubleValue());
+	// Output as a String.
 
-		} else {
-			return String.format("%.2f mg", this.toMilligrams().doubleValue());
+	/**
+	 * Writes this mass the way toString does, without String.format or any
+	 * intermediate BigDecimal or String.
+	 * 
+	 * In the event the Appendable fails a runtime exception of the type
+	 * UncheckedIOException will be thrown.
+	 * 
+	 * @param out
+	 *            Where to write, usually a StringBuilder.
+	 * @return The same Appendable.
+	 */
+	public <A extends Appendable> A formatTo(A out) {
+		try {
+			FORMAT.formatTo(this.milligrams, out);
+			return out;
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
 		}
 	}
+
+	@Override
+	public String toString() {
+		return this.formatTo(new StringBuilder(24)).toString();
+	}
 }
@@ -0,0 +1,115 @@
+package com.gunnarhoffman.converters;
+
+import java.security.InvalidParameterException;
+
+/**
+ * <p>
+ * A unit held by a UnitRegistry, such as the Kilobyte or the Mile. Each unit
+ * knows its size in the base unit of its dimension and its index among the
+ * units of that dimension, which is what makes looking up the factor to any
+ * other unit a single array access.
+ * </p>
+ *
+ * <p>
+ * Units are created by the registries only, so there is exactly one instance
+ * of each and they can be compared with ==.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class MeasurementUnit {
+
+	// Instance fields
+
+	private final UnitRegistry registry;
+	private final int index;
+	private final String name;
+	private final String plural;
+	private final String symbol;
+	private final Rational size;
+
+	// Constructor
+
+	MeasurementUnit(UnitRegistry registry, int index, String name,
+			String plural, String symbol, Rational size) {
+		this.registry = registry;
+		this.index = index;
+		this.name = name;
+		this.plural = plural;
+		this.symbol = symbol;
+		this.size = size;
+	}
+
+	// Getters
+
+	public Dimension getDimension() {
+		return this.registry.getDimension();
+	}
+
+	/**
+	 * The position of this unit among the units of its dimension.
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public String getPlural() {
+		return this.plural;
+	}
+
+	public String getSymbol() {
+		return this.symbol;
+	}
+
+	/**
+	 * The exact number of base units in one of this unit.
+	 */
+	public Rational getSize() {
+		return this.size;
+	}
+
+	// Factors
+
+	/**
+	 * Returns the number to multiply a value in this unit by to express it
+	 * in the target unit.
+	 *
+	 * In the event the target is of another dimension a runtime exception of
+	 * the type InvalidParameterException will be thrown.
+	 */
+	public double factorTo(MeasurementUnit target) {
+		return this.registry.factor(this.index, this.checkDimension(target));
+	}
+
+	/**
+	 * Returns the exact fraction to multiply a value in this unit by to
+	 * express it in the target unit.
+	 *
+	 * In the event the target is of another dimension a runtime exception of
+	 * the type InvalidParameterException will be thrown.
+	 */
+	public Rational ratioTo(MeasurementUnit target) {
+		return this.registry.ratio(this.index, this.checkDimension(target));
+	}
+
+	private int checkDimension(MeasurementUnit target) {
+		if (target.registry != this.registry) {
+			throw new InvalidParameterException("cannot convert "
+					+ this.getDimension() + " to " + target.getDimension()
+					+ "!");
+		}
+		return target.index;
+	}
+
+	// Object
+
+	@Override
+	public String toString() {
+		return this.name;
+	}
+}
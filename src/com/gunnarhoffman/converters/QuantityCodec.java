@@ -0,0 +1,294 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.InvalidParameterException;
+
+import com.gunnarhoffman.converters.concrete.distance.ImperialDistanceConverter;
+import com.gunnarhoffman.converters.concrete.distance.MetricDistanceConverter;
+import com.gunnarhoffman.converters.concrete.speed.ImperialSpeedConverter;
+import com.gunnarhoffman.converters.concrete.speed.MetricSpeedConverter;
+
+/**
+ * <p>
+ * Writes the values of converters to ByteBuffers in a compact binary form and
+ * reads them back, for network payloads and records on disk. Values are
+ * written exactly, so a value read back converts exactly as the one written.
+ * Only the value is written, not the context bound to the converter.
+ * </p>
+ *
+ * <p>
+ * A value is a tag byte naming the converter and the unit it holds its value
+ * in, followed by one or more decimals. A decimal is a header holding its
+ * scale, zig-zag encoded, and a flag, then its unscaled value: as a zig-zag
+ * varint if it fits in a long, otherwise as a varint length followed by its
+ * bytes. Varints take 7 bits a byte, least significant first, so a size of
+ * 6000 Megabytes takes 7 bytes in all, where its number of bytes alone takes
+ * 10 characters as a String.
+ * </p>
+ *
+ * <p>
+ * Values are read and written at the position of the buffer, which is
+ * advanced past them. Should the buffer run out a BufferOverflowException or
+ * BufferUnderflowException will be thrown, should it hold something other
+ * than the value asked for a runtime exception of the type
+ * InvalidParameterException.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class QuantityCodec {
+
+	// Constants
+
+	private static final byte BYTES = 1;
+	private static final byte MICROSECONDS = 2;
+	private static final byte MILLIGRAMS = 3;
+	private static final byte MICROMETERS = 4;
+	private static final byte INCHES = 5;
+	private static final byte METERS_PER_SECOND = 6;
+	private static final byte FEET_PER_SECOND = 7;
+	private static final byte KELVIN = 8;
+	private static final byte CELSIUS = 9;
+	private static final byte FAHRENHEIT = 10;
+
+	/*
+	 * The most bytes a varint of a long takes.
+	 */
+	private static final int LONGEST_VARINT = 10;
+
+	private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1000L,
+			10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L };
+
+	// Constructor
+
+	private QuantityCodec() {
+	}
+
+	// Writers
+
+	/**
+	 * Writes a size. Sizes held as fixed point numbers, which is nearly all
+	 * of them, are written without creating any objects.
+	 *
+	 * In the event the size is negative a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public static void write(ByteBuffer out, ByteConverter value) {
+		out.put(BYTES);
+		if (value.isFixedPoint()) {
+			try {
+				QuantityCodec.writeDecimal(out, Math.addExact(Math
+						.multiplyExact(value.fixedWholeBytes(),
+								ByteConverter.NANOBYTES_IN_A_BYTE), value
+						.fixedNanobytes()), ByteConverter.FRACTION_DIGITS);
+				return;
+			} catch (ArithmeticException overflow) {
+				// Fall through to the exact path.
+			}
+		}
+		QuantityCodec.writeDecimal(out, value.exactBytes());
+	}
+
+	public static void write(ByteBuffer out, TimeConverter value) {
+		out.put(MICROSECONDS);
+		QuantityCodec.writeDecimal(out, value.getTime());
+	}
+
+	public static void write(ByteBuffer out, MassConverter value) {
+		out.put(MILLIGRAMS);
+		QuantityCodec.writeDecimal(out, value.toMilligrams());
+	}
+
+	public static void write(ByteBuffer out, DistanceConverter value) {
+		out.put(value instanceof ImperialDistanceConverter ? INCHES
+				: MICROMETERS);
+		QuantityCodec.writeDecimal(out, value.getUnit());
+	}
+
+	/**
+	 * Writes a speed as the amount it was created with and the exact factor
+	 * from that amount into its base units per second.
+	 */
+	public static void write(ByteBuffer out, SpeedConverter value) {
+		out.put(value instanceof ImperialSpeedConverter ? FEET_PER_SECOND
+				: METERS_PER_SECOND);
+		QuantityCodec.writeDecimal(out, value.getAmount());
+		QuantityCodec.writeDecimal(out, new BigDecimal(value.getFactor()
+				.getNumerator()));
+		QuantityCodec.writeDecimal(out, new BigDecimal(value.getFactor()
+				.getDenominator()));
+	}
+
+	public static void write(ByteBuffer out, TemperatureConverter value) {
+		switch (value.getUnit()) {
+		case Kelvin:
+			out.put(KELVIN);
+			break;
+		case Celsius:
+			out.put(CELSIUS);
+			break;
+		default:
+			out.put(FAHRENHEIT);
+		}
+		QuantityCodec.writeDecimal(out, value.getDegrees());
+	}
+
+	// Readers
+
+	public static ByteConverter readByteConverter(ByteBuffer in) {
+		QuantityCodec.expect(in, BYTES, BYTES);
+		final long header = QuantityCodec.readVarint(in);
+		final int scale = QuantityCodec.scaleOf(header);
+		if ((header & 1) == 0 && scale >= 0
+				&& scale <= ByteConverter.FRACTION_DIGITS) {
+			final long unscaled = QuantityCodec.unzigzag(QuantityCodec
+					.readVarint(in));
+			return ByteConverter.fromFixedBytes(
+					Math.floorDiv(unscaled, POWERS_OF_TEN[scale]),
+					Math.floorMod(unscaled, POWERS_OF_TEN[scale])
+							* POWERS_OF_TEN[ByteConverter.FRACTION_DIGITS
+									- scale]);
+		}
+		return ByteConverter.fromBytes(QuantityCodec.readUnscaled(in, header));
+	}
+
+	public static TimeConverter readTimeConverter(ByteBuffer in) {
+		QuantityCodec.expect(in, MICROSECONDS, MICROSECONDS);
+		return new TimeConverter(QuantityCodec.readDecimal(in));
+	}
+
+	public static MassConverter readMassConverter(ByteBuffer in) {
+		QuantityCodec.expect(in, MILLIGRAMS, MILLIGRAMS);
+		return new MassConverter(QuantityCodec.readDecimal(in));
+	}
+
+	public static DistanceConverter readDistanceConverter(ByteBuffer in) {
+		if (QuantityCodec.expect(in, MICROMETERS, INCHES) == INCHES) {
+			return new ImperialDistanceConverter(QuantityCodec.readDecimal(in));
+		}
+		return new MetricDistanceConverter(QuantityCodec.readDecimal(in));
+	}
+
+	public static SpeedConverter readSpeedConverter(ByteBuffer in) {
+		final byte tag = QuantityCodec.expect(in, METERS_PER_SECOND,
+				FEET_PER_SECOND);
+		final BigDecimal amount = QuantityCodec.readDecimal(in);
+		final Rational factor = Rational.valueOf(
+				QuantityCodec.readDecimal(in)).divide(
+				Rational.valueOf(QuantityCodec.readDecimal(in)));
+		if (tag == FEET_PER_SECOND) {
+			return new ImperialSpeedConverter(amount, factor);
+		}
+		return new MetricSpeedConverter(amount, factor);
+	}
+
+	public static TemperatureConverter readTemperatureConverter(ByteBuffer in) {
+		final byte tag = QuantityCodec.expect(in, KELVIN, FAHRENHEIT);
+		final BigDecimal degrees = QuantityCodec.readDecimal(in);
+		if (tag == KELVIN) {
+			return TemperatureConverter.fromKelvin(degrees);
+		}
+		if (tag == CELSIUS) {
+			return TemperatureConverter.fromCelsius(degrees);
+		}
+		return TemperatureConverter.fromFahrenheit(degrees);
+	}
+
+	private static byte expect(ByteBuffer in, byte first, byte last) {
+		final byte tag = in.get();
+		if (tag < first || tag > last) {
+			throw new InvalidParameterException("unexpected tag " + tag + "!");
+		}
+		return tag;
+	}
+
+	// Decimals
+
+	/*
+	 * Trailing zeros are dropped from the unscaled value, so whole sizes held
+	 * in billionths of a byte do not take 4 bytes more than they need.
+	 */
+	private static void writeDecimal(ByteBuffer out, long unscaled, int scale) {
+		while (scale > 0 && unscaled % 10 == 0) {
+			unscaled /= 10;
+			scale--;
+		}
+		QuantityCodec.writeVarint(out, QuantityCodec.zigzag(scale) << 1);
+		QuantityCodec.writeVarint(out, QuantityCodec.zigzag(unscaled));
+	}
+
+	private static void writeDecimal(ByteBuffer out, BigDecimal value) {
+		final BigInteger unscaled = value.unscaledValue();
+		if (unscaled.bitLength() < Long.SIZE) {
+			QuantityCodec.writeDecimal(out, unscaled.longValue(),
+					value.scale());
+			return;
+		}
+		final byte[] bytes = unscaled.toByteArray();
+		QuantityCodec.writeVarint(out,
+				QuantityCodec.zigzag(value.scale()) << 1 | 1);
+		QuantityCodec.writeVarint(out, bytes.length);
+		out.put(bytes);
+	}
+
+	private static BigDecimal readDecimal(ByteBuffer in) {
+		return QuantityCodec.readUnscaled(in, QuantityCodec.readVarint(in));
+	}
+
+	private static BigDecimal readUnscaled(ByteBuffer in, long header) {
+		final int scale = QuantityCodec.scaleOf(header);
+		if ((header & 1) == 0) {
+			return BigDecimal.valueOf(
+					QuantityCodec.unzigzag(QuantityCodec.readVarint(in)),
+					scale);
+		}
+		final long length = QuantityCodec.readVarint(in);
+		if (length <= 0 || length > in.remaining()) {
+			throw new InvalidParameterException("malformed decimal!");
+		}
+		final byte[] bytes = new byte[(int) length];
+		in.get(bytes);
+		return new BigDecimal(new BigInteger(bytes), scale);
+	}
+
+	private static int scaleOf(long header) {
+		final long scale = QuantityCodec.unzigzag(header >>> 1);
+		if (scale != (int) scale) {
+			throw new InvalidParameterException("malformed decimal!");
+		}
+		return (int) scale;
+	}
+
+	// Varints
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarint(ByteBuffer out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.put((byte) (value & 0x7F | 0x80));
+			value >>>= 7;
+		}
+		out.put((byte) value);
+	}
+
+	private static long readVarint(ByteBuffer in) {
+		long value = 0;
+		for (int i = 0; i < LONGEST_VARINT; i++) {
+			final byte b = in.get();
+			value |= (long) (b & 0x7F) << (7 * i);
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new InvalidParameterException("malformed varint!");
+	}
+}
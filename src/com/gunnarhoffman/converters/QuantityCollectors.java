@@ -0,0 +1,288 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.util.DoubleSummaryStatistics;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * <p>
+ * Collectors that reduce streams of quantities, such as summing the sizes of
+ * a stream of requests into a ByteConverter:
+ * </p>
+ *
+ * <pre>
+ * ByteConverter total = requests.parallelStream().collect(
+ * 		QuantityCollectors.summingBytes(Request::getSize));
+ * </pre>
+ *
+ * <p>
+ * The summing collectors over converters are exact. Bytes are summed on the
+ * same fixed point longs ByteConverter holds them in, and only the result is
+ * a new converter, however many quantities are summed.
+ * </p>
+ *
+ * <p>
+ * The summing, averaging and summarizing collectors over plain numbers take
+ * the unit the numbers are in and the unit to express the result in. They
+ * accumulate doubles with compensated summation as DoubleSummaryStatistics
+ * does, and convert only the result, so no value is boxed and no converter is
+ * created per element.
+ * </p>
+ *
+ * <p>
+ * Every collector is unordered and has a combiner, so it can be used with
+ * parallel streams.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class QuantityCollectors {
+
+	// Constructor
+
+	private QuantityCollectors() {
+	}
+
+	// Exact sums of converters
+
+	public static Collector<ByteConverter, ?, ByteConverter> summingBytes() {
+		return Collector.of(ByteSum::new, ByteSum::add, ByteSum::combine,
+				ByteSum::toConverter, Collector.Characteristics.UNORDERED);
+	}
+
+	/**
+	 * Sums whole numbers of bytes, such as the sizes of files or transfers.
+	 * In the event the sum is negative a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public static <T> Collector<T, ?, ByteConverter> summingBytes(
+			ToLongFunction<? super T> bytes) {
+		return Collector.of(ByteSum::new,
+				(sum, element) -> sum.add(bytes.applyAsLong(element)),
+				ByteSum::combine, ByteSum::toConverter,
+				Collector.Characteristics.UNORDERED);
+	}
+
+	public static Collector<TimeConverter, ?, TimeConverter> summingTime() {
+		return QuantityCollectors.summingDecimals(
+				TimeConverter::getTime,
+				TimeConverter::fromMicroseconds);
+	}
+
+	public static Collector<MassConverter, ?, MassConverter> summingMass() {
+		return QuantityCollectors.summingDecimals(MassConverter::toMilligrams,
+				MassConverter::fromMilligrams);
+	}
+
+	/**
+	 * Sums distances of either kind into a metric distance. Every distance is
+	 * a whole number of micrometers from an inch, so the sum is exact.
+	 */
+	public static Collector<DistanceConverter, ?, DistanceConverter> summingDistance() {
+		return QuantityCollectors.summingDecimals(
+				distance -> distance.toMicrometers(),
+				DistanceConverter::fromMicrometers);
+	}
+
+	// Sums of numbers
+
+	public static <T> Collector<T, ?, Double> summing(
+			ToDoubleFunction<? super T> mapper, ByteConverter.Unit from,
+			ByteConverter.Unit to) {
+		return QuantityCollectors.summing(mapper, from.factorTo(to));
+	}
+
+	public static <T> Collector<T, ?, Double> summing(
+			ToDoubleFunction<? super T> mapper, TimeConverter.Unit from,
+			TimeConverter.Unit to) {
+		return QuantityCollectors.summing(mapper, from.factorTo(to));
+	}
+
+	public static <T> Collector<T, ?, Double> summing(
+			ToDoubleFunction<? super T> mapper, MassConverter.Unit from,
+			MassConverter.Unit to) {
+		return QuantityCollectors.summing(mapper, from.factorTo(to));
+	}
+
+	public static <T> Collector<T, ?, Double> summing(
+			ToDoubleFunction<? super T> mapper, DistanceConverter.Unit from,
+			DistanceConverter.Unit to) {
+		return QuantityCollectors.summing(mapper, from.factorTo(to));
+	}
+
+	// Averages of numbers
+
+	public static <T> Collector<T, ?, Double> averaging(
+			ToDoubleFunction<? super T> mapper, ByteConverter.Unit from,
+			ByteConverter.Unit to) {
+		return QuantityCollectors.averaging(mapper, from.factorTo(to));
+	}
+
+	public static <T> Collector<T, ?, Double> averaging(
+			ToDoubleFunction<? super T> mapper, TimeConverter.Unit from,
+			TimeConverter.Unit to) {
+		return QuantityCollectors.averaging(mapper, from.factorTo(to));
+	}
+
+	public static <T> Collector<T, ?, Double> averaging(
+			ToDoubleFunction<? super T> mapper, MassConverter.Unit from,
+			MassConverter.Unit to) {
+		return QuantityCollectors.averaging(mapper, from.factorTo(to));
+	}
+
+	public static <T> Collector<T, ?, Double> averaging(
+			ToDoubleFunction<? super T> mapper, DistanceConverter.Unit from,
+			DistanceConverter.Unit to) {
+		return QuantityCollectors.averaging(mapper, from.factorTo(to));
+	}
+
+	// Count, sum, minimum, maximum and average of numbers
+
+	public static <T> Collector<T, ?, QuantityStatistics> summarizing(
+			ToDoubleFunction<? super T> mapper, ByteConverter.Unit from,
+			ByteConverter.Unit to) {
+		return QuantityCollectors.summarizing(mapper, from.factorTo(to));
+	}
+
+	public static <T> Collector<T, ?, QuantityStatistics> summarizing(
+			ToDoubleFunction<? super T> mapper, TimeConverter.Unit from,
+			TimeConverter.Unit to) {
+		return QuantityCollectors.summarizing(mapper, from.factorTo(to));
+	}
+
+	public static <T> Collector<T, ?, QuantityStatistics> summarizing(
+			ToDoubleFunction<? super T> mapper, MassConverter.Unit from,
+			MassConverter.Unit to) {
+		return QuantityCollectors.summarizing(mapper, from.factorTo(to));
+	}
+
+	public static <T> Collector<T, ?, QuantityStatistics> summarizing(
+			ToDoubleFunction<? super T> mapper, DistanceConverter.Unit from,
+			DistanceConverter.Unit to) {
+		return QuantityCollectors.summarizing(mapper, from.factorTo(to));
+	}
+
+	// Helpers
+
+	private static <T> Collector<T, ?, Double> summing(
+			ToDoubleFunction<? super T> mapper, double factor) {
+		return QuantityCollectors.statistics(mapper,
+				statistics -> statistics.getSum() * factor);
+	}
+
+	private static <T> Collector<T, ?, Double> averaging(
+			ToDoubleFunction<? super T> mapper, double factor) {
+		return QuantityCollectors.statistics(mapper,
+				statistics -> statistics.getAverage() * factor);
+	}
+
+	private static <T> Collector<T, ?, QuantityStatistics> summarizing(
+			ToDoubleFunction<? super T> mapper, double factor) {
+		return QuantityCollectors.statistics(mapper,
+				statistics -> new QuantityStatistics(statistics, factor));
+	}
+
+	private static <T, R> Collector<T, ?, R> statistics(
+			ToDoubleFunction<? super T> mapper,
+			Function<DoubleSummaryStatistics, R> finisher) {
+		return Collector.of(DoubleSummaryStatistics::new,
+				(statistics, element) -> statistics.accept(mapper
+						.applyAsDouble(element)),
+				(left, right) -> {
+					left.combine(right);
+					return left;
+				}, finisher, Collector.Characteristics.UNORDERED);
+	}
+
+	/*
+	 * Sums exact quantities held in a one element array, so the accumulator
+	 * needs no class of its own.
+	 */
+	private static <T, R> Collector<T, ?, R> summingDecimals(
+			Function<? super T, BigDecimal> mapper,
+			Function<BigDecimal, R> finisher) {
+		return Collector.of(() -> new BigDecimal[] { BigDecimal.ZERO },
+				(sum, element) -> sum[0] = sum[0].add(mapper.apply(element)),
+				(left, right) -> {
+					left[0] = left[0].add(right[0]);
+					return left;
+				}, sum -> finisher.apply(sum[0]),
+				Collector.Characteristics.UNORDERED);
+	}
+
+	// Accumulators
+
+	/*
+	 * A byte sum held as ByteConverter holds it: whole bytes plus billionths
+	 * of a byte, falling back to an exact BigDecimal should that overflow.
+	 */
+	private static final class ByteSum {
+
+		private long wholeBytes;
+		private long nanobytes;
+		private BigDecimal bytes;
+
+		void add(ByteConverter converter) {
+			if (converter.isFixedPoint()) {
+				this.addFixed(converter.fixedWholeBytes(),
+						converter.fixedNanobytes());
+			} else {
+				this.addExact(converter.exactBytes());
+			}
+		}
+
+		void add(long bytes) {
+			this.addFixed(bytes, 0);
+		}
+
+		ByteSum combine(ByteSum other) {
+			if (other.bytes == null) {
+				this.addFixed(other.wholeBytes, other.nanobytes);
+			} else {
+				this.addExact(other.bytes);
+			}
+			return this;
+		}
+
+		ByteConverter toConverter() {
+			if (this.bytes == null) {
+				return ByteConverter.fromFixedBytes(this.wholeBytes,
+						this.nanobytes);
+			}
+			return ByteConverter.fromBytes(this.bytes);
+		}
+
+		private void addFixed(long whole, long nanos) {
+			if (this.bytes == null) {
+				try {
+					long sumNanos = this.nanobytes + nanos;
+					long sumWhole = Math.addExact(this.wholeBytes, whole);
+					if (sumNanos >= ByteConverter.NANOBYTES_IN_A_BYTE) {
+						sumNanos -= ByteConverter.NANOBYTES_IN_A_BYTE;
+						sumWhole = Math.addExact(sumWhole, 1);
+					}
+					this.wholeBytes = sumWhole;
+					this.nanobytes = sumNanos;
+					return;
+				} catch (ArithmeticException overflow) {
+					// Fall through to the exact path.
+				}
+			}
+			this.addExact(BigDecimal.valueOf(whole).add(
+					BigDecimal.valueOf(nanos, ByteConverter.FRACTION_DIGITS)));
+		}
+
+		private void addExact(BigDecimal bytes) {
+			if (this.bytes == null) {
+				this.bytes = BigDecimal.valueOf(this.wholeBytes).add(
+						BigDecimal.valueOf(this.nanobytes,
+								ByteConverter.FRACTION_DIGITS));
+			}
+			this.bytes = this.bytes.add(bytes);
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package com.gunnarhoffman.converters;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.security.InvalidParameterException;
+
+/**
+ * <p>
+ * Writes a quantity in the largest unit it holds at least one of, such as
+ * "1.50 Hours" or "3.20 Kg". This is what the toString and formatTo methods
+ * of the converters are built on.
+ * </p>
+ * 
+ * <p>
+ * The unit is picked by comparing doubles, only falling back to BigDecimal
+ * should the value round onto a unit boundary, and the number is written a
+ * digit at a time without String.format or an intermediate String. Numbers
+ * are rounded half up as String.format("%.2f") would, but always with a '.'
+ * whatever the default locale.
+ * </p>
+ * 
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+public final class QuantityFormat {
+
+	// Constants
+
+	private static final int MAXIMUM_DECIMALS = 15;
+
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15 };
+
+	/*
+	 * A bound on the relative error of a double that was computed rather than
+	 * given, such as a BigDecimal divided as doubles. Should rounding that
+	 * double come within this of a tie the exact value decides instead.
+	 */
+	static final double QUOTIENT_ERROR = 0x1p-50;
+	private static final double PRODUCT_ERROR = 0x1p-52;
+
+	/*
+	 * Beyond this a scaled value no longer has every digit exactly.
+	 */
+	private static final double LARGEST_EXACT_SCALED = 0x1p53;
+
+	// Instance fields
+
+	private final BigDecimal[] sizes;
+	private final double[] doubleSizes;
+	private final String[] suffixes;
+	private final int[] decimals;
+
+	// Constructor
+
+	/**
+	 * Creates a format over units given from largest to smallest. A value is
+	 * written in the first unit whose size it reaches, or in the last unit if
+	 * it reaches none.
+	 * 
+	 * @param sizes
+	 *            The size of each unit in the unit of the values formatted.
+	 * @param suffixes
+	 *            What to write after the number for each unit.
+	 * @param decimals
+	 *            The number of decimal places to write for each unit.
+	 */
+	public QuantityFormat(BigDecimal[] sizes, String[] suffixes, int[] decimals) {
+		if (sizes.length == 0 || sizes.length != suffixes.length
+				|| sizes.length != decimals.length) {
+			throw new InvalidParameterException(
+					"every unit needs a size, a suffix and decimals!");
+		}
+		this.sizes = sizes.clone();
+		this.suffixes = suffixes.clone();
+		this.decimals = decimals.clone();
+		this.doubleSizes = new double[sizes.length];
+		for (int unit = 0; unit < sizes.length; unit++) {
+			if (decimals[unit] < 0 || decimals[unit] > MAXIMUM_DECIMALS) {
+				throw new InvalidParameterException(
+						"decimals must be between 0 and " + MAXIMUM_DECIMALS
+								+ "!");
+			}
+			this.doubleSizes[unit] = sizes[unit].doubleValue();
+		}
+	}
+
+	// Output
+
+	/**
+	 * Writes the value in the largest unit it reaches.
+	 * 
+	 * @throws IOException
+	 *             Should the Appendable fail.
+	 */
+	public void formatTo(BigDecimal value, Appendable out) throws IOException {
+		double number = value.doubleValue();
+		int unit = this.unitOf(value, number);
+		if (!QuantityFormat.tryAppendFixed(out, number
+				/ this.doubleSizes[unit], this.decimals[unit], QUOTIENT_ERROR)) {
+			QuantityFormat.appendFixed(out, ConversionContext.DEFAULT.divide(
+					value, this.sizes[unit]).doubleValue(), this.decimals[unit]);
+		}
+		out.append(this.suffixes[unit]);
+	}
+
+	private int unitOf(BigDecimal value, double number) {
+		int last = this.sizes.length - 1;
+		for (int unit = 0; unit < last; unit++) {
+			double size = this.doubleSizes[unit];
+			if (number > size) {
+				return unit;
+			}
+			if (number == size && value.compareTo(this.sizes[unit]) >= 0) {
+				return unit;
+			}
+		}
+		return last;
+	}
+
+	/**
+	 * Writes the value with a fixed number of decimal places, rounding half
+	 * up.
+	 * 
+	 * @throws IOException
+	 *             Should the Appendable fail.
+	 */
+	public static void appendFixed(Appendable out, double value, int decimals)
+			throws IOException {
+		if (!QuantityFormat.tryAppendFixed(out, value, decimals, 0)) {
+			// String.format rounds the shortest decimal form of the double.
+			out.append(new BigDecimal(Double.toString(value)).setScale(
+					decimals, RoundingMode.HALF_UP).toPlainString());
+		}
+	}
+
+	/*
+	 * Writes the value with primitive arithmetic alone, unless it is too large
+	 * for that or too close to a tie to round reliably, in which case nothing
+	 * is written and false is returned.
+	 */
+	static boolean tryAppendFixed(Appendable out, double value, int decimals,
+			double relativeError) throws IOException {
+
+		double scaled = Math.abs(value) * POWERS_OF_TEN[decimals];
+		if (!(scaled < LARGEST_EXACT_SCALED)) {
+			// Infinite, NaN or too large to have every digit.
+			return false;
+		}
+
+		double whole = Math.floor(scaled);
+		double fraction = scaled - whole;
+		if (Math.abs(fraction - 0.5) <= scaled
+				* (relativeError + PRODUCT_ERROR)) {
+			return false;
+		}
+
+		long units = (long) whole;
+		if (fraction > 0.5) {
+			units++;
+		}
+		if (value < 0 || (value == 0 && 1 / value < 0)) {
+			out.append('-');
+		}
+
+		long unit = (long) POWERS_OF_TEN[decimals];
+		QuantityFormat.appendLong(out, units / unit, 1);
+		if (decimals > 0) {
+			out.append('.');
+			QuantityFormat.appendLong(out, units % unit, decimals);
+		}
+		return true;
+	}
+
+	/**
+	 * Writes a non negative long padded with leading zeros to at least the
+	 * given number of digits.
+	 * 
+	 * @throws IOException
+	 *             Should the Appendable fail.
+	 */
+	public static void appendLong(Appendable out, long value, int digits)
+			throws IOException {
+		long power = 1;
+		int length = 1;
+		while (length < 19 && power * 10 <= value) {
+			power *= 10;
+			length++;
+		}
+		for (; digits > length; digits--) {
+			out.append('0');
+		}
+		for (; power > 0; power /= 10) {
+			out.append((char) ('0' + value / power % 10));
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.gunnarhoffman.converters;
+
+import java.util.DoubleSummaryStatistics;
+
+/**
+ * <p>
+ * The count, sum, minimum, maximum and average of a number of quantities, all
+ * expressed in the unit they were summarized into. These are produced by the
+ * summarizing collectors of QuantityCollectors.
+ * </p>
+ *
+ * <p>
+ * As with DoubleSummaryStatistics the minimum is positive infinity, the
+ * maximum negative infinity and the average zero should no quantities have
+ * been summarized.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class QuantityStatistics {
+
+	// Instance fields
+
+	private final long count;
+	private final double sum;
+	private final double min;
+	private final double max;
+
+	// Constructor
+
+	/*
+	 * Scales statistics gathered in one unit into another. The factors of the
+	 * converters are never negative, so the minimum stays the minimum.
+	 */
+	QuantityStatistics(DoubleSummaryStatistics statistics, double factor) {
+		this.count = statistics.getCount();
+		this.sum = statistics.getSum() * factor;
+		this.min = statistics.getMin() * factor;
+		this.max = statistics.getMax() * factor;
+	}
+
+	// Getters
+
+	public long getCount() {
+		return this.count;
+	}
+
+	public double getSum() {
+		return this.sum;
+	}
+
+	public double getMin() {
+		return this.min;
+	}
+
+	public double getMax() {
+		return this.max;
+	}
+
+	public double getAverage() {
+		return this.count > 0 ? this.sum / this.count : 0;
+	}
+
+	// Object
+
+	@Override
+	public String toString() {
+		return String.format(
+				"QuantityStatistics{count=%d, sum=%f, min=%f, average=%f, max=%f}",
+				this.count, this.sum, this.min, this.getAverage(), this.max);
+	}
+}
@@ -0,0 +1,365 @@
+package com.gunnarhoffman.converters;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.security.InvalidParameterException;
+
+/**
+ * <p>
+ * An exact fraction used to hold conversion factors such as the 5280 feet in
+ * a mile or the 1/25400 inches in a micrometer. Factors can be chained with
+ * multiply and divide without any loss and are only rounded once, when they
+ * are applied to a value through applyTo.
+ * </p>
+ *
+ * <p>
+ * The numerator and denominator are held as longs and always reduced by their
+ * greatest common divisor. Should a product no longer fit in a long the
+ * fraction falls back to BigInteger, so chaining never overflows.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class Rational {
+
+	// Constants
+
+	public static final Rational ZERO = new Rational(0, 1);
+	public static final Rational ONE = new Rational(1, 1);
+
+	// Instance fields
+
+	private final long numerator;
+	private final long denominator;
+
+	/*
+	 * Only set when the reduced fraction does not fit in longs, in which case
+	 * the long fields are unused.
+	 */
+	private final BigInteger bigNumerator;
+	private final BigInteger bigDenominator;
+
+	/*
+	 * The exact decimal value of this fraction when the denominator is of the
+	 * form 2^a * 5^b, otherwise null. Applying such a factor is a
+	 * multiplication rather than a division.
+	 */
+	private final BigDecimal decimal;
+
+	// Constructors
+
+	private Rational(long numerator, long denominator) {
+		this.numerator = numerator;
+		this.denominator = denominator;
+		this.bigNumerator = null;
+		this.bigDenominator = null;
+		this.decimal = Rational.terminatingDecimal(
+				BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+	}
+
+	private Rational(BigInteger numerator, BigInteger denominator) {
+		this.numerator = 0;
+		this.denominator = 0;
+		this.bigNumerator = numerator;
+		this.bigDenominator = denominator;
+		this.decimal = Rational.terminatingDecimal(numerator, denominator);
+	}
+
+	// Initializers
+
+	/**
+	 * Creates the fraction numerator / denominator in its lowest terms.
+	 *
+	 * In the event the denominator is zero a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public static Rational of(long numerator, long denominator) {
+		if (denominator == 0) {
+			throw new InvalidParameterException(
+					"a denominator of zero makes no sense!");
+		}
+		if (numerator == 0) {
+			return Rational.ZERO;
+		}
+		if (denominator == Long.MIN_VALUE || numerator == Long.MIN_VALUE) {
+			return Rational.reduce(BigInteger.valueOf(numerator),
+					BigInteger.valueOf(denominator));
+		}
+		if (denominator < 0) {
+			numerator = -numerator;
+			denominator = -denominator;
+		}
+		long gcd = Rational.gcd(Math.abs(numerator), denominator);
+		return Rational.valueOf(numerator / gcd, denominator / gcd);
+	}
+
+	public static Rational valueOf(long value) {
+		return Rational.valueOf(value, 1);
+	}
+
+	/**
+	 * Creates a fraction holding exactly the given decimal, so "3.28084"
+	 * becomes 82021/25000.
+	 */
+	public static Rational valueOf(BigDecimal value) {
+		if (value.scale() <= 0) {
+			return Rational.reduce(value.toBigIntegerExact(), BigInteger.ONE);
+		}
+		return Rational.reduce(value.unscaledValue(),
+				BigInteger.TEN.pow(value.scale()));
+	}
+
+	/*
+	 * Wraps an already reduced fraction, reusing the constants. A numerator
+	 * of Long.MIN_VALUE has no absolute value as a long, so it is kept as a
+	 * BigInteger.
+	 */
+	private static Rational valueOf(long numerator, long denominator) {
+		if (numerator == Long.MIN_VALUE) {
+			return new Rational(BigInteger.valueOf(numerator),
+					BigInteger.valueOf(denominator));
+		}
+		if (denominator == 1) {
+			if (numerator == 0) {
+				return Rational.ZERO;
+			}
+			if (numerator == 1) {
+				return Rational.ONE;
+			}
+		}
+		return new Rational(numerator, denominator);
+	}
+
+	private static Rational reduce(BigInteger numerator, BigInteger denominator) {
+		if (denominator.signum() == 0) {
+			throw new InvalidParameterException(
+					"a denominator of zero makes no sense!");
+		}
+		BigInteger gcd = numerator.gcd(denominator);
+		if (gcd.signum() != 0) {
+			numerator = numerator.divide(gcd);
+			denominator = denominator.divide(gcd);
+		}
+		if (denominator.signum() == -1) {
+			numerator = numerator.negate();
+			denominator = denominator.negate();
+		}
+		if (numerator.bitLength() < Long.SIZE
+				&& denominator.bitLength() < Long.SIZE) {
+			return Rational.valueOf(numerator.longValue(),
+					denominator.longValue());
+		}
+		return new Rational(numerator, denominator);
+	}
+
+	// Getters
+
+	public BigInteger getNumerator() {
+		return this.bigNumerator != null ? this.bigNumerator : BigInteger
+				.valueOf(this.numerator);
+	}
+
+	public BigInteger getDenominator() {
+		return this.bigDenominator != null ? this.bigDenominator : BigInteger
+				.valueOf(this.denominator);
+	}
+
+	public int signum() {
+		return this.bigNumerator != null ? this.bigNumerator.signum() : Long
+				.signum(this.numerator);
+	}
+
+	public boolean isInteger() {
+		return this.bigDenominator != null ? this.bigDenominator
+				.equals(BigInteger.ONE) : this.denominator == 1;
+	}
+
+	// Arithmetic
+
+	public Rational multiply(Rational other) {
+		if (this == Rational.ONE) {
+			return other;
+		}
+		if (other == Rational.ONE) {
+			return this;
+		}
+		if (this.signum() == 0 || other.signum() == 0) {
+			return Rational.ZERO;
+		}
+		if (this.bigNumerator == null && other.bigNumerator == null) {
+			// Cross reduce first so the result is already in lowest terms.
+			long first = Rational.gcd(Math.abs(this.numerator),
+					other.denominator);
+			long second = Rational.gcd(Math.abs(other.numerator),
+					this.denominator);
+			try {
+				return Rational.valueOf(Math.multiplyExact(this.numerator
+						/ first, other.numerator / second), Math.multiplyExact(
+						this.denominator / second, other.denominator / first));
+			} catch (ArithmeticException overflow) {
+				// Fall through to the exact path.
+			}
+		}
+		return Rational.reduce(this.getNumerator().multiply(
+				other.getNumerator()), this.getDenominator().multiply(
+				other.getDenominator()));
+	}
+
+	public Rational add(Rational other) {
+		if (this.signum() == 0) {
+			return other;
+		}
+		if (other.signum() == 0) {
+			return this;
+		}
+		return Rational.reduce(this.getNumerator().multiply(
+				other.getDenominator()).add(
+				other.getNumerator().multiply(this.getDenominator())), this
+				.getDenominator().multiply(other.getDenominator()));
+	}
+
+	public Rational subtract(Rational other) {
+		return this.add(other.negate());
+	}
+
+	public Rational negate() {
+		return Rational.reduce(this.getNumerator().negate(),
+				this.getDenominator());
+	}
+
+	/**
+	 * In the event the divisor is zero a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public Rational divide(Rational other) {
+		return this.multiply(other.reciprocal());
+	}
+
+	/**
+	 * In the event this fraction is zero a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public Rational reciprocal() {
+		if (this.bigNumerator == null) {
+			return Rational.of(this.denominator, this.numerator);
+		}
+		return Rational.reduce(this.bigDenominator, this.bigNumerator);
+	}
+
+	// Output
+
+	/**
+	 * Multiplies the value by this fraction, rounding the result once as
+	 * described by the context. Multiplying by a whole number is exact and is
+	 * never rounded. Should the context have a cache, any other result is
+	 * looked up in it first.
+	 */
+	public BigDecimal applyTo(BigDecimal value, ConversionContext context) {
+		if (this == Rational.ONE) {
+			return value;
+		}
+		if (this.isInteger()) {
+			return value.multiply(new BigDecimal(this.getNumerator()));
+		}
+		final ConversionCache cache = context.getCache();
+		if (cache != null) {
+			return cache.apply(this, value, context);
+		}
+		return this.applyUncached(value, context);
+	}
+
+	BigDecimal applyUncached(BigDecimal value, ConversionContext context) {
+		if (this.decimal != null) {
+			return context.round(value.multiply(this.decimal));
+		}
+		return context.divideUncached(value.multiply(new BigDecimal(this
+				.getNumerator())), new BigDecimal(this.getDenominator()));
+	}
+
+	public BigDecimal toBigDecimal(ConversionContext context) {
+		return this.applyTo(BigDecimal.ONE, context);
+	}
+
+	public double doubleValue() {
+		if (this.bigNumerator == null) {
+			return (double) this.numerator / this.denominator;
+		}
+		return new BigDecimal(this.bigNumerator).divide(
+				new BigDecimal(this.bigDenominator), MathContext.DECIMAL64)
+				.doubleValue();
+	}
+
+	// Helpers
+
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			long remainder = a % b;
+			a = b;
+			b = remainder;
+		}
+		return a;
+	}
+
+	/*
+	 * A fraction has a finite decimal expansion exactly when its reduced
+	 * denominator has no prime factors other than 2 and 5. In that case
+	 * n / (2^a * 5^b) = n * 2^(k-a) * 5^(k-b) / 10^k with k = max(a, b).
+	 */
+	private static BigDecimal terminatingDecimal(BigInteger numerator,
+			BigInteger denominator) {
+		int twos = denominator.getLowestSetBit();
+		BigInteger rest = denominator.shiftRight(twos);
+		int fives = 0;
+		BigInteger five = BigInteger.valueOf(5);
+		while (rest.bitLength() > 1) {
+			BigInteger[] quotient = rest.divideAndRemainder(five);
+			if (quotient[1].signum() != 0) {
+				return null;
+			}
+			rest = quotient[0];
+			fives++;
+		}
+		int digits = Math.max(twos, fives);
+		return new BigDecimal(numerator.shiftLeft(digits - twos).multiply(
+				five.pow(digits - fives)), digits);
+	}
+
+	// Object
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof Rational)) {
+			return false;
+		}
+		Rational rational = (Rational) other;
+		if (this.bigNumerator != null || rational.bigNumerator != null) {
+			return this.getNumerator().equals(rational.getNumerator())
+					&& this.getDenominator().equals(rational.getDenominator());
+		}
+		return this.numerator == rational.numerator
+				&& this.denominator == rational.denominator;
+	}
+
+	@Override
+	public int hashCode() {
+		return this.getNumerator().hashCode() * 31
+				+ this.getDenominator().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		if (this.isInteger()) {
+			return this.getNumerator().toString();
+		}
+		return this.getNumerator() + "/" + this.getDenominator();
+	}
+}
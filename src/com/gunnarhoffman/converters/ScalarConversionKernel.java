@@ -0,0 +1,50 @@
+package com.gunnarhoffman.converters;
+
+/**
+ * The plain loops BulkConversion falls back to, and which every other kernel
+ * must agree with. The JIT is free to unroll and vectorize these itself.
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+final class ScalarConversionKernel implements ConversionKernel {
+
+	static final ScalarConversionKernel INSTANCE = new ScalarConversionKernel();
+
+	private ScalarConversionKernel() {
+	}
+
+	@Override
+	public void multiply(double[] source, int sourceOffset,
+			double[] destination, int destinationOffset, int length,
+			double factor) {
+		for (int i = 0; i < length; i++) {
+			destination[destinationOffset + i] = source[sourceOffset + i]
+					* factor;
+		}
+	}
+
+	@Override
+	public void multiply(long[] source, int sourceOffset, double[] destination,
+			int destinationOffset, int length, double factor) {
+		for (int i = 0; i < length; i++) {
+			destination[destinationOffset + i] = source[sourceOffset + i]
+					* factor;
+		}
+	}
+
+	@Override
+	public void multiplyAdd(double[] source, int sourceOffset,
+			double[] destination, int destinationOffset, int length,
+			double factor, double addend) {
+		for (int i = 0; i < length; i++) {
+			destination[destinationOffset + i] = source[sourceOffset + i]
+					* factor + addend;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "scalar";
+	}
+}
@@ -3,69 +3,243 @@ package com.gunnarhoffman.converters;
 import java.math.BigDecimal;
 import java.security.InvalidParameterException;
 
+import com.gunnarhoffman.converters.concrete.distance.ImperialDistanceConverter;
 import com.gunnarhoffman.converters.concrete.speed.ImperialSpeedConverter;
 import com.gunnarhoffman.converters.concrete.speed.MetricSpeedConverter;
 
 /**
  * This class allows for the conversion of units of speed (distance over time).
- * Units may be feet, meters, or astronomical units.
+ * A speed may be given and output in any unit of DistanceConverter per any
+ * duration of TimeConverter, such as kilometers per 15 minutes, and the
+ * factors between them come from the UnitRegistry.
  * 
  * @author Gunnar Hoffman
  * 
  */
 public abstract class SpeedConverter {
 
-	public static int DEFAULT_SCALE = 100;
-	public static int DEFAULT_ROUNDING_MODE = BigDecimal.ROUND_HALF_UP;
+	/**
+	 * @deprecated Use ConversionContext.DEFAULT, or bind another context with
+	 *             setContext.
+	 */
+	@Deprecated
+	public static final int DEFAULT_SCALE = 100;
+
+	/**
+	 * @deprecated Use ConversionContext.DEFAULT, or bind another context with
+	 *             setContext.
+	 */
+	@Deprecated
+	public static final int DEFAULT_ROUNDING_MODE = BigDecimal.ROUND_HALF_UP;
 
+	/**
+	 * @deprecated Use DistanceConverter.Unit.Kilometer.ratioTo(Unit.Meter).
+	 */
+	@Deprecated
 	public static final BigDecimal METERS_IN_A_KILOMETER = new BigDecimal(
 			"1000");
+	/**
+	 * @deprecated Use DistanceConverter.Unit.Mile.ratioTo(Unit.Foot).
+	 */
+	@Deprecated
 	public static final BigDecimal FEET_IN_A_MILE = new BigDecimal("5280");
+	/**
+	 * @deprecated Use DistanceConverter.Unit.Meter.ratioTo(Unit.Foot), which
+	 *             is exact.
+	 */
+	@Deprecated
 	public static final BigDecimal FEET_IN_A_METER = new BigDecimal("3.28084");
 
+	/**
+	 * @deprecated Use DistanceConverter.Unit.AstronomicalUnit.ratioTo(Unit.Meter).
+	 */
+	@Deprecated
 	public static final BigDecimal METERS_IN_AN_ASTRONOMICAL_UNIT = new BigDecimal(
 			"149597870700");
+	/**
+	 * @deprecated Use DistanceConverter.Unit.LightYear.ratioTo(Unit.Meter).
+	 */
+	@Deprecated
 	public static final BigDecimal METERS_IN_A_LIGHT_YEAR = new BigDecimal(
 			"9460528400000000");
+	/**
+	 * @deprecated Use DistanceConverter.Unit.Parsec.ratioTo(Unit.Meter).
+	 */
+	@Deprecated
 	public static final BigDecimal METERS_IN_A_PARSEC = new BigDecimal(
 			"30856775800000000");
 
+	/**
+	 * @deprecated Use DistanceConverter.Unit.AstronomicalUnit.ratioTo(Unit.Foot).
+	 */
+	@Deprecated
 	public static final BigDecimal FEET_IN_AN_ASTRONOMICAL_UNIT = new BigDecimal(
 			"490806662000");
+	/**
+	 * @deprecated Use DistanceConverter.Unit.LightYear.ratioTo(Unit.Foot).
+	 */
+	@Deprecated
 	public static final BigDecimal FEET_IN_A_LIGHT_YEAR = new BigDecimal(
 			"31038479000000000");
+	/**
+	 * @deprecated Use DistanceConverter.Unit.Parsec.ratioTo(Unit.Foot).
+	 */
+	@Deprecated
 	public static final BigDecimal FEET_IN_A_PARSEC = new BigDecimal(
 			"101236141000000000");
 
 	/**
-	 * This enumeration contains all the time increments we can convert between.
+	 * This enumeration contains the time increments of the toXPer and
+	 * fromXPer methods. Each is one unit of TimeConverter, so a Year is
+	 * 365.242 days.
 	 * 
 	 * @author Gunnar Hoffman
 	 * 
 	 */
 	public static enum TimeIncrement {
-		Second(1), Minute(60), Hour(3600), Day(86400), Week(604800), Year(
-				31560000);
+		Second(TimeConverter.Unit.Second),
+		Minute(TimeConverter.Unit.Minute),
+		Hour(TimeConverter.Unit.Hour),
+		Day(TimeConverter.Unit.Day),
+		Week(TimeConverter.Unit.Week),
+		Year(TimeConverter.Unit.Year);
 
-		private BigDecimal seconds;
+		private final TimeConverter.Unit unit;
 
-		TimeIncrement(int seconds) {
-			this.seconds = new BigDecimal(Integer.toString(seconds));
+		TimeIncrement(TimeConverter.Unit unit) {
+			this.unit = unit;
+		}
+
+		public TimeConverter.Unit getUnit() {
+			return this.unit;
 		}
 
 		public BigDecimal getSeconds() {
-			return this.seconds;
+			return this.unit.ratioTo(TimeConverter.Unit.Second).toBigDecimal(
+					ConversionContext.DECIMAL128);
+		}
+	}
+
+	/*
+	 * Speeds are held relative to the base of their system: meters per second
+	 * for metric and astronomical units, feet per second for imperial ones.
+	 * For every distance and time unit pair, indexed by SpeedConverter.index,
+	 * the following hold the exact factor from one of that distance per one
+	 * of that time into its system's base, and from each base back out into
+	 * it. These are worked out once here, from the UnitRegistry.
+	 */
+	private static final int TIMES = TimeConverter.Unit.values().length;
+	private static final int PAIRS = DistanceConverter.Unit.values().length
+			* TIMES;
+
+	private static final Rational[] TO_SYSTEM_BASE = new Rational[PAIRS];
+	private static final Rational[] FROM_METERS_PER_SECOND = new Rational[PAIRS];
+	private static final Rational[] FROM_FEET_PER_SECOND = new Rational[PAIRS];
+
+	/*
+	 * The combined factors from one pair straight into another, for speeds
+	 * created in a distance per time unit. There are too many to work out
+	 * up front, so each row is created, and each factor worked out, on first
+	 * use. Rationals are immutable, so threads filling a row at once at worst
+	 * work out the same factor twice.
+	 */
+	private static final Rational[][] BETWEEN_PAIRS = new Rational[PAIRS][];
+
+	static {
+		for (DistanceConverter.Unit distance : DistanceConverter.Unit.values()) {
+			for (TimeConverter.Unit time : TimeConverter.Unit.values()) {
+				Rational perSecond = TimeConverter.Unit.Second.ratioTo(time);
+				int pair = SpeedConverter.index(distance, time);
+				TO_SYSTEM_BASE[pair] = distance.ratioTo(
+						SpeedConverter.systemBase(distance)).multiply(perSecond);
+				FROM_METERS_PER_SECOND[pair] = DistanceConverter.Unit.Meter
+						.ratioTo(distance).divide(perSecond);
+				FROM_FEET_PER_SECOND[pair] = DistanceConverter.Unit.Foot
+						.ratioTo(distance).divide(perSecond);
+			}
+		}
+	}
+
+	private static int index(DistanceConverter.Unit distance,
+			TimeConverter.Unit time) {
+		return distance.ordinal() * TIMES + time.ordinal();
+	}
+
+	private static DistanceConverter.Unit systemBase(
+			DistanceConverter.Unit distance) {
+		switch (distance) {
+		case Inch:
+		case Foot:
+		case Yard:
+		case Mile:
+			return DistanceConverter.Unit.Foot;
+		default:
+			return DistanceConverter.Unit.Meter;
 		}
 	}
 
-	public SpeedConverter(BigDecimal unitsPerSecond) {
-		this.setUnit(unitsPerSecond);
+	/*
+	 * The speed is held as an amount and the exact factor that turns it into
+	 * base units per second, so creating one from another unit never rounds.
+	 * The factors from the amount into each pair are worked out on first use
+	 * and kept, so an output is a single multiplication by a cached factor.
+	 * Speeds held in base units share the table out of their base, and
+	 * speeds created in a pair share its row of BETWEEN_PAIRS.
+	 */
+	private BigDecimal amount;
+	private Rational toBase = Rational.ONE;
+	private final Rational[] fromBase;
+	private Rational[] factors;
+
+	private ConversionContext context = ConversionContext.DEFAULT;
+
+	/**
+	 * Creates a speed of unitsPerSecond base units per second.
+	 * 
+	 * @param base
+	 *            The unit of distance this speed is held in, either Meter or
+	 *            Foot.
+	 */
+	protected SpeedConverter(DistanceConverter.Unit base,
+			BigDecimal unitsPerSecond) {
+		this(base, unitsPerSecond, Rational.ONE);
 	}
 
-	private BigDecimal unit;
+	/**
+	 * Creates a speed of amount * toBase base units per second. The factor is
+	 * kept exactly so the speed is only rounded once it is output.
+	 * 
+	 * In the event the base is neither Meter nor Foot a runtime exception of
+	 * the type InvalidParameterException will be thrown.
+	 */
+	protected SpeedConverter(DistanceConverter.Unit base, BigDecimal amount,
+			Rational toBase) {
+		if (base == DistanceConverter.Unit.Meter) {
+			this.fromBase = FROM_METERS_PER_SECOND;
+		} else if (base == DistanceConverter.Unit.Foot) {
+			this.fromBase = FROM_FEET_PER_SECOND;
+		} else {
+			throw new InvalidParameterException(base
+					+ " is not the base of a system of units!");
+		}
+		this.setUnit(amount);
+		this.toBase = toBase;
+		this.factors = toBase == Rational.ONE ? this.fromBase : null;
+	}
 
 	public final BigDecimal getUnit() {
-		return this.unit;
+		return this.toBase.applyTo(this.amount, ConversionContext.DEFAULT);
+	}
+
+	/*
+	 * The exact representation of this speed, for QuantityCodec.
+	 */
+	final BigDecimal getAmount() {
+		return this.amount;
+	}
+
+	final Rational getFactor() {
+		return this.toBase;
 	}
 
 	/**
@@ -94,10 +268,153 @@ public abstract class SpeedConverter {
 			throw new InvalidParameterException(
 					"negative speed makes no sense!");
 		}
-		this.unit = unit;
+		this.amount = unit;
+		this.toBase = Rational.ONE;
+		this.factors = this.fromBase;
 		return this;
 	}
 
+	/**
+	 * Binds the context used to round the results of the output methods that
+	 * are not given one explicitly.
+	 * 
+	 * @param context
+	 *            The context to round with.
+	 * @return This instance.
+	 */
+	public final SpeedConverter setContext(ConversionContext context) {
+		if (context == null) {
+			throw new InvalidParameterException("a context is required!");
+		}
+		this.context = context;
+		return this;
+	}
+
+	public final ConversionContext getContext() {
+		return this.context;
+	}
+
+	// Static initializers for any units
+
+	public static SpeedConverter from(double amount,
+			DistanceConverter.Unit distance, TimeConverter.Unit time) {
+		return SpeedConverter.from(new BigDecimal(Double.toString(amount)),
+				distance, time);
+	}
+
+	/**
+	 * Creates a speed of amount distance units per time unit, such as 88.5
+	 * Kilometers per Hour.
+	 */
+	public static SpeedConverter from(BigDecimal amount,
+			DistanceConverter.Unit distance, TimeConverter.Unit time) {
+		final int pair = SpeedConverter.index(distance, time);
+		final SpeedConverter speed = SpeedConverter.create(amount, distance,
+				TO_SYSTEM_BASE[pair]);
+		Rational[] factors = BETWEEN_PAIRS[pair];
+		if (factors == null) {
+			factors = new Rational[PAIRS];
+			BETWEEN_PAIRS[pair] = factors;
+		}
+		speed.factors = factors;
+		return speed;
+	}
+
+	/**
+	 * Creates a speed of amount distance units per duration time units, such
+	 * as 20 Kilometers per 15 Minutes.
+	 * 
+	 * In the event the duration is not positive a runtime exception of the
+	 * type InvalidParameterException will be thrown.
+	 */
+	public static SpeedConverter from(BigDecimal amount,
+			DistanceConverter.Unit distance, BigDecimal duration,
+			TimeConverter.Unit time) {
+		return SpeedConverter.create(amount, distance,
+				TO_SYSTEM_BASE[SpeedConverter.index(distance, time)]
+						.divide(SpeedConverter.checkDuration(duration)));
+	}
+
+	/**
+	 * Creates the speed that covers the distance in the time.
+	 * 
+	 * In the event the time is zero a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public static SpeedConverter from(DistanceConverter distance,
+			TimeConverter time) {
+		if (distance instanceof ImperialDistanceConverter) {
+			return SpeedConverter.from(distance.getUnit(),
+					DistanceConverter.Unit.Inch, time.getTime(),
+					TimeConverter.Unit.Microsecond);
+		}
+		return SpeedConverter.from(distance.getUnit(),
+				DistanceConverter.Unit.Micrometer, time.getTime(),
+				TimeConverter.Unit.Microsecond);
+	}
+
+	private static SpeedConverter create(BigDecimal amount,
+			DistanceConverter.Unit distance, Rational toBase) {
+		if (SpeedConverter.systemBase(distance) == DistanceConverter.Unit.Foot) {
+			return new ImperialSpeedConverter(amount, toBase);
+		}
+		return new MetricSpeedConverter(amount, toBase);
+	}
+
+	private static Rational checkDuration(BigDecimal duration) {
+		if (duration.signum() != 1) {
+			throw new InvalidParameterException(
+					"a duration must be positive!");
+		}
+		return Rational.valueOf(duration);
+	}
+
+	// Output in any units
+
+	public BigDecimal to(DistanceConverter.Unit distance,
+			TimeConverter.Unit time) {
+		return this.to(distance, time, this.context);
+	}
+
+	/**
+	 * Returns this speed in distance units per time unit, rounded once as
+	 * described by the context.
+	 */
+	public BigDecimal to(DistanceConverter.Unit distance,
+			TimeConverter.Unit time, ConversionContext context) {
+		return this.factorTo(distance, time).applyTo(this.amount, context);
+	}
+
+	/**
+	 * Returns this speed in distance units per duration time units, such as
+	 * kilometers per 15 minutes, rounded once as described by the context.
+	 * 
+	 * In the event the duration is not positive a runtime exception of the
+	 * type InvalidParameterException will be thrown.
+	 */
+	public BigDecimal to(DistanceConverter.Unit distance, BigDecimal duration,
+			TimeConverter.Unit time, ConversionContext context) {
+		return this.factorTo(distance, time).multiply(
+				SpeedConverter.checkDuration(duration)).applyTo(this.amount,
+				context);
+	}
+
+	private Rational factorTo(DistanceConverter.Unit distance,
+			TimeConverter.Unit time) {
+		Rational[] factors = this.factors;
+		if (factors == null) {
+			factors = new Rational[PAIRS];
+			this.factors = factors;
+		}
+		final int pair = SpeedConverter.index(distance, time);
+		Rational factor = factors[pair];
+		if (factor == null) {
+			factor = this.toBase.multiply(this.fromBase[pair]);
+			factors[pair] = factor;
+		}
+		return factor;
+	}
+
 	// Metric static initializers
 
 	public static SpeedConverter fromMetersPer(double meters,
@@ -109,8 +426,8 @@ public abstract class SpeedConverter {
 	public static SpeedConverter fromMetersPer(BigDecimal meters,
 			TimeIncrement increment) {
 
-		return new MetricSpeedConverter(meters.divide(increment.getSeconds(),
-				DEFAULT_SCALE, DEFAULT_ROUNDING_MODE));
+		return SpeedConverter.from(meters, DistanceConverter.Unit.Meter,
+				increment.getUnit());
 	}
 
 	public static SpeedConverter fromKilometersPer(double kilometers,
@@ -122,9 +439,8 @@ public abstract class SpeedConverter {
 	public static SpeedConverter fromKilometersPer(BigDecimal kilometers,
 			TimeIncrement increment) {
 
-		return new MetricSpeedConverter(kilometers.multiply(
-				SpeedConverter.METERS_IN_A_KILOMETER).divide(
-				increment.getSeconds(), DEFAULT_SCALE, DEFAULT_ROUNDING_MODE));
+		return SpeedConverter.from(kilometers,
+				DistanceConverter.Unit.Kilometer, increment.getUnit());
 	}
 
 	// Imperial static initializers
@@ -137,8 +453,8 @@ public abstract class SpeedConverter {
 	public static SpeedConverter fromFeetPer(BigDecimal feet,
 			TimeIncrement increment) {
 
-		return new ImperialSpeedConverter(feet.divide(increment.getSeconds(),
-				DEFAULT_SCALE, DEFAULT_ROUNDING_MODE));
+		return SpeedConverter.from(feet, DistanceConverter.Unit.Foot,
+				increment.getUnit());
 	}
 
 	public static SpeedConverter fromMilesPer(double yards,
@@ -150,9 +466,8 @@ public abstract class SpeedConverter {
 	public static SpeedConverter fromMilesPer(BigDecimal yards,
 			TimeIncrement increment) {
 
-		return new ImperialSpeedConverter(yards.multiply(
-				SpeedConverter.FEET_IN_A_MILE).divide(increment.getSeconds(),
-				DEFAULT_SCALE, DEFAULT_ROUNDING_MODE));
+		return SpeedConverter.from(yards, DistanceConverter.Unit.Mile,
+				increment.getUnit());
 	}
 
 	// Astronomical static initializers
@@ -167,9 +482,8 @@ public abstract class SpeedConverter {
 	public static SpeedConverter fromAstronomicalUnitsPer(
 			BigDecimal astronomicalUnits, TimeIncrement increment) {
 
-		return new MetricSpeedConverter(astronomicalUnits.multiply(
-				SpeedConverter.METERS_IN_AN_ASTRONOMICAL_UNIT).divide(
-				increment.getSeconds(), DEFAULT_SCALE, DEFAULT_ROUNDING_MODE));
+		return SpeedConverter.from(astronomicalUnits,
+				DistanceConverter.Unit.AstronomicalUnit, increment.getUnit());
 	}
 
 	public static SpeedConverter fromLightYearsPer(double lightYears,
@@ -182,30 +496,77 @@ public abstract class SpeedConverter {
 	public static SpeedConverter fromLightYearsPer(BigDecimal lightYears,
 			TimeIncrement increment) {
 
-		return new MetricSpeedConverter(lightYears.multiply(
-				SpeedConverter.METERS_IN_A_LIGHT_YEAR).divide(
-				increment.getSeconds(), DEFAULT_SCALE, DEFAULT_ROUNDING_MODE));
+		return SpeedConverter.from(lightYears,
+				DistanceConverter.Unit.LightYear, increment.getUnit());
 	}
 
 	public static SpeedConverter fromParsecsPer(BigDecimal parsecs,
 			TimeIncrement increment) {
 
-		return new MetricSpeedConverter(parsecs.multiply(
-				SpeedConverter.METERS_IN_A_PARSEC).divide(
-				increment.getSeconds(), DEFAULT_SCALE, DEFAULT_ROUNDING_MODE));
+		return SpeedConverter.from(parsecs, DistanceConverter.Unit.Parsec,
+				increment.getUnit());
+	}
+
+	public BigDecimal toMetersPer(TimeIncrement increment) {
+		return this.toMetersPer(increment, this.context);
+	}
+
+	public BigDecimal toMetersPer(TimeIncrement increment,
+			ConversionContext context) {
+		return this.to(DistanceConverter.Unit.Meter, increment.getUnit(), context);
+	}
+
+	public BigDecimal toKilometersPer(TimeIncrement increment) {
+		return this.toKilometersPer(increment, this.context);
 	}
 
-	public abstract BigDecimal toMetersPer(TimeIncrement increment);
+	public BigDecimal toKilometersPer(TimeIncrement increment,
+			ConversionContext context) {
+		return this.to(DistanceConverter.Unit.Kilometer, increment.getUnit(), context);
+	}
+
+	public BigDecimal toFeetPer(TimeIncrement increment) {
+		return this.toFeetPer(increment, this.context);
+	}
 
-	public abstract BigDecimal toKilometersPer(TimeIncrement increment);
+	public BigDecimal toFeetPer(TimeIncrement increment,
+			ConversionContext context) {
+		return this.to(DistanceConverter.Unit.Foot, increment.getUnit(), context);
+	}
 
-	public abstract BigDecimal toFeetPer(TimeIncrement increment);
+	public BigDecimal toMilesPer(TimeIncrement increment) {
+		return this.toMilesPer(increment, this.context);
+	}
 
-	public abstract BigDecimal toMilesPer(TimeIncrement increment);
+	public BigDecimal toMilesPer(TimeIncrement increment,
+			ConversionContext context) {
+		return this.to(DistanceConverter.Unit.Mile, increment.getUnit(), context);
+	}
 
-	public abstract BigDecimal toAstronomicalUnitsPer(TimeIncrement increment);
+	public BigDecimal toAstronomicalUnitsPer(TimeIncrement increment) {
+		return this.toAstronomicalUnitsPer(increment, this.context);
+	}
 
-	public abstract BigDecimal toLightYearsPer(TimeIncrement increment);
+	public BigDecimal toAstronomicalUnitsPer(TimeIncrement increment,
+			ConversionContext context) {
+		return this.to(DistanceConverter.Unit.AstronomicalUnit, increment.getUnit(), context);
+	}
 
-	public abstract BigDecimal toParsecsPer(TimeIncrement increment);
+	public BigDecimal toLightYearsPer(TimeIncrement increment) {
+		return this.toLightYearsPer(increment, this.context);
+	}
+
+	public BigDecimal toLightYearsPer(TimeIncrement increment,
+			ConversionContext context) {
+		return this.to(DistanceConverter.Unit.LightYear, increment.getUnit(), context);
+	}
+
+	public BigDecimal toParsecsPer(TimeIncrement increment) {
+		return this.toParsecsPer(increment, this.context);
+	}
+
+	public BigDecimal toParsecsPer(TimeIncrement increment,
+			ConversionContext context) {
+		return this.to(DistanceConverter.Unit.Parsec, increment.getUnit(), context);
+	}
 }
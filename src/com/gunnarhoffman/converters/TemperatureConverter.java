@@ -1,10 +1,18 @@
 package com.gunnarhoffman.converters;
 
 import java.math.BigDecimal;
+import java.security.InvalidParameterException;
 
 /**
  * This class aids in conversion between various forms of measuring temperature.
  * The units this class handles are Kelvin, Celsius, and Fahrenheit.
+ * <p/>
+ * Every conversion between two units is an AffineTransform (a scale and an
+ * offset) computed once for each pair of units, so converting never branches
+ * on the units and is rounded only once. A reading output in its own unit is
+ * returned as it was given. Other results keep the decimal places they have
+ * always had, such as those of the reading between Celsius and Fahrenheit,
+ * and gain as many more as they need, up to what the context allows.
  *
  * @author Blake Hair
  */
@@ -12,19 +20,55 @@ public class TemperatureConverter {
 
     // Constants
 
-    private static final BigDecimal five = new BigDecimal("5.0");
-    private static final BigDecimal nine = new BigDecimal("9.0");
-    private static final BigDecimal thirtyTwo = new BigDecimal("32.0");
-    private static final BigDecimal twoSeventyThree = new BigDecimal("273.15");
+    public static final BigDecimal KELVIN_AT_ZERO_CELSIUS = new BigDecimal("273.15");
+    public static final BigDecimal FAHRENHEIT_AT_ZERO_CELSIUS = new BigDecimal("32");
 
-    private enum Unit {
-        Kelvin, Celsius, Fahrenheit
+    /*
+     * Fahrenheit degrees are 5/9 the size of Celsius and Kelvin ones.
+     */
+    private static final Rational FAHRENHEIT_DEGREES_IN_A_KELVIN = Rational.of(9, 5);
+
+    public static enum Unit {
+        Kelvin(AffineTransform.IDENTITY),
+        Celsius(AffineTransform.shifting(Rational.valueOf(KELVIN_AT_ZERO_CELSIUS))),
+        Fahrenheit(AffineTransform.shifting(Rational.valueOf(FAHRENHEIT_AT_ZERO_CELSIUS).negate())
+                .andThen(AffineTransform.scaling(FAHRENHEIT_DEGREES_IN_A_KELVIN.reciprocal()))
+                .andThen(AffineTransform.shifting(Rational.valueOf(KELVIN_AT_ZERO_CELSIUS))));
+
+        private static final AffineTransform[][] TRANSFORMS;
+
+        static {
+            Unit[] units = Unit.values();
+            TRANSFORMS = new AffineTransform[units.length][units.length];
+            for (Unit from : units) {
+                for (Unit to : units) {
+                    TRANSFORMS[from.ordinal()][to.ordinal()] = from.toKelvin
+                            .andThen(to.toKelvin.inverse());
+                }
+            }
+        }
+
+        private final AffineTransform toKelvin;
+
+        Unit(AffineTransform toKelvin) {
+            this.toKelvin = toKelvin;
+        }
+
+        /**
+         * Returns the transform that expresses a temperature in this unit in
+         * the target unit.
+         */
+        public AffineTransform transformTo(Unit target) {
+            return TRANSFORMS[this.ordinal()][target.ordinal()];
+        }
     }
 
     // Instance fields
     private BigDecimal degrees;
     private Unit unit;
 
+    private ConversionContext context = ConversionContext.DEFAULT;
+
     // Constructors
 
     private TemperatureConverter(BigDecimal degrees) {
@@ -55,6 +99,32 @@ public class TemperatureConverter {
         return this.unit;
     }
 
+    /*
+     * The number of degrees in the unit given by getUnit, for QuantityCodec.
+     */
+    BigDecimal getDegrees() {
+        return this.degrees;
+    }
+
+    /**
+     * Binds the context used to round the results of the output methods that
+     * are not given one explicitly.
+     *
+     * @param context The context to round with.
+     * @return This instance.
+     */
+    public final TemperatureConverter setContext(ConversionContext context) {
+        if (context == null) {
+            throw new InvalidParameterException("a context is required!");
+        }
+        this.context = context;
+        return this;
+    }
+
+    public final ConversionContext getContext() {
+        return this.context;
+    }
+
     // Initializers
 
     public static TemperatureConverter fromCelsius(double degreesCelsius) {
@@ -88,37 +158,96 @@ public class TemperatureConverter {
     // Output as Celsius
 
     public BigDecimal toCelsius() {
-        if (this.getUnit().equals(Unit.Fahrenheit)) {
-            return this.degrees.subtract(thirtyTwo).multiply(five).divide(nine);
-        }
-        if (this.getUnit().equals(Unit.Kelvin)) {
-            return this.degrees.subtract(twoSeventyThree).setScale(1, BigDecimal.ROUND_DOWN);
-        }
-        return this.degrees;
+        return this.toCelsius(this.context);
+    }
+
+    public BigDecimal toCelsius(ConversionContext context) {
+        return this.convert(Unit.Celsius, context);
     }
 
     // Output as Fahrenheit
 
     public BigDecimal toFahrenheit() {
-        if (this.getUnit().equals(Unit.Celsius)) {
-            return this.degrees.multiply(nine).divide(five).add(thirtyTwo);
-        }
-        if (this.getUnit().equals(Unit.Kelvin)) {
-            return this.toCelsius().subtract(twoSeventyThree).setScale(1, BigDecimal.ROUND_DOWN);
-        }
-        return this.degrees;
+        return this.toFahrenheit(this.context);
+    }
+
+    public BigDecimal toFahrenheit(ConversionContext context) {
+        return this.convert(Unit.Fahrenheit, context);
     }
 
     // Output as Kelvin
 
     public BigDecimal toKelvin() {
-        if (this.getUnit().equals(Unit.Celsius)) {
-            return this.degrees.add(twoSeventyThree);
+        return this.toKelvin(this.context);
+    }
+
+    public BigDecimal toKelvin(ConversionContext context) {
+        return this.convert(Unit.Kelvin, context);
+    }
+
+    private BigDecimal convert(Unit target, ConversionContext context) {
+        if (target == this.unit) {
+            return this.degrees;
         }
-        if (this.getUnit().equals(Unit.Fahrenheit)) {
-            return this.toCelsius().add(twoSeventyThree).setScale(1, BigDecimal.ROUND_DOWN);
+        BigDecimal result = this.unit.transformTo(target).applyTo(this.degrees, context)
+                .stripTrailingZeros();
+        int scale = TemperatureConverter.scaleOf(this.unit, target, this.degrees.scale());
+        return result.scale() < scale ? result.setScale(scale) : result;
+    }
+
+    /*
+     * The fewest decimal places a result is given, which are those this
+     * converter has always returned: the reading's own between Celsius and
+     * Fahrenheit, at least the two of 273.15 from Celsius into Kelvin, and one
+     * for the other conversions through Kelvin, but never fewer than one.
+     */
+    private static int scaleOf(Unit from, Unit to, int readingScale) {
+        if (to == Unit.Kelvin && from == Unit.Celsius) {
+            return Math.max(readingScale, KELVIN_AT_ZERO_CELSIUS.scale());
         }
-        return this.degrees;
+        if (from == Unit.Kelvin || to == Unit.Kelvin) {
+            return 1;
+        }
+        return Math.max(readingScale, 1);
+    }
+
+    // Batch conversion
+
+    /**
+     * Converts temperature readings from the source array, starting at
+     * sourceOffset, into the destination array, starting at
+     * destinationOffset, in a single pass. Arrays of more than
+     * BulkConversion.THRESHOLD readings are split across the common
+     * ForkJoinPool.
+     * <p/>
+     * As with System.arraycopy the source and destination may be the same
+     * array.
+     *
+     * @param from              The unit the source readings are in.
+     * @param source            The readings to convert.
+     * @param sourceOffset      The index of the first reading to convert.
+     * @param to                The unit to write the converted readings in.
+     * @param destination       The array to write the converted readings to.
+     * @param destinationOffset The index to write the first converted reading to.
+     * @param length            The number of readings to convert.
+     */
+    public static void convert(Unit from, double[] source, int sourceOffset,
+                               Unit to, double[] destination, int destinationOffset, int length) {
+        AffineTransform transform = from.transformTo(to);
+        BulkConversion.convert(source, sourceOffset, destination, destinationOffset, length,
+                transform.getDoubleScale(), transform.getDoubleOffset());
+    }
+
+    /**
+     * Converts exact readings as convert(Unit, double[], int, Unit, double[],
+     * int, int) does, rounding each once as described by the context. The
+     * results keep the scale or precision the context rounds them to.
+     */
+    public static void convert(Unit from, BigDecimal[] source, int sourceOffset,
+                               Unit to, BigDecimal[] destination, int destinationOffset, int length,
+                               ConversionContext context) {
+        BulkConversion.convert(source, sourceOffset, destination, destinationOffset, length,
+                from.transformTo(to), context);
     }
 
 }
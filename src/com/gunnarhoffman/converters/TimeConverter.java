@@ -1,8 +1,13 @@
 package com.gunnarhoffman.converters;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
 import java.security.InvalidParameterException;
+import java.util.stream.DoubleStream;
 
 /**
  * 
@@ -32,10 +37,73 @@ public class TimeConverter {
 	public static final BigDecimal MICROSECONDS_IN_A_YEAR = new BigDecimal(
 			"31556908800000");
 
+	/*
+	 * The units toString writes, largest first.
+	 */
+	private static final QuantityFormat FORMAT = new QuantityFormat(
+			new BigDecimal[] { MICROSECONDS_IN_A_YEAR, MICROSECONDS_IN_A_WEEK,
+					MICROSECONDS_IN_A_DAY, MICROSECONDS_IN_AN_HOUR,
+					MICROSECONDS_IN_A_MINUTE, MICROSECONDS_IN_A_SECOND,
+					MICROSECONDS_IN_A_MILLISECOND },
+			new String[] { " Years", " Weeks", " Days", " Hours", " Minutes",
+					" Seconds", " Milliseconds" },
+			new int[] { 2, 2, 2, 2, 2, 2, 2 });
+
+	/**
+	 * This enumeration contains all the units of time, for converting
+	 * primitive values without creating a converter. The factors between them
+	 * come from the UnitRegistry.
+	 * 
+	 * @author Gunnar Hoffman
+	 * 
+	 */
+	public static enum Unit {
+		Microsecond,
+		Millisecond,
+		Second,
+		Minute,
+		Hour,
+		Day,
+		Week,
+		Year;
+
+		private final MeasurementUnit unit;
+
+		Unit() {
+			this.unit = UnitRegistry.of(Dimension.Time).get(this.name());
+		}
+
+		public MeasurementUnit getMeasurementUnit() {
+			return this.unit;
+		}
+
+		public BigDecimal getMicroseconds() {
+			return this.unit.getSize().toBigDecimal(ConversionContext.DEFAULT);
+		}
+
+		/**
+		 * Returns the number to multiply a value in this unit by to express it
+		 * in the target unit.
+		 */
+		public double factorTo(Unit target) {
+			return this.unit.factorTo(target.unit);
+		}
+
+		/**
+		 * Returns the exact fraction to multiply a value in this unit by to
+		 * express it in the target unit.
+		 */
+		public Rational ratioTo(Unit target) {
+			return this.unit.ratioTo(target.unit);
+		}
+	}
+
 	// Instance fields
 
 	private BigDecimal microseconds;
 
+	private ConversionContext context = ConversionContext.DEFAULT;
+
 	// Constructor
 
 	public TimeConverter(BigDecimal microseconds) {
@@ -55,6 +123,42 @@ public class TimeConverter {
 		return this;
 	}
 
+	/**
+	 * Returns the exact number of microseconds, which toMicroseconds
+	 * truncates to a whole number.
+	 */
+	public final BigDecimal getTime() {
+		return this.microseconds;
+	}
+
+	/**
+	 * Binds the context used to round the results of the output methods that
+	 * are not given one explicitly.
+	 * 
+	 * @param context
+	 *            The context to round with.
+	 * @return This instance.
+	 */
+	public final TimeConverter setContext(ConversionContext context) {
+		if (context == null) {
+			throw new InvalidParameterException("a context is required!");
+		}
+		this.context = context;
+		return this;
+	}
+
+	public final ConversionContext getContext() {
+		return this.context;
+	}
+
+	/*
+	 * Counts a conversion of a single value for ConversionMetrics.
+	 */
+	private static void count(Unit from, Unit to) {
+		ConversionMetrics.count(from.getMeasurementUnit(),
+				to.getMeasurementUnit());
+	}
+
 	// Initializers
 
 	public static TimeConverter fromMicroseconds(long microseconds) {
@@ -72,6 +176,7 @@ public class TimeConverter {
 	}
 
 	public static TimeConverter fromMilliseconds(BigDecimal milliseconds) {
+		TimeConverter.count(Unit.Millisecond, Unit.Microsecond);
 
 		BigDecimal calculator = new BigDecimal(milliseconds.toString());
 		calculator = calculator
@@ -85,6 +190,7 @@ public class TimeConverter {
 	}
 
 	public static TimeConverter fromSeconds(BigDecimal seconds) {
+		TimeConverter.count(Unit.Second, Unit.Microsecond);
 
 		BigDecimal calculator = new BigDecimal(seconds.toString());
 		calculator = calculator
@@ -98,6 +204,7 @@ public class TimeConverter {
 	}
 
 	public static TimeConverter fromMinutes(BigDecimal minutes) {
+		TimeConverter.count(Unit.Minute, Unit.Microsecond);
 
 		BigDecimal calculator = new BigDecimal(minutes.toString());
 		calculator = calculator
@@ -110,6 +217,7 @@ public class TimeConverter {
 	}
 
 	public static TimeConverter fromHours(BigDecimal hours) {
+		TimeConverter.count(Unit.Hour, Unit.Microsecond);
 
 		BigDecimal calculator = new BigDecimal(hours.toString());
 		calculator = calculator.multiply(TimeConverter.MICROSECONDS_IN_AN_HOUR);
@@ -121,6 +229,7 @@ public class TimeConverter {
 	}
 
 	public static TimeConverter fromDays(BigDecimal days) {
+		TimeConverter.count(Unit.Day, Unit.Microsecond);
 
 		BigDecimal calculator = new BigDecimal(days.toString());
 		calculator = calculator.multiply(TimeConverter.MICROSECONDS_IN_A_DAY);
@@ -132,6 +241,7 @@ public class TimeConverter {
 	}
 
 	public static TimeConverter fromWeeks(BigDecimal weeks) {
+		TimeConverter.count(Unit.Week, Unit.Microsecond);
 
 		BigDecimal calculator = new BigDecimal(weeks.toString());
 		calculator = calculator.multiply(TimeConverter.MICROSECONDS_IN_A_WEEK);
@@ -143,12 +253,126 @@ public class TimeConverter {
 	}
 
 	public static TimeConverter fromYears(BigDecimal years) {
+		TimeConverter.count(Unit.Year, Unit.Microsecond);
 
 		BigDecimal calculator = new BigDecimal(years.toString());
 		calculator = calculator.multiply(TimeConverter.MICROSECONDS_IN_A_YEAR);
 		return new TimeConverter(calculator);
 	}
 
+	// Bulk conversion
+
+	/**
+	 * <p>
+	 * Converts durations from the source array, starting at sourceOffset, into
+	 * the destination array, starting at destinationOffset. Arrays of more
+	 * than BulkConversion.THRESHOLD values are split across the common
+	 * ForkJoinPool, smaller ones are converted on the calling thread.
+	 * </p>
+	 * 
+	 * <p>
+	 * As with System.arraycopy the source and destination may be the same
+	 * array.
+	 * </p>
+	 * 
+	 * @param from
+	 *            The unit the source values are in.
+	 * @param source
+	 *            The values to convert.
+	 * @param sourceOffset
+	 *            The index of the first value to convert.
+	 * @param to
+	 *            The unit to write the converted values in.
+	 * @param destination
+	 *            The array to write the converted values to.
+	 * @param destinationOffset
+	 *            The index to write the first converted value to.
+	 * @param length
+	 *            The number of values to convert.
+	 */
+	public static void convert(Unit from, double[] source, int sourceOffset,
+			Unit to, double[] destination, int destinationOffset, int length) {
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, sourceOffset, destination,
+				destinationOffset, length, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), length, start);
+	}
+
+	/**
+	 * Converts whole numbers of the from unit as convert(Unit, double[], int,
+	 * Unit, double[], int, int) does.
+	 */
+	public static void convert(Unit from, long[] source, int sourceOffset,
+			Unit to, double[] destination, int destinationOffset, int length) {
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, sourceOffset, destination,
+				destinationOffset, length, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), length, start);
+	}
+
+	/**
+	 * Converts exact durations as convert(Unit, double[], int, Unit, double[],
+	 * int, int) does, rounding each value once as described by the context.
+	 */
+	public static void convert(Unit from, BigDecimal[] source,
+			int sourceOffset, Unit to, BigDecimal[] destination,
+			int destinationOffset, int length, ConversionContext context) {
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, sourceOffset, destination,
+				destinationOffset, length, from.ratioTo(to), context);
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), length, start);
+	}
+
+	/**
+	 * Converts the remaining values of the source buffer into the destination
+	 * buffer in place, advancing both positions past them. Direct buffers are
+	 * read and written where they are, without a copy onto the heap.
+	 * 
+	 * @param from
+	 *            The unit the source values are in.
+	 * @param source
+	 *            The values to convert.
+	 * @param to
+	 *            The unit to write the converted values in.
+	 * @param destination
+	 *            The buffer to write the converted values to, which may be
+	 *            the source itself.
+	 */
+	public static void convert(Unit from, DoubleBuffer source, Unit to,
+			DoubleBuffer destination) {
+		final int count = source.remaining();
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, destination, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), count, start);
+	}
+
+	/**
+	 * Converts whole values from the source buffer into the destination
+	 * buffer. This behaves exactly like the DoubleBuffer variant of this
+	 * method.
+	 */
+	public static void convert(Unit from, LongBuffer source, Unit to,
+			DoubleBuffer destination) {
+		final int count = source.remaining();
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, destination, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), count, start);
+	}
+
+	/**
+	 * Returns a parallel stream of the values converted from one unit to
+	 * another. The values are converted as the stream consumes them.
+	 */
+	public static DoubleStream parallelStream(Unit from, double[] values,
+			Unit to) {
+		return BulkConversion.stream(values, from.factorTo(to), true);
+	}
+
 	// Output
 
 	public BigInteger toMicroseconds() {
@@ -156,77 +380,105 @@ public class TimeConverter {
 	}
 
 	public BigDecimal toMilliseconds() {
-		return this.microseconds.divide(
-				TimeConverter.MICROSECONDS_IN_A_MILLISECOND, 100,
-				BigDecimal.ROUND_HALF_UP);
+		return this.toMilliseconds(this.context);
 	}
 
-	public BigDecimal toSeconds() {
-		return this.microseconds.divide(TimeConverter.MICROSECONDS_IN_A_SECOND,
-				100, BigDecimal.ROUND_HALF_UP);
+	public BigDecimal toMilliseconds(ConversionContext context) {
+		TimeConverter.count(Unit.Microsecond, Unit.Millisecond);
+		return context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_MILLISECOND);
 	}
 
-	public BigDecimal toMinutes() {
-		return this.microseconds.divide(TimeConverter.MICROSECONDS_IN_A_MINUTE,
-				100, BigDecimal.ROUND_HALF_UP);
+	public BigDecimal toSeconds() {
+		return this.toSeconds(this.context);
 	}
 
-	public BigDecimal toHours() {
-		return this.microseconds.divide(TimeConverter.MICROSECONDS_IN_AN_HOUR,
-				100, BigDecimal.ROUND_HALF_UP);
+	public BigDecimal toSeconds(ConversionContext context) {
+		TimeConverter.count(Unit.Microsecond, Unit.Second);
+		return context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_SECOND);
 	}
 
-	public BigDecimal toDays() {
-		return this.microseconds.divide(TimeConverter.MICROSECONDS_IN_A_DAY,
-				100, BigDecimal.ROUND_HALF_UP);
+	public BigDecimal toMinutes() {
+		return this.toMinutes(this.context);
 	}
 
-	public BigDecimal toWeeks() {
-		return this.microseconds.divide(TimeConverter.MICROSECONDS_IN_A_WEEK,
-				100, BigDecimal.ROUND_HALF_UP);
+	public BigDecimal toMinutes(ConversionContext context) {
+		TimeConverter.count(Unit.Microsecond, Unit.Minute);
+		return context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_MINUTE);
 	}
 
-	public BigDecimal toYears() {
-		return this.microseconds.divide(TimeConverter.MICROSECONDS_IN_A_YEAR,
-				100, BigDecimal.ROUND_HALF_UP);
+	public BigDecimal toHours() {
+		return this.toHours(this.context);
 	}
 
-	@Override
-	public String toString() {
-
-		if (this.microseconds.compareTo(TimeConverter.MICROSECONDS_IN_A_YEAR) >= 0) {
-			return String.format("%.2f Years", this.toYears().doubleValue());
+	public BigDecimal toHours(ConversionContext context) {
+		TimeConverter.count(Unit.Microsecond, Unit.Hour);
+		return context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_AN_HOUR);
+	}
 
-		} else if (this.microseconds
-				.compareTo(TimeConverter.MICROSECONDS_IN_A_WEEK) >= 0) {
-			return String.format("%.2f Weeks", this.toWeeks().doubleValue());
+	public BigDecimal toDays() {
+		return this.toDays(this.context);
+	}
 
-		} else if (this.microseconds
-				.compareTo(TimeConverter.MICROSECONDS_IN_A_DAY) >= 0) {
-			return String.format("%.2f Days", this.toDays().doubleValue());
+	public BigDecimal toDays(ConversionContext context) {
+		TimeConverter.count(Unit.Microsecond, Unit.Day);
+		return context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_DAY);
+	}
 
-		} else if (this.microseconds
-				.compareTo(TimeConverter.MICROSECONDS_IN_AN_HOUR) >= 0) {
-			return String.format("%.2f Hours", this.toHours().doubleValue());
+	public BigDecimal toWeeks() {
+		return this.toWeeks(this.context);
+	}
 
-		} else if (this.microseconds
-				.compareTo(TimeConverter.MICROSECONDS_IN_A_MINUTE) >= 0) {
-			return String
-					.format("%.2f Minutes", this.toMinutes().doubleValue());
+	public BigDecimal toWeeks(ConversionContext context) {
+		TimeConverter.count(Unit.Microsecond, Unit.Week);
+		return context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_WEEK);
+	}
 
-		} else if (this.microseconds
-				.compareTo(TimeConverter.MICROSECONDS_IN_A_SECOND) >= 0) {
-			return String
-					.format("%.2f Seconds", this.toSeconds().doubleValue());
+	public BigDecimal toYears() {
+		return this.toYears(this.context);
+	}
 
-		} else if (this.microseconds
-				.compareTo(TimeConverter.MICROSECONDS_IN_A_MILLISECOND) >= 0) {
-			return String.format("%.2f Milliseconds", this.toMilliseconds()
-					.doubleValue());
+	public BigDecimal toYears(ConversionContext context) {
+		TimeConverter.count(Unit.Microsecond, Unit.Year);
+		return context.divide(this.microseconds,
+				TimeConverter.MICROSECONDS_IN_A_YEAR);
+	}
 
-		} else {
-			return String.format("%f Microseconds", this.toMicroseconds()
-					.doubleValue());
+	/**
+	 * Writes this time the way toString does, without String.format or any
+	 * intermediate BigDecimal or String.
+	 * 
+	 * In the event the Appendable fails a runtime exception of the type
+	 * UncheckedIOException will be thrown.
+	 * 
+	 * @param out
+	 *            Where to write, usually a StringBuilder.
+	 * @return The same Appendable.
+	 */
+	public <A extends Appendable> A formatTo(A out) {
+		try {
+			if (this.microseconds
+					.compareTo(TimeConverter.MICROSECONDS_IN_A_MILLISECOND) >= 0) {
+				FORMAT.formatTo(this.microseconds, out);
+			} else {
+				// Whole microseconds only, as toMicroseconds returns them.
+				QuantityFormat.appendFixed(out,
+						Math.floor(this.microseconds.doubleValue()), 6);
+				out.append(" Microseconds");
+			}
+			return out;
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
 		}
 	}
+
+	@Override
+	public String toString() {
+		return this.formatTo(new StringBuilder(24)).toString();
+	}
 }
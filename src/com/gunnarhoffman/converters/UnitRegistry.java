@@ -0,0 +1,311 @@
+package com.gunnarhoffman.converters;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * The units of one dimension, such as every unit of data from the Byte to the
+ * Terabit. There is a registry for each Dimension, and every unit the
+ * converters, expressions and bulk conversions understand is defined here
+ * once.
+ * </p>
+ *
+ * <p>
+ * A unit is defined as an exact amount of another unit of the same
+ * dimension, such as a Mile being 1760 Yards, which makes the units a graph
+ * rooted at the base unit of the dimension. The graph is resolved once, when
+ * the registries are created, into the size of each unit in the base unit
+ * and then into the factor between every pair of units. The factors are kept
+ * in dense arrays indexed by the units' indices, so finding one afterwards is
+ * a single array access.
+ * </p>
+ *
+ * <p>
+ * Adding a unit is a matter of adding one definition below. Registries are
+ * immutable and can be shared between threads.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class UnitRegistry {
+
+	// Registries
+
+	private static final UnitRegistry[] REGISTRIES = new UnitRegistry[Dimension
+			.values().length];
+
+	private static final Map<String, MeasurementUnit> SYMBOLS = new HashMap<String, MeasurementUnit>();
+	private static final Map<String, MeasurementUnit> NAMES = new HashMap<String, MeasurementUnit>();
+
+	static {
+		UnitRegistry.register(new Definitions(Dimension.Data, "Byte", "B")
+				.define("Kilobyte", "KB", 1024, "Byte")
+				.define("Megabyte", "MB", 1024, "Kilobyte")
+				.define("Gigabyte", "GB", 1024, "Megabyte")
+				.define("Terabyte", "TB", 1024, "Gigabyte")
+				.define("Kilobit", "Kb", Rational.of(1, 8), "Kilobyte")
+				.define("Megabit", "Mb", Rational.of(1, 8), "Megabyte")
+				.define("Gigabit", "Gb", Rational.of(1, 8), "Gigabyte")
+				.define("Terabit", "Tb", Rational.of(1, 8), "Terabyte"));
+
+		UnitRegistry.register(new Definitions(Dimension.Time, "Microsecond",
+				"us")
+				.define("Millisecond", "ms", 1000, "Microsecond")
+				.define("Second", "s", 1000, "Millisecond")
+				.define("Minute", "min", 60, "Second")
+				.define("Hour", "h", 60, "Minute")
+				.define("Day", "d", 24, "Hour")
+				.define("Week", "wk", 7, "Day")
+				.define("Year", "yr", Rational.of(365242, 1000), "Day"));
+
+		UnitRegistry.register(new Definitions(Dimension.Distance,
+				"Micrometer", "um")
+				.define("Millimeter", "mm", 1000, "Micrometer")
+				.define("Centimeter", "cm", 10, "Millimeter")
+				.define("Meter", "m", 100, "Centimeter")
+				.define("Kilometer", "km", 1000, "Meter")
+				.define("Inch", "Inches", "in", Rational.of(254, 10),
+						"Millimeter")
+				.define("Foot", "Feet", "ft", Rational.valueOf(12), "Inch")
+				.define("Yard", "yd", 3, "Foot")
+				.define("Mile", "mi", 1760, "Yard")
+				.define("AstronomicalUnit", "AU", 149597871L, "Kilometer")
+				.define("LightYear", "ly", 9460528400000L, "Kilometer")
+				.define("Parsec", "pc", 30856775800000L, "Kilometer"));
+
+		UnitRegistry.register(new Definitions(Dimension.Mass, "Milligram",
+				"mg")
+				.define("Gram", "g", 1000, "Milligram")
+				.define("Kilogram", "kg", 1000, "Gram")
+				.define("Tonne", "t", 1000, "Kilogram"));
+
+		UnitRegistry.register(new Definitions(Dimension.Volume, "Milliliter",
+				"mL")
+				.define("Liter", "L", 1000, "Milliliter")
+				.define("CubicMeter", "m3", 1000, "Liter")
+				.define("CubicInch", "CubicInches", "in3", Rational.of(
+						16387064, 1000000), "Milliliter")
+				.define("CubicFoot", "CubicFeet", "ft3", Rational.valueOf(1728),
+						"CubicInch")
+				.define("USGallon", "gal", 231, "CubicInch")
+				.define("USFluidOunce", "floz", Rational.of(1, 128), "USGallon")
+				.define("ImperialGallon", "impgal", Rational.of(454609, 100),
+						"Milliliter")
+				.define("ImperialFluidOunce", "impfloz", Rational.of(1, 160),
+						"ImperialGallon"));
+	}
+
+	// Instance fields
+
+	private final Dimension dimension;
+	private final MeasurementUnit[] units;
+	private final Map<String, MeasurementUnit> byName;
+
+	/*
+	 * The factor and exact ratio from unit i to unit j are at
+	 * i * units.length + j.
+	 */
+	private final double[] factors;
+	private final Rational[] ratios;
+
+	// Constructor
+
+	private UnitRegistry(Definitions definitions) {
+		this.dimension = definitions.dimension;
+
+		List<Definition> list = new ArrayList<Definition>(
+				definitions.byName.values());
+		int count = list.size();
+		this.units = new MeasurementUnit[count];
+		this.byName = new HashMap<String, MeasurementUnit>();
+		Map<String, Rational> sizes = new HashMap<String, Rational>();
+		for (int index = 0; index < count; index++) {
+			Definition definition = list.get(index);
+			Rational size = definitions.resolve(definition.name, sizes,
+					new HashSet<String>());
+			this.units[index] = new MeasurementUnit(this, index,
+					definition.name, definition.plural, definition.symbol,
+					size);
+			this.byName.put(definition.name, this.units[index]);
+		}
+
+		this.factors = new double[count * count];
+		this.ratios = new Rational[count * count];
+		for (MeasurementUnit from : this.units) {
+			for (MeasurementUnit to : this.units) {
+				Rational ratio = from.getSize().divide(to.getSize());
+				int index = from.getIndex() * count + to.getIndex();
+				this.ratios[index] = ratio;
+				this.factors[index] = ratio.toBigDecimal(
+						ConversionContext.DEFAULT).doubleValue();
+			}
+		}
+	}
+
+	private static void register(Definitions definitions) {
+		UnitRegistry registry = new UnitRegistry(definitions);
+		REGISTRIES[registry.dimension.ordinal()] = registry;
+		for (MeasurementUnit unit : registry.units) {
+			SYMBOLS.put(unit.getSymbol(), unit);
+			NAMES.put(unit.getName().toLowerCase(Locale.ROOT), unit);
+			NAMES.put(unit.getPlural().toLowerCase(Locale.ROOT), unit);
+		}
+	}
+
+	// Lookup
+
+	public static UnitRegistry of(Dimension dimension) {
+		return REGISTRIES[dimension.ordinal()];
+	}
+
+	/**
+	 * Finds a unit of any dimension by its case sensitive symbol, such as MB
+	 * or Mb, or by its name or plural in any case, such as megabytes. Returns
+	 * null if there is none.
+	 */
+	public static MeasurementUnit find(String text) {
+		MeasurementUnit unit = SYMBOLS.get(text);
+		if (unit == null) {
+			unit = NAMES.get(text.toLowerCase(Locale.ROOT));
+		}
+		return unit;
+	}
+
+	public Dimension getDimension() {
+		return this.dimension;
+	}
+
+	public MeasurementUnit getBaseUnit() {
+		return this.units[0];
+	}
+
+	public List<MeasurementUnit> getUnits() {
+		return Collections.unmodifiableList(Arrays.asList(this.units));
+	}
+
+	/**
+	 * Returns the unit with exactly the given name, such as Kilobyte.
+	 *
+	 * In the event there is none a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 */
+	public MeasurementUnit get(String name) {
+		MeasurementUnit unit = this.byName.get(name);
+		if (unit == null) {
+			throw new InvalidParameterException("there is no "
+					+ this.dimension + " unit named " + name + "!");
+		}
+		return unit;
+	}
+
+	// Factors
+
+	double factor(int from, int to) {
+		return this.factors[from * this.units.length + to];
+	}
+
+	Rational ratio(int from, int to) {
+		return this.ratios[from * this.units.length + to];
+	}
+
+	// Object
+
+	@Override
+	public String toString() {
+		return this.dimension + " " + this.getUnits();
+	}
+
+	// Definitions
+
+	private static final class Definition {
+
+		final String name;
+		final String plural;
+		final String symbol;
+		final Rational amount;
+		final String of;
+
+		Definition(String name, String plural, String symbol, Rational amount,
+				String of) {
+			this.name = name;
+			this.plural = plural;
+			this.symbol = symbol;
+			this.amount = amount;
+			this.of = of;
+		}
+	}
+
+	/*
+	 * The definitions of one dimension, in the order the units are indexed.
+	 * The first is the base unit.
+	 */
+	private static final class Definitions {
+
+		final Dimension dimension;
+		final Map<String, Definition> byName = new LinkedHashMap<String, Definition>();
+
+		Definitions(Dimension dimension, String base, String symbol) {
+			this.dimension = dimension;
+			this.byName.put(base, new Definition(base, base + "s", symbol,
+					Rational.ONE, null));
+		}
+
+		Definitions define(String name, String symbol, long amount, String of) {
+			return this.define(name, name + "s", symbol, Rational
+					.valueOf(amount), of);
+		}
+
+		Definitions define(String name, String symbol, Rational amount,
+				String of) {
+			return this.define(name, name + "s", symbol, amount, of);
+		}
+
+		Definitions define(String name, String plural, String symbol,
+				Rational amount, String of) {
+			this.byName.put(name, new Definition(name, plural, symbol, amount,
+					of));
+			return this;
+		}
+
+		/*
+		 * Walks from the unit towards the base unit, multiplying the amounts
+		 * along the way. Sizes already found are remembered so every edge of
+		 * the graph is followed only once.
+		 */
+		Rational resolve(String name, Map<String, Rational> sizes,
+				Set<String> visiting) {
+			Rational size = sizes.get(name);
+			if (size != null) {
+				return size;
+			}
+			Definition definition = this.byName.get(name);
+			if (definition == null) {
+				throw new IllegalStateException(this.dimension
+						+ " has no unit named " + name);
+			}
+			if (definition.of == null) {
+				size = definition.amount;
+			} else {
+				if (!visiting.add(name)) {
+					throw new IllegalStateException(this.dimension
+							+ " units are defined in a cycle through " + name);
+				}
+				size = definition.amount.multiply(this.resolve(definition.of,
+						sizes, visiting));
+			}
+			sizes.put(name, size);
+			return size;
+		}
+	}
+}
@@ -1,5 +1,515 @@
 package com.gunnarhoffman.converters;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.security.InvalidParameterException;
+
+/**
+ * This class allows for the conversion between metric, US and imperial units
+ * of volume. Every factor is exact: a US gallon is 231 cubic inches and an
+ * imperial gallon is 4.54609 liters, so results are only rounded when the
+ * division does not terminate.
+ *
+ * Single values can also be converted as doubles with convert(double, Unit,
+ * Unit), and arrays and buffers of them in bulk, without creating a
+ * converter.
+ *
+ * @author Gunnar Hoffman
+ *
+ */
 public class VolumeConverter {
 
+	// Constants
+
+	public static final BigDecimal MILLILITERS_IN_A_LITER = new BigDecimal(
+			"1000");
+	public static final BigDecimal MILLILITERS_IN_A_CUBIC_METER = new BigDecimal(
+			"1000000");
+	public static final BigDecimal MILLILITERS_IN_A_CUBIC_INCH = new BigDecimal(
+			"16.387064");
+	public static final BigDecimal MILLILITERS_IN_A_CUBIC_FOOT = new BigDecimal(
+			"28316.846592");
+	public static final BigDecimal MILLILITERS_IN_A_US_GALLON = new BigDecimal(
+			"3785.411784");
+	public static final BigDecimal MILLILITERS_IN_A_US_FLUID_OUNCE = new BigDecimal(
+			"29.5735295625");
+	public static final BigDecimal MILLILITERS_IN_AN_IMPERIAL_GALLON = new BigDecimal(
+			"4546.09");
+	public static final BigDecimal MILLILITERS_IN_AN_IMPERIAL_FLUID_OUNCE = new BigDecimal(
+			"28.4130625");
+
+	/*
+	 * The units toString writes, largest first.
+	 */
+	private static final QuantityFormat FORMAT = new QuantityFormat(
+			new BigDecimal[] { MILLILITERS_IN_A_CUBIC_METER,
+					MILLILITERS_IN_A_LITER, BigDecimal.ONE },
+			new String[] { " m3", " L", " mL" },
+			new int[] { 2, 2, 2 });
+
+	/**
+	 * This enumeration contains all the units of volume, for converting
+	 * primitive values without creating a converter. The factors between them
+	 * come from the UnitRegistry.
+	 *
+	 * @author Gunnar Hoffman
+	 *
+	 */
+	public static enum Unit {
+		Milliliter,
+		Liter,
+		CubicMeter,
+		CubicInch,
+		CubicFoot,
+		USGallon,
+		USFluidOunce,
+		ImperialGallon,
+		ImperialFluidOunce;
+
+		private final MeasurementUnit unit;
+
+		Unit() {
+			this.unit = UnitRegistry.of(Dimension.Volume).get(this.name());
+		}
+
+		public MeasurementUnit getMeasurementUnit() {
+			return this.unit;
+		}
+
+		/*
+		 * Not every unit is a whole number of milliliters, but every one is a
+		 * terminating decimal of them, which DECIMAL128 holds exactly.
+		 */
+		public BigDecimal getMilliliters() {
+			return this.unit.getSize().toBigDecimal(ConversionContext.DECIMAL128);
+		}
+
+		/**
+		 * Returns the number to multiply a value in this unit by to express it
+		 * in the target unit.
+		 */
+		public double factorTo(Unit target) {
+			return this.unit.factorTo(target.unit);
+		}
+
+		/**
+		 * Returns the exact fraction to multiply a value in this unit by to
+		 * express it in the target unit.
+		 */
+		public Rational ratioTo(Unit target) {
+			return this.unit.ratioTo(target.unit);
+		}
+	}
+
+	/*
+	 * The number of each output unit in one milliliter, held exactly so every
+	 * conversion rounds once and terminating factors never divide.
+	 */
+	private static final Rational LITERS_IN_A_MILLILITER = Unit.Milliliter
+			.ratioTo(Unit.Liter);
+	private static final Rational CUBIC_METERS_IN_A_MILLILITER = Unit.Milliliter
+			.ratioTo(Unit.CubicMeter);
+	private static final Rational CUBIC_INCHES_IN_A_MILLILITER = Unit.Milliliter
+			.ratioTo(Unit.CubicInch);
+	private static final Rational CUBIC_FEET_IN_A_MILLILITER = Unit.Milliliter
+			.ratioTo(Unit.CubicFoot);
+	private static final Rational US_GALLONS_IN_A_MILLILITER = Unit.Milliliter
+			.ratioTo(Unit.USGallon);
+	private static final Rational US_FLUID_OUNCES_IN_A_MILLILITER = Unit.Milliliter
+			.ratioTo(Unit.USFluidOunce);
+	private static final Rational IMPERIAL_GALLONS_IN_A_MILLILITER = Unit.Milliliter
+			.ratioTo(Unit.ImperialGallon);
+	private static final Rational IMPERIAL_FLUID_OUNCES_IN_A_MILLILITER = Unit.Milliliter
+			.ratioTo(Unit.ImperialFluidOunce);
+
+	// Instance fields
+
+	private BigDecimal milliliters;
+
+	private ConversionContext context = ConversionContext.DEFAULT;
+
+	// Constructor
+
+	public VolumeConverter(BigDecimal milliliters) {
+		this.setUnit(milliliters);
+	}
+
+	// Setters
+
+	public final VolumeConverter setUnit(BigDecimal unit) {
+		if (unit.signum() == -1) {
+			throw new InvalidParameterException(
+					"negative volume makes no sense!");
+		}
+		this.milliliters = unit;
+		return this;
+	}
+
+	/**
+	 * Binds the context used to round the results of the output methods that
+	 * are not given one explicitly.
+	 *
+	 * @param context
+	 *            The context to round with.
+	 * @return This instance.
+	 */
+	public final VolumeConverter setContext(ConversionContext context) {
+		if (context == null) {
+			throw new InvalidParameterException("a context is required!");
+		}
+		this.context = context;
+		return this;
+	}
+
+	public final ConversionContext getContext() {
+		return this.context;
+	}
+
+	/*
+	 * Counts a conversion of a single value for ConversionMetrics.
+	 */
+	private static void count(Unit from, Unit to) {
+		ConversionMetrics.count(from.getMeasurementUnit(),
+				to.getMeasurementUnit());
+	}
+
+	// Initialize with metric units
+
+	public static VolumeConverter fromMilliliters(double milliliters) {
+		return VolumeConverter.fromMilliliters(new BigDecimal(Double
+				.toString(milliliters)));
+	}
+
+	public static VolumeConverter fromMilliliters(BigDecimal milliliters) {
+		return new VolumeConverter(milliliters);
+	}
+
+	public static VolumeConverter fromLiters(double liters) {
+		return VolumeConverter
+				.fromLiters(new BigDecimal(Double.toString(liters)));
+	}
+
+	public static VolumeConverter fromLiters(BigDecimal liters) {
+		VolumeConverter.count(Unit.Liter, Unit.Milliliter);
+		return new VolumeConverter(liters.multiply(MILLILITERS_IN_A_LITER));
+	}
+
+	public static VolumeConverter fromCubicMeters(double cubicMeters) {
+		return VolumeConverter.fromCubicMeters(new BigDecimal(Double
+				.toString(cubicMeters)));
+	}
+
+	public static VolumeConverter fromCubicMeters(BigDecimal cubicMeters) {
+		VolumeConverter.count(Unit.CubicMeter, Unit.Milliliter);
+		return new VolumeConverter(
+				cubicMeters.multiply(MILLILITERS_IN_A_CUBIC_METER));
+	}
+
+	// Initialize with US and imperial units
+
+	public static VolumeConverter fromCubicInches(double cubicInches) {
+		return VolumeConverter.fromCubicInches(new BigDecimal(Double
+				.toString(cubicInches)));
+	}
+
+	public static VolumeConverter fromCubicInches(BigDecimal cubicInches) {
+		VolumeConverter.count(Unit.CubicInch, Unit.Milliliter);
+		return new VolumeConverter(
+				cubicInches.multiply(MILLILITERS_IN_A_CUBIC_INCH));
+	}
+
+	public static VolumeConverter fromCubicFeet(double cubicFeet) {
+		return VolumeConverter.fromCubicFeet(new BigDecimal(Double
+				.toString(cubicFeet)));
+	}
+
+	public static VolumeConverter fromCubicFeet(BigDecimal cubicFeet) {
+		VolumeConverter.count(Unit.CubicFoot, Unit.Milliliter);
+		return new VolumeConverter(
+				cubicFeet.multiply(MILLILITERS_IN_A_CUBIC_FOOT));
+	}
+
+	public static VolumeConverter fromUSGallons(double gallons) {
+		return VolumeConverter.fromUSGallons(new BigDecimal(Double
+				.toString(gallons)));
+	}
+
+	public static VolumeConverter fromUSGallons(BigDecimal gallons) {
+		VolumeConverter.count(Unit.USGallon, Unit.Milliliter);
+		return new VolumeConverter(gallons.multiply(MILLILITERS_IN_A_US_GALLON));
+	}
+
+	public static VolumeConverter fromUSFluidOunces(double fluidOunces) {
+		return VolumeConverter.fromUSFluidOunces(new BigDecimal(Double
+				.toString(fluidOunces)));
+	}
+
+	public static VolumeConverter fromUSFluidOunces(BigDecimal fluidOunces) {
+		VolumeConverter.count(Unit.USFluidOunce, Unit.Milliliter);
+		return new VolumeConverter(
+				fluidOunces.multiply(MILLILITERS_IN_A_US_FLUID_OUNCE));
+	}
+
+	public static VolumeConverter fromImperialGallons(double gallons) {
+		return VolumeConverter.fromImperialGallons(new BigDecimal(Double
+				.toString(gallons)));
+	}
+
+	public static VolumeConverter fromImperialGallons(BigDecimal gallons) {
+		VolumeConverter.count(Unit.ImperialGallon, Unit.Milliliter);
+		return new VolumeConverter(
+				gallons.multiply(MILLILITERS_IN_AN_IMPERIAL_GALLON));
+	}
+
+	public static VolumeConverter fromImperialFluidOunces(double fluidOunces) {
+		return VolumeConverter.fromImperialFluidOunces(new BigDecimal(Double
+				.toString(fluidOunces)));
+	}
+
+	public static VolumeConverter fromImperialFluidOunces(
+			BigDecimal fluidOunces) {
+		VolumeConverter.count(Unit.ImperialFluidOunce, Unit.Milliliter);
+		return new VolumeConverter(
+				fluidOunces.multiply(MILLILITERS_IN_AN_IMPERIAL_FLUID_OUNCE));
+	}
+
+	// Output as metric units
+
+	public BigDecimal toMilliliters() {
+		return this.milliliters;
+	}
+
+	public BigDecimal toLiters() {
+		return this.toLiters(this.context);
+	}
+
+	public BigDecimal toLiters(ConversionContext context) {
+		VolumeConverter.count(Unit.Milliliter, Unit.Liter);
+		return LITERS_IN_A_MILLILITER.applyTo(this.milliliters, context);
+	}
+
+	public BigDecimal toCubicMeters() {
+		return this.toCubicMeters(this.context);
+	}
+
+	public BigDecimal toCubicMeters(ConversionContext context) {
+		VolumeConverter.count(Unit.Milliliter, Unit.CubicMeter);
+		return CUBIC_METERS_IN_A_MILLILITER.applyTo(this.milliliters, context);
+	}
+
+	// Output as US and imperial units
+
+	public BigDecimal toCubicInches() {
+		return this.toCubicInches(this.context);
+	}
+
+	public BigDecimal toCubicInches(ConversionContext context) {
+		VolumeConverter.count(Unit.Milliliter, Unit.CubicInch);
+		return CUBIC_INCHES_IN_A_MILLILITER.applyTo(this.milliliters, context);
+	}
+
+	public BigDecimal toCubicFeet() {
+		return this.toCubicFeet(this.context);
+	}
+
+	public BigDecimal toCubicFeet(ConversionContext context) {
+		VolumeConverter.count(Unit.Milliliter, Unit.CubicFoot);
+		return CUBIC_FEET_IN_A_MILLILITER.applyTo(this.milliliters, context);
+	}
+
+	public BigDecimal toUSGallons() {
+		return this.toUSGallons(this.context);
+	}
+
+	public BigDecimal toUSGallons(ConversionContext context) {
+		VolumeConverter.count(Unit.Milliliter, Unit.USGallon);
+		return US_GALLONS_IN_A_MILLILITER.applyTo(this.milliliters, context);
+	}
+
+	public BigDecimal toUSFluidOunces() {
+		return this.toUSFluidOunces(this.context);
+	}
+
+	public BigDecimal toUSFluidOunces(ConversionContext context) {
+		VolumeConverter.count(Unit.Milliliter, Unit.USFluidOunce);
+		return US_FLUID_OUNCES_IN_A_MILLILITER.applyTo(this.milliliters,
+				context);
+	}
+
+	public BigDecimal toImperialGallons() {
+		return this.toImperialGallons(this.context);
+	}
+
+	public BigDecimal toImperialGallons(ConversionContext context) {
+		VolumeConverter.count(Unit.Milliliter, Unit.ImperialGallon);
+		return IMPERIAL_GALLONS_IN_A_MILLILITER.applyTo(this.milliliters,
+				context);
+	}
+
+	public BigDecimal toImperialFluidOunces() {
+		return this.toImperialFluidOunces(this.context);
+	}
+
+	public BigDecimal toImperialFluidOunces(ConversionContext context) {
+		VolumeConverter.count(Unit.Milliliter, Unit.ImperialFluidOunce);
+		return IMPERIAL_FLUID_OUNCES_IN_A_MILLILITER.applyTo(this.milliliters,
+				context);
+	}
+
+	// Primitive conversion
+
+	/**
+	 * Converts a single value as a double, without creating a converter or
+	 * any other object. The result is the value multiplied by the nearest
+	 * double to the exact factor between the units.
+	 *
+	 * @param value
+	 *            The value to convert.
+	 * @param from
+	 *            The unit the value is in.
+	 * @param to
+	 *            The unit to express the value in.
+	 * @return The converted value.
+	 */
+	public static double convert(double value, Unit from, Unit to) {
+		final long start = ConversionMetrics.start();
+		final double result = value * from.factorTo(to);
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), 1, start);
+		return result;
+	}
+
+	// Bulk conversion
+
+	/**
+	 * <p>
+	 * Converts volumes from the source array, starting at sourceOffset, into
+	 * the destination array, starting at destinationOffset. Arrays of more
+	 * than BulkConversion.THRESHOLD values are split across the common
+	 * ForkJoinPool, smaller ones are converted on the calling thread.
+	 * </p>
+	 *
+	 * <p>
+	 * As with System.arraycopy the source and destination may be the same
+	 * array.
+	 * </p>
+	 *
+	 * @param from
+	 *            The unit the source values are in.
+	 * @param source
+	 *            The values to convert.
+	 * @param sourceOffset
+	 *            The index of the first value to convert.
+	 * @param to
+	 *            The unit to write the converted values in.
+	 * @param destination
+	 *            The array to write the converted values to.
+	 * @param destinationOffset
+	 *            The index to write the first converted value to.
+	 * @param length
+	 *            The number of values to convert.
+	 */
+	public static void convert(Unit from, double[] source, int sourceOffset,
+			Unit to, double[] destination, int destinationOffset, int length) {
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, sourceOffset, destination,
+				destinationOffset, length, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), length, start);
+	}
+
+	/**
+	 * Converts whole numbers of the from unit as convert(Unit, double[], int,
+	 * Unit, double[], int, int) does.
+	 */
+	public static void convert(Unit from, long[] source, int sourceOffset,
+			Unit to, double[] destination, int destinationOffset, int length) {
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, sourceOffset, destination,
+				destinationOffset, length, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), length, start);
+	}
+
+	/**
+	 * Converts exact volumes as convert(Unit, double[], int, Unit, double[],
+	 * int, int) does, rounding each value once as described by the context.
+	 */
+	public static void convert(Unit from, BigDecimal[] source,
+			int sourceOffset, Unit to, BigDecimal[] destination,
+			int destinationOffset, int length, ConversionContext context) {
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, sourceOffset, destination,
+				destinationOffset, length, from.ratioTo(to), context);
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), length, start);
+	}
+
+	/**
+	 * Converts the remaining values of the source buffer into the destination
+	 * buffer in place, advancing both positions past them. Direct buffers are
+	 * read and written where they are, without a copy onto the heap.
+	 *
+	 * @param from
+	 *            The unit the source values are in.
+	 * @param source
+	 *            The values to convert.
+	 * @param to
+	 *            The unit to write the converted values in.
+	 * @param destination
+	 *            The buffer to write the converted values to, which may be
+	 *            the source itself.
+	 */
+	public static void convert(Unit from, DoubleBuffer source, Unit to,
+			DoubleBuffer destination) {
+		final int count = source.remaining();
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, destination, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), count, start);
+	}
+
+	/**
+	 * Converts whole values from the source buffer into the destination
+	 * buffer. This behaves exactly like the DoubleBuffer variant of this
+	 * method.
+	 */
+	public static void convert(Unit from, LongBuffer source, Unit to,
+			DoubleBuffer destination) {
+		final int count = source.remaining();
+		final long start = ConversionMetrics.start();
+		BulkConversion.convert(source, destination, from.factorTo(to));
+		ConversionMetrics.stop(from.getMeasurementUnit(),
+				to.getMeasurementUnit(), count, start);
+	}
+
+	// Output as a String
+
+	/**
+	 * Writes this volume the way toString does, without String.format or any
+	 * intermediate BigDecimal or String.
+	 *
+	 * In the event the Appendable fails a runtime exception of the type
+	 * UncheckedIOException will be thrown.
+	 *
+	 * @param out
+	 *            Where to write, usually a StringBuilder.
+	 * @return The same Appendable.
+	 */
+	public <A extends Appendable> A formatTo(A out) {
+		try {
+			FORMAT.formatTo(this.milliliters, out);
+			return out;
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.formatTo(new StringBuilder(24)).toString();
+	}
 }
@@ -1,8 +1,13 @@
 package com.gunnarhoffman.converters.concrete.distance;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 
+import com.gunnarhoffman.converters.ConversionContext;
 import com.gunnarhoffman.converters.DistanceConverter;
+import com.gunnarhoffman.converters.QuantityFormat;
+import com.gunnarhoffman.converters.Rational;
 
 /**
  * A concrete implementation of the DistanceConverter class that uses a base
@@ -13,137 +18,167 @@ import com.gunnarhoffman.converters.DistanceConverter;
  */
 public class ImperialDistanceConverter extends DistanceConverter {
 
+	/*
+	 * The number of each output unit in one inch, as the UnitRegistry holds it
+	 * exactly, so every conversion rounds once and terminating factors never
+	 * divide. An inch is exactly 25.4 millimeters.
+	 */
+	private static final Rational METERS_IN_AN_INCH = DistanceConverter.Unit.Inch
+			.ratioTo(DistanceConverter.Unit.Meter);
+	private static final Rational KILOMETERS_IN_AN_INCH = DistanceConverter.Unit.Inch
+			.ratioTo(DistanceConverter.Unit.Kilometer);
+	private static final Rational FEET_IN_AN_INCH = DistanceConverter.Unit.Inch
+			.ratioTo(DistanceConverter.Unit.Foot);
+	private static final Rational YARDS_IN_AN_INCH = DistanceConverter.Unit.Inch
+			.ratioTo(DistanceConverter.Unit.Yard);
+	private static final Rational MILES_IN_AN_INCH = DistanceConverter.Unit.Inch
+			.ratioTo(DistanceConverter.Unit.Mile);
+	private static final Rational ASTRONOMICAL_UNITS_IN_AN_INCH = DistanceConverter.Unit.Inch
+			.ratioTo(DistanceConverter.Unit.AstronomicalUnit);
+	private static final Rational LIGHT_YEARS_IN_AN_INCH = DistanceConverter.Unit.Inch
+			.ratioTo(DistanceConverter.Unit.LightYear);
+	private static final Rational PARSECS_IN_AN_INCH = DistanceConverter.Unit.Inch
+			.ratioTo(DistanceConverter.Unit.Parsec);
+
+	/*
+	 * The units toString writes, largest first. Their sizes come from the
+	 * same ratios as the output methods, so toString picks a unit exactly
+	 * when its output method returns at least one.
+	 */
+	private static final QuantityFormat FORMAT = new QuantityFormat(
+			new BigDecimal[] {
+					ImperialDistanceConverter.inchesIn(DistanceConverter.Unit.Parsec),
+					ImperialDistanceConverter.inchesIn(DistanceConverter.Unit.LightYear),
+					ImperialDistanceConverter.inchesIn(DistanceConverter.Unit.AstronomicalUnit),
+					ImperialDistanceConverter.inchesIn(DistanceConverter.Unit.Mile),
+					ImperialDistanceConverter.inchesIn(DistanceConverter.Unit.Yard),
+					ImperialDistanceConverter.inchesIn(DistanceConverter.Unit.Foot),
+					BigDecimal.ONE },
+			new String[] { " Parsecs", " Light Years", " Astronumical Units",
+					" Miles", " Yards", " Feet", " Inches" },
+			new int[] { 2, 2, 2, 2, 2, 2, 2 });
+
 	public ImperialDistanceConverter(BigDecimal inches) {
 		this.setUnit(inches);
 	}
 
+	/*
+	 * Sizes that do not terminate in inches, such as the light year, are
+	 * kept to 34 significant digits.
+	 */
+	private static BigDecimal inchesIn(DistanceConverter.Unit unit) {
+		return unit.ratioTo(DistanceConverter.Unit.Inch).toBigDecimal(
+				ConversionContext.DECIMAL128);
+	}
+
 	// Metric output
 
 	@Override
-	public BigDecimal toMicrometers() {
+	public BigDecimal toMicrometers(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Inch,
+				DistanceConverter.Unit.Micrometer);
 		return this.getUnit()
 				.multiply(DistanceConverter.MICROMETERS_IN_AN_INCH);
 	}
 
 	@Override
-	public BigDecimal toMilimeters() {
+	public BigDecimal toMilimeters(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Inch,
+				DistanceConverter.Unit.Millimeter);
 		return this.getUnit()
 				.multiply(DistanceConverter.MILLIMETERS_IN_AN_INCH);
 	}
 
 	@Override
-	public BigDecimal toCentimeters() {
+	public BigDecimal toCentimeters(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Inch,
+				DistanceConverter.Unit.Centimeter);
 		return this.getUnit()
 				.multiply(DistanceConverter.CENTAMETERS_IN_AN_INCH);
 	}
 
 	@Override
-	public BigDecimal toMeters() {
-		return this.getUnit()
-				.divide(DistanceConverter.INCHES_IN_A_METER, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+	public BigDecimal toMeters(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Inch,
+				DistanceConverter.Unit.Meter);
+		return METERS_IN_AN_INCH.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toKilometers() {
-		return this.getUnit()
-				.divide(DistanceConverter.INCHES_IN_A_KILOMETER, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+	public BigDecimal toKilometers(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Inch,
+				DistanceConverter.Unit.Kilometer);
+		return KILOMETERS_IN_AN_INCH.applyTo(this.getUnit(), context);
 	}
 
 	// Imperial output
 
 	@Override
-	public BigDecimal toInches() {
+	public BigDecimal toInches(ConversionContext context) {
 		return this.getUnit();
 	}
 
 	@Override
-	public BigDecimal toFeet() {
-		return this.getUnit()
-				.divide(DistanceConverter.INCHES_IN_A_FOOT, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+	public BigDecimal toFeet(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Inch,
+				DistanceConverter.Unit.Foot);
+		return FEET_IN_AN_INCH.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toYards() {
-		return this.getUnit()
-				.divide(DistanceConverter.INCHES_IN_A_YARD, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+	public BigDecimal toYards(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Inch,
+				DistanceConverter.Unit.Yard);
+		return YARDS_IN_AN_INCH.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toMiles() {
-		return this.getUnit()
-				.divide(DistanceConverter.INCHES_IN_A_MILE, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+	public BigDecimal toMiles(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Inch,
+				DistanceConverter.Unit.Mile);
+		return MILES_IN_AN_INCH.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toAstronomicalUnits() {
-		return this.getUnit()
-				.divide(DistanceConverter.INCHES_IN_AN_ASTRONOMICAL_UNIT,
-						DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+	public BigDecimal toAstronomicalUnits(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Inch,
+				DistanceConverter.Unit.AstronomicalUnit);
+		return ASTRONOMICAL_UNITS_IN_AN_INCH.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toLightYears() {
-		return this.getUnit()
-				.divide(DistanceConverter.INCHES_IN_A_LIGHT_YEAR, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+	public BigDecimal toLightYears(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Inch,
+				DistanceConverter.Unit.LightYear);
+		return LIGHT_YEARS_IN_AN_INCH.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toParsecs() {
-		return this.getUnit()
-				.divide(DistanceConverter.INCHES_IN_A_PARSEC, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+	public BigDecimal toParsecs(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Inch,
+				DistanceConverter.Unit.Parsec);
+		return PARSECS_IN_AN_INCH.applyTo(this.getUnit(), context);
 	}
 
 	// String output
 
+	@Override
+	public <A extends Appendable> A formatTo(A out) {
+		try {
+			FORMAT.formatTo(this.getUnit(), out);
+			return out;
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
 	/*
 	 * This method will output as imperial units of measure unless it is large
 	 * enough for astronomical.
 	 */
 	@Override
 	public String toString() {
-
-		if (this.getUnit()
-				.compareTo(DistanceConverter.INCHES_IN_A_PARSEC) >= 0) {
-			return String.format("%.2f Parsecs", this.toParsecs()
-					.doubleValue());
-
-		} else if (this.getUnit()
-				.compareTo(DistanceConverter.INCHES_IN_A_LIGHT_YEAR) >= 0) {
-			return String.format("%.2f Light Years", this.toLightYears()
-					.doubleValue());
-
-		} else if (this.getUnit()
-				.compareTo(DistanceConverter.INCHES_IN_AN_ASTRONOMICAL_UNIT) >= 0) {
-			return String.format("%.2f Astronumical Units",
-					this.toAstronomicalUnits()
-							.doubleValue());
-
-		} else if (this.getUnit()
-				.compareTo(DistanceConverter.INCHES_IN_A_MILE) >= 0) {
-			return String.format("%.2f Miles", this.toMiles()
-					.doubleValue());
-
-		} else if (this.getUnit()
-				.compareTo(DistanceConverter.INCHES_IN_A_YARD) >= 0) {
-			return String.format("%.2f Yards", this.toYards()
-					.doubleValue());
-
-		} else if (this.getUnit()
-				.compareTo(DistanceConverter.INCHES_IN_A_FOOT) >= 0) {
-			return String.format("%.2f Feet", this.toFeet()
-					.doubleValue());
-
-		} else {
-			return String.format("%.2f Inches", this.toInches()
-					.doubleValue());
-		}
+		return this.formatTo(new StringBuilder(32)).toString();
 	}
 
 }
@@ -1,8 +1,13 @@
 package com.gunnarhoffman.converters.concrete.distance;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 
+import com.gunnarhoffman.converters.ConversionContext;
 import com.gunnarhoffman.converters.DistanceConverter;
+import com.gunnarhoffman.converters.QuantityFormat;
+import com.gunnarhoffman.converters.Rational;
 
 /**
  * A concrete implementation of the DistanceConverter class that uses a base
@@ -13,94 +18,157 @@ import com.gunnarhoffman.converters.DistanceConverter;
  */
 public class MetricDistanceConverter extends DistanceConverter {
 
+	/*
+	 * The number of each output unit in one micrometer, as the UnitRegistry
+	 * holds it exactly, so every conversion rounds once and terminating
+	 * factors never divide.
+	 */
+	private static final Rational MILLIMETERS_IN_A_MICROMETER = DistanceConverter.Unit.Micrometer
+			.ratioTo(DistanceConverter.Unit.Millimeter);
+	private static final Rational CENTIMETERS_IN_A_MICROMETER = DistanceConverter.Unit.Micrometer
+			.ratioTo(DistanceConverter.Unit.Centimeter);
+	private static final Rational METERS_IN_A_MICROMETER = DistanceConverter.Unit.Micrometer
+			.ratioTo(DistanceConverter.Unit.Meter);
+	private static final Rational KILOMETERS_IN_A_MICROMETER = DistanceConverter.Unit.Micrometer
+			.ratioTo(DistanceConverter.Unit.Kilometer);
+	private static final Rational INCHES_IN_A_MICROMETER = DistanceConverter.Unit.Micrometer
+			.ratioTo(DistanceConverter.Unit.Inch);
+	private static final Rational FEET_IN_A_MICROMETER = DistanceConverter.Unit.Micrometer
+			.ratioTo(DistanceConverter.Unit.Foot);
+	private static final Rational YARDS_IN_A_MICROMETER = DistanceConverter.Unit.Micrometer
+			.ratioTo(DistanceConverter.Unit.Yard);
+	private static final Rational MILES_IN_A_MICROMETER = DistanceConverter.Unit.Micrometer
+			.ratioTo(DistanceConverter.Unit.Mile);
+	private static final Rational ASTRONOMICAL_UNITS_IN_A_MICROMETER = DistanceConverter.Unit.Micrometer
+			.ratioTo(DistanceConverter.Unit.AstronomicalUnit);
+	private static final Rational LIGHT_YEARS_IN_A_MICROMETER = DistanceConverter.Unit.Micrometer
+			.ratioTo(DistanceConverter.Unit.LightYear);
+	private static final Rational PARSECS_IN_A_MICROMETER = DistanceConverter.Unit.Micrometer
+			.ratioTo(DistanceConverter.Unit.Parsec);
+
+	/*
+	 * The units toString writes, largest first. Their sizes come from the
+	 * same ratios as the output methods, so toString picks a unit exactly
+	 * when its output method returns at least one.
+	 */
+	private static final QuantityFormat FORMAT = new QuantityFormat(
+			new BigDecimal[] {
+					MetricDistanceConverter.micrometersIn(DistanceConverter.Unit.Parsec),
+					MetricDistanceConverter.micrometersIn(DistanceConverter.Unit.LightYear),
+					MetricDistanceConverter.micrometersIn(DistanceConverter.Unit.AstronomicalUnit),
+					MetricDistanceConverter.micrometersIn(DistanceConverter.Unit.Kilometer),
+					MetricDistanceConverter.micrometersIn(DistanceConverter.Unit.Meter),
+					MetricDistanceConverter.micrometersIn(DistanceConverter.Unit.Centimeter),
+					MetricDistanceConverter.micrometersIn(DistanceConverter.Unit.Millimeter),
+					BigDecimal.ONE },
+			new String[] { " Parsecs", " Light Years", " Astronumical Units",
+					" Kilometers", " Meters", " Centimeters", " Milimeters",
+					" Micrometers" },
+			new int[] { 2, 2, 2, 2, 2, 2, 2, 2 });
+
 	public MetricDistanceConverter(BigDecimal micrometers) {
 		this.setUnit(micrometers);
 	}
 
+	private static BigDecimal micrometersIn(DistanceConverter.Unit unit) {
+		return unit.ratioTo(DistanceConverter.Unit.Micrometer).toBigDecimal(
+				ConversionContext.DECIMAL128);
+	}
+
 	// Metric output
 
 	@Override
-	public BigDecimal toMicrometers() {
+	public BigDecimal toMicrometers(ConversionContext context) {
 		return this.getUnit();
 	}
 
 	@Override
-	public BigDecimal toMilimeters() {
-		return this.getUnit()
-				.divide(DistanceConverter.MICROMETERS_IN_A_MILAMETER,
-						DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+	public BigDecimal toMilimeters(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Micrometer,
+				DistanceConverter.Unit.Millimeter);
+		return MILLIMETERS_IN_A_MICROMETER.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toCentimeters() {
-		return this.getUnit()
-				.divide(DistanceConverter.MICROMETERS_IN_A_CENTIMETER,
-						DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+	public BigDecimal toCentimeters(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Micrometer,
+				DistanceConverter.Unit.Centimeter);
+		return CENTIMETERS_IN_A_MICROMETER.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toMeters() {
-		return this.getUnit()
-				.divide(DistanceConverter.MICROMETERS_IN_A_METER,
-						DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+	public BigDecimal toMeters(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Micrometer,
+				DistanceConverter.Unit.Meter);
+		return METERS_IN_A_MICROMETER.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toKilometers() {
-		return this.getUnit()
-				.divide(DistanceConverter.MICROMETERS_IN_A_KILOMETER,
-						DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+	public BigDecimal toKilometers(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Micrometer,
+				DistanceConverter.Unit.Kilometer);
+		return KILOMETERS_IN_A_MICROMETER.applyTo(this.getUnit(), context);
 	}
 
 	// Imperial output
 
 	@Override
-	public BigDecimal toInches() {
-		return this.getUnit()
-				.divide(DistanceConverter.MICROMETERS_IN_AN_INCH,
-						DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+	public BigDecimal toInches(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Micrometer,
+				DistanceConverter.Unit.Inch);
+		return INCHES_IN_A_MICROMETER.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toFeet() {
-		return this.getUnit()
-				.divide(DistanceConverter.MICROMETERS_IN_A_FOOT, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+	public BigDecimal toFeet(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Micrometer,
+				DistanceConverter.Unit.Foot);
+		return FEET_IN_A_MICROMETER.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toYards() {
-		return this.getUnit()
-				.divide(DistanceConverter.MICROMETERS_IN_A_YARD, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+	public BigDecimal toYards(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Micrometer,
+				DistanceConverter.Unit.Yard);
+		return YARDS_IN_A_MICROMETER.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toMiles() {
-		return this.getUnit()
-				.divide(DistanceConverter.MICROMETERS_IN_A_MILE, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE);
+	public BigDecimal toMiles(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Micrometer,
+				DistanceConverter.Unit.Mile);
+		return MILES_IN_A_MICROMETER.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toAstronomicalUnits() {
-		return this.getUnit()
-				.divide(DistanceConverter.MICROMETERS_IN_AN_ASTRONOMICAL_UNIT,
-						DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+	public BigDecimal toAstronomicalUnits(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Micrometer,
+				DistanceConverter.Unit.AstronomicalUnit);
+		return ASTRONOMICAL_UNITS_IN_A_MICROMETER.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toLightYears() {
-		return this.getUnit()
-				.divide(DistanceConverter.MICROMETERS_IN_A_LIGHT_YEAR,
-						DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+	public BigDecimal toLightYears(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Micrometer,
+				DistanceConverter.Unit.LightYear);
+		return LIGHT_YEARS_IN_A_MICROMETER.applyTo(this.getUnit(), context);
 	}
 
 	@Override
-	public BigDecimal toParsecs() {
-		return this.getUnit()
-				.divide(DistanceConverter.MICROMETERS_IN_A_PARSEC,
-						DEFAULT_SCALE, DEFAULT_ROUNDING_MODE);
+	public BigDecimal toParsecs(ConversionContext context) {
+		DistanceConverter.count(DistanceConverter.Unit.Micrometer,
+				DistanceConverter.Unit.Parsec);
+		return PARSECS_IN_A_MICROMETER.applyTo(this.getUnit(), context);
+	}
+
+	@Override
+	public <A extends Appendable> A formatTo(A out) {
+		try {
+			FORMAT.formatTo(this.getUnit(), out);
+			return out;
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
 	}
 
 	/*
@@ -109,48 +177,7 @@ public class MetricDistanceConverter extends DistanceConverter {
 	 */
 	@Override
 	public String toString() {
-
-		if (this.getUnit()
-				.compareTo(DistanceConverter.MICROMETERS_IN_A_PARSEC) >= 0) {
-			return String.format("%.2f Parsecs", this.toParsecs()
-					.doubleValue());
-
-		} else if (this.getUnit()
-				.compareTo(DistanceConverter.MICROMETERS_IN_A_LIGHT_YEAR) >= 0) {
-			return String.format("%.2f Light Years", this.toLightYears()
-					.doubleValue());
-
-		} else if (this.getUnit()
-				.compareTo(
-						DistanceConverter.MICROMETERS_IN_AN_ASTRONOMICAL_UNIT) >= 0) {
-			return String.format("%.2f Astronumical Units",
-					this.toAstronomicalUnits()
-							.doubleValue());
-
-		} else if (this.getUnit()
-				.compareTo(DistanceConverter.MICROMETERS_IN_A_KILOMETER) >= 0) {
-			return String.format("%.2f Kilometers", this.toKilometers()
-					.doubleValue());
-
-		} else if (this.getUnit()
-				.compareTo(DistanceConverter.MICROMETERS_IN_A_METER) >= 0) {
-			return String.format("%.2f Meters", this.toMeters()
-					.doubleValue());
-
-		} else if (this.getUnit()
-				.compareTo(DistanceConverter.MICROMETERS_IN_A_CENTIMETER) >= 0) {
-			return String.format("%.2f Centimeters", this.toCentimeters()
-					.doubleValue());
-
-		} else if (this.getUnit()
-				.compareTo(DistanceConverter.MICROMETERS_IN_A_MILAMETER) >= 0) {
-			return String.format("%.2f Milimeters", this.toMilimeters()
-					.doubleValue());
-
-		} else {
-			return String.format("%.2f Micrometers", this.toMicrometers()
-					.doubleValue());
-		}
+		return this.formatTo(new StringBuilder(32)).toString();
 	}
 
 }
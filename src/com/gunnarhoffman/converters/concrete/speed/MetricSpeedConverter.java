@@ -2,6 +2,8 @@ package com.gunnarhoffman.converters.concrete.speed;
 
 import java.math.BigDecimal;
 
+import com.gunnarhoffman.converters.DistanceConverter;
+import com.gunnarhoffman.converters.Rational;
 import com.gunnarhoffman.converters.SpeedConverter;
 
 /**
@@ -14,61 +16,14 @@ import com.gunnarhoffman.converters.SpeedConverter;
 public class MetricSpeedConverter extends SpeedConverter {
 
 	public MetricSpeedConverter(BigDecimal metersPerSecond) {
-		super(metersPerSecond);
+		super(DistanceConverter.Unit.Meter, metersPerSecond);
 	}
 
-	@Override
-	public BigDecimal toMetersPer(TimeIncrement increment) {
-		return this.getUnit()
-				.multiply(increment.getSeconds());
-	}
-
-	@Override
-	public BigDecimal toFeetPer(TimeIncrement increment) {
-		return this.getUnit()
-				.multiply(SpeedConverter.FEET_IN_A_METER)
-				.multiply(increment.getSeconds());
-	}
-
-	@Override
-	public BigDecimal toKilometersPer(TimeIncrement increment) {
-		return this.getUnit()
-				.divide(SpeedConverter.METERS_IN_A_KILOMETER, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE)
-				.multiply(increment.getSeconds());
-	}
-
-	@Override
-	public BigDecimal toMilesPer(TimeIncrement increment) {
-		return this.getUnit()
-				.multiply(SpeedConverter.FEET_IN_A_METER)
-				.divide(SpeedConverter.FEET_IN_A_MILE, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE)
-				.multiply(increment.getSeconds());
-	}
-
-	@Override
-	public BigDecimal toAstronomicalUnitsPer(TimeIncrement increment) {
-		return this.getUnit()
-				.divide(SpeedConverter.METERS_IN_AN_ASTRONOMICAL_UNIT,
-						DEFAULT_SCALE, DEFAULT_ROUNDING_MODE)
-				.multiply(increment.getSeconds());
-	}
-
-	@Override
-	public BigDecimal toLightYearsPer(TimeIncrement increment) {
-		return this.getUnit()
-				.divide(SpeedConverter.METERS_IN_A_LIGHT_YEAR, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE)
-				.multiply(increment.getSeconds());
-	}
-
-	@Override
-	public BigDecimal toParsecsPer(TimeIncrement increment) {
-		return this.getUnit()
-				.divide(SpeedConverter.METERS_IN_A_PARSEC, DEFAULT_SCALE,
-						DEFAULT_ROUNDING_MODE)
-				.multiply(increment.getSeconds());
+	/**
+	 * Creates a speed of amount * toMetersPerSecond meters per second.
+	 */
+	public MetricSpeedConverter(BigDecimal amount, Rational toMetersPerSecond) {
+		super(DistanceConverter.Unit.Meter, amount, toMetersPerSecond);
 	}
 
 	@Override
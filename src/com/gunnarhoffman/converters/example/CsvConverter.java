@@ -0,0 +1,439 @@
+package com.gunnarhoffman.converters.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.InvalidParameterException;
+
+import com.gunnarhoffman.converters.MeasurementUnit;
+import com.gunnarhoffman.converters.UnitRegistry;
+
+/**
+ * <p>
+ * Converts one numeric column of a CSV file from one unit to another, for
+ * example a column of Megabytes to Gigabytes or of Milliseconds to Seconds.
+ * Every other field is copied through unchanged, as is any field of the
+ * column that is not a number, such as a header.
+ * </p>
+ *
+ * <p>
+ * The input is memory mapped a window at a time and the column is parsed
+ * straight from the mapped bytes, so no Strings are created per line. Output
+ * goes through a single reused direct buffer. Memory use therefore stays the
+ * same whatever the size of the file. A window ends after its last new
+ * line, and a quoted field holding new lines may carry on into the next
+ * window. Lines may end in a carriage return and a new line, and the last line
+ * need not end at all.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ * <code>CsvConverter input output column from to [decimals]</code> where
+ * column counts from zero, from and to name a unit of the UnitRegistry (for
+ * example MB, Megabytes or Kilometer, names in any case) and decimals is the
+ * number of decimal places written, 9 unless given.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public class CsvConverter {
+
+	// Constants
+
+	private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+	private static final int OUTPUT_BUFFER_SIZE = 1024 * 1024;
+	private static final int DEFAULT_DECIMALS = 9;
+	private static final int MAXIMUM_DECIMALS = 15;
+
+	/*
+	 * Double can represent every integer below 2^53 and every power of ten up
+	 * to 10^22 exactly, so one multiplication or division of the two is
+	 * correctly rounded.
+	 */
+	private static final long LARGEST_EXACT_MANTISSA = 1L << 53;
+	private static final int LARGEST_EXACT_POWER = 22;
+	private static final int MAXIMUM_MANTISSA_DIGITS = 18;
+
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+			1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+	private static final long[] LONG_POWERS_OF_TEN = { 1L, 10L, 100L, 1000L,
+			10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+			10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+			100000000000000L, 1000000000000000L };
+
+	// Instance fields
+
+	private final int column;
+	private final double factor;
+	private final int decimals;
+	private final int windowSize;
+
+	private final FileChannel output;
+	private final ByteBuffer buffer = ByteBuffer
+			.allocateDirect(OUTPUT_BUFFER_SIZE);
+	private final byte[] digits = new byte[20];
+
+	/*
+	 * Where the previous window stopped: the field of the line it was in,
+	 * whether that field was quoted and so goes on in this window.
+	 */
+	private int field;
+	private boolean quoted;
+	private boolean continued;
+
+	// Constructor
+
+	private CsvConverter(int column, double factor, int decimals,
+			int windowSize, FileChannel output) {
+		this.column = column;
+		this.factor = factor;
+		this.decimals = decimals;
+		this.windowSize = windowSize;
+		this.output = output;
+	}
+
+	public static void main(String[] args) {
+
+		if (args.length < 5 || args.length > 6) {
+			System.err.println("usage: CsvConverter input output column from to"
+					+ " [decimals]");
+			System.exit(1);
+		}
+
+		try {
+			CsvConverter.convert(Paths.get(args[0]), Paths.get(args[1]),
+					Integer.parseInt(args[2]), args[3], args[4],
+					args.length == 6 ? Integer.parseInt(args[5])
+							: DEFAULT_DECIMALS, WINDOW_SIZE);
+		} catch (IOException | RuntimeException exception) {
+			System.err.println(exception.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Converts a column of the input file into the output file as main does,
+	 * mapping windowSize bytes of the input at a time. No line may be longer
+	 * than a window.
+	 *
+	 * In the event the column is negative, the units are unknown or of
+	 * different dimensions, decimals is out of range or the window size is not
+	 * positive a runtime exception of the type InvalidParameterException will
+	 * be thrown.
+	 */
+	public static void convert(Path input, Path output, int column,
+			String from, String to, int decimals, int windowSize)
+			throws IOException {
+		double factor = CsvConverter.factor(from, to);
+		if (column < 0) {
+			throw new InvalidParameterException(
+					"a negative column makes no sense!");
+		}
+		if (decimals < 0 || decimals > MAXIMUM_DECIMALS) {
+			throw new InvalidParameterException(
+					"decimals must be between 0 and " + MAXIMUM_DECIMALS + "!");
+		}
+		if (windowSize <= 0) {
+			throw new InvalidParameterException(
+					"the window size must be positive!");
+		}
+
+		try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(output,
+						StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING,
+						StandardOpenOption.WRITE)) {
+			new CsvConverter(column, factor, decimals, windowSize, out)
+					.convert(in);
+		}
+	}
+
+	// Unit lookup
+
+	/*
+	 * Finds the factor between two units of the same dimension, accepting unit
+	 * symbols, and names in any case and in the plural.
+	 */
+	private static double factor(String from, String to) {
+		MeasurementUnit fromUnit = UnitRegistry.find(from);
+		MeasurementUnit toUnit = UnitRegistry.find(to);
+		if (fromUnit == null || toUnit == null
+				|| fromUnit.getDimension() != toUnit.getDimension()) {
+			throw new InvalidParameterException("cannot convert " + from
+					+ " to " + to + "!");
+		}
+		return fromUnit.factorTo(toUnit);
+	}
+
+	// Conversion
+
+	private void convert(FileChannel input) throws IOException {
+
+		long size = input.size();
+		long position = 0;
+
+		while (position < size) {
+			int length = (int) Math.min(this.windowSize, size - position);
+			MappedByteBuffer window = input.map(MapMode.READ_ONLY, position,
+					length);
+
+			// A window ends after its last new line, the rest starts the next.
+			int end = length;
+			if (position + length < size) {
+				end = CsvConverter.lastLineEnd(window, length);
+				if (end == 0) {
+					throw new InvalidParameterException("a line is longer than "
+							+ this.windowSize + " bytes!");
+				}
+			}
+
+			this.convertLines(window, end);
+			position += end;
+		}
+
+		this.flush();
+	}
+
+	private static int lastLineEnd(ByteBuffer window, int length) {
+		for (int index = length - 1; index >= 0; index--) {
+			if (window.get(index) == '\n') {
+				return index + 1;
+			}
+		}
+		return 0;
+	}
+
+	/*
+	 * The window need not start on a line of its own: a new line inside quotes
+	 * may have ended the previous one, in which case the quoted field carries
+	 * on here.
+	 */
+	private void convertLines(ByteBuffer window, int end) throws IOException {
+
+		int field = this.field;
+		int start = 0;
+		boolean quoted = this.quoted;
+
+		for (int index = 0; index < end; index++) {
+			byte character = window.get(index);
+
+			if (character == '"') {
+				quoted = !quoted;
+
+			} else if (!quoted && (character == ',' || character == '\n')) {
+				this.writeField(window, start, index, field);
+				this.write(character);
+				field = character == '\n' ? 0 : field + 1;
+				start = index + 1;
+			}
+		}
+
+		// The last line of a file need not end in a new line.
+		if (start < end) {
+			this.writeField(window, start, end, field);
+		}
+
+		this.field = field;
+		this.quoted = quoted;
+		this.continued = quoted;
+	}
+
+	private void writeField(ByteBuffer window, int start, int end, int field)
+			throws IOException {
+
+		// The rest of a quoted field begun in the previous window.
+		if (this.continued) {
+			this.continued = false;
+			this.copy(window, start, end);
+			return;
+		}
+
+		// Leave the carriage return of a Windows line ending in place.
+		int valueEnd = end;
+		if (valueEnd > start && window.get(valueEnd - 1) == '\r') {
+			valueEnd--;
+		}
+
+		if (field == this.column && valueEnd > start) {
+			double value = CsvConverter.parse(window, start, valueEnd);
+			if (!Double.isNaN(value)) {
+				this.writeNumber(value * this.factor);
+				this.copy(window, valueEnd, end);
+				return;
+			}
+		}
+		this.copy(window, start, end);
+	}
+
+	// Input
+
+	/*
+	 * Parses a plain or scientific decimal number from the given bytes, or
+	 * returns NaN should they not hold one. Numbers a double cannot be built
+	 * from exactly in one step are rare and fall back to Double.parseDouble.
+	 */
+	private static double parse(ByteBuffer window, int start, int end) {
+
+		int index = start;
+		boolean negative = false;
+		byte character = window.get(index);
+		if (character == '-' || character == '+') {
+			negative = character == '-';
+			index++;
+		}
+
+		long mantissa = 0;
+		int mantissaDigits = 0;
+		int exponent = 0;
+		boolean seenDigit = false;
+		boolean seenPoint = false;
+		boolean exact = true;
+
+		for (; index < end; index++) {
+			character = window.get(index);
+			if (character >= '0' && character <= '9') {
+				seenDigit = true;
+				if (mantissaDigits < MAXIMUM_MANTISSA_DIGITS) {
+					mantissa = mantissa * 10 + (character - '0');
+					if (mantissa != 0) {
+						mantissaDigits++;
+					}
+					if (seenPoint) {
+						exponent--;
+					}
+				} else {
+					exact = false;
+					if (!seenPoint) {
+						exponent++;
+					}
+				}
+			} else if (character == '.' && !seenPoint) {
+				seenPoint = true;
+			} else {
+				break;
+			}
+		}
+
+		if (!seenDigit) {
+			return Double.NaN;
+		}
+
+		if (index < end) {
+			if (character != 'e' && character != 'E' || ++index == end) {
+				return Double.NaN;
+			}
+			boolean negativeExponent = false;
+			character = window.get(index);
+			if (character == '-' || character == '+') {
+				negativeExponent = character == '-';
+				if (++index == end) {
+					return Double.NaN;
+				}
+			}
+			int written = 0;
+			for (; index < end; index++) {
+				character = window.get(index);
+				if (character < '0' || character > '9') {
+					return Double.NaN;
+				}
+				written = Math.min(written * 10 + (character - '0'), 100000);
+			}
+			exponent += negativeExponent ? -written : written;
+		}
+
+		if (!exact || mantissa >= LARGEST_EXACT_MANTISSA
+				|| Math.abs(exponent) > LARGEST_EXACT_POWER) {
+			byte[] bytes = new byte[end - start];
+			for (int offset = 0; offset < bytes.length; offset++) {
+				bytes[offset] = window.get(start + offset);
+			}
+			return Double.parseDouble(new String(bytes,
+					StandardCharsets.US_ASCII));
+		}
+
+		double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+				: mantissa * POWERS_OF_TEN[exponent];
+		return negative ? -value : value;
+	}
+
+	// Output
+
+	/*
+	 * Writes the value rounded to the configured number of decimal places,
+	 * without trailing zeros. Values too large to scale into a long are rare
+	 * and fall back to Double.toString.
+	 */
+	private void writeNumber(double value) throws IOException {
+
+		double scaled = Math.rint(value * POWERS_OF_TEN[this.decimals]);
+		if (Double.isNaN(scaled) || Math.abs(scaled) >= 0x1p63) {
+			byte[] bytes = Double.toString(value).getBytes(
+					StandardCharsets.US_ASCII);
+			for (byte character : bytes) {
+				this.write(character);
+			}
+			return;
+		}
+
+		long number = (long) scaled;
+		if (number < 0) {
+			this.write((byte) '-');
+			number = -number;
+		}
+
+		long unit = LONG_POWERS_OF_TEN[this.decimals];
+		long fraction = number % unit;
+		this.writeDigits(number / unit, 1);
+
+		if (fraction != 0) {
+			int places = this.decimals;
+			while (fraction % 10 == 0) {
+				fraction /= 10;
+				places--;
+			}
+			this.write((byte) '.');
+			this.writeDigits(fraction, places);
+		}
+	}
+
+	private void writeDigits(long number, int width) throws IOException {
+		int count = 0;
+		while (number != 0 || count < width) {
+			this.digits[count++] = (byte) ('0' + number % 10);
+			number /= 10;
+		}
+		while (count > 0) {
+			this.write(this.digits[--count]);
+		}
+	}
+
+	private void copy(ByteBuffer window, int start, int end)
+			throws IOException {
+		for (int index = start; index < end; index++) {
+			this.write(window.get(index));
+		}
+	}
+
+	private void write(byte character) throws IOException {
+		if (!this.buffer.hasRemaining()) {
+			this.flush();
+		}
+		this.buffer.put(character);
+	}
+
+	private void flush() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining()) {
+			this.output.write(this.buffer);
+		}
+		this.buffer.clear();
+	}
+}
@@ -0,0 +1,47 @@
+package com.gunnarhoffman.converters.expression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded least recently used cache of compiled expressions keyed by their
+ * text. Once full, adding an expression evicts the one used longest ago.
+ * Access is synchronized so one cache can be shared by every thread.
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+final class PlanCache {
+
+	private final Map<String, QuantityExpression> plans;
+
+	PlanCache(final int capacity) {
+		this.plans = new LinkedHashMap<String, QuantityExpression>(16, 0.75f,
+				true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<String, QuantityExpression> eldest) {
+				return this.size() > capacity;
+			}
+		};
+	}
+
+	synchronized QuantityExpression get(String text) {
+		return this.plans.get(text);
+	}
+
+	synchronized void put(String text, QuantityExpression expression) {
+		this.plans.put(text, expression);
+	}
+
+	synchronized int size() {
+		return this.plans.size();
+	}
+
+	synchronized void clear() {
+		this.plans.clear();
+	}
+}
@@ -0,0 +1,140 @@
+package com.gunnarhoffman.converters.expression;
+
+import java.math.BigDecimal;
+
+import com.gunnarhoffman.converters.ConversionContext;
+import com.gunnarhoffman.converters.Dimension;
+import com.gunnarhoffman.converters.MeasurementUnit;
+import com.gunnarhoffman.converters.Rational;
+
+/**
+ * <p>
+ * A compiled quantity expression. For example
+ * <code>6000 MB - 1.34 GB in KB</code> is the expression form of
+ * <code>ByteConverter.fromMegabytes(6000).addGigabytes(-1.34).toKilobytes()</code>.
+ * The units are those of the UnitRegistry. Each is written as a symbol (MB,
+ * ms, km, kg) or as a name (megabytes).
+ * </p>
+ *
+ * <p>
+ * Compiling sums the quantities exactly, so decimal numbers are taken as
+ * written rather than as the nearest double, and the result is computed once.
+ * Compiled expressions are kept in a bounded cache keyed by their text, so
+ * evaluating the same text again neither parses nor creates any objects.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class QuantityExpression {
+
+	// Constants
+
+	public static final int CACHE_SIZE = 1024;
+
+	private static final PlanCache CACHE = new PlanCache(CACHE_SIZE);
+
+	// Instance fields
+
+	private final String text;
+	private final BigDecimal baseUnits;
+	private final MeasurementUnit target;
+	private final Rational fromBase;
+	private final BigDecimal result;
+
+	// Constructor
+
+	QuantityExpression(String text, BigDecimal baseUnits,
+			MeasurementUnit target) {
+		this.text = text;
+		this.baseUnits = baseUnits;
+		this.target = target;
+		this.fromBase = target.getSize().reciprocal();
+		this.result = this.evaluate(ConversionContext.DEFAULT);
+	}
+
+	// Initializers
+
+	/**
+	 * <p>
+	 * Compiles the expression, or returns the cached compilation of the same
+	 * text.
+	 * </p>
+	 *
+	 * <p>
+	 * In the event the expression is malformed, mixes dimensions or comes to
+	 * a negative quantity a runtime exception of the type
+	 * InvalidParameterException will be thrown.
+	 * </p>
+	 */
+	public static QuantityExpression compile(String text) {
+		QuantityExpression expression = CACHE.get(text);
+		if (expression == null) {
+			expression = QuantityParser.parse(text);
+			CACHE.put(text, expression);
+		}
+		return expression;
+	}
+
+	/**
+	 * Evaluates the expression once, rounding with the default context.
+	 */
+	public static BigDecimal evaluate(String text) {
+		return QuantityExpression.compile(text).evaluate();
+	}
+
+	/**
+	 * Forgets every cached compilation.
+	 */
+	public static void clearCache() {
+		CACHE.clear();
+	}
+
+	// Getters
+
+	public String getText() {
+		return this.text;
+	}
+
+	public Dimension getDimension() {
+		return this.target.getDimension();
+	}
+
+	/**
+	 * The symbol of the unit the result is expressed in.
+	 */
+	public String getUnit() {
+		return this.target.getSymbol();
+	}
+
+	// Output
+
+	/**
+	 * Returns the result rounded with the default context. It is computed
+	 * when the expression is compiled.
+	 */
+	public BigDecimal evaluate() {
+		return this.result;
+	}
+
+	/**
+	 * Returns the result rounded once as described by the context.
+	 */
+	public BigDecimal evaluate(ConversionContext context) {
+		if (this.result != null && context.equals(ConversionContext.DEFAULT)) {
+			return this.result;
+		}
+		return this.fromBase.applyTo(this.baseUnits, context);
+	}
+
+	// Object
+
+	@Override
+	public String toString() {
+		return this.text;
+	}
+}
@@ -0,0 +1,168 @@
+package com.gunnarhoffman.converters.expression;
+
+import java.math.BigDecimal;
+import java.security.InvalidParameterException;
+import java.util.Locale;
+
+import com.gunnarhoffman.converters.ConversionContext;
+import com.gunnarhoffman.converters.MeasurementUnit;
+import com.gunnarhoffman.converters.UnitRegistry;
+
+/**
+ * <p>
+ * Parses expressions of the form
+ * <code>quantity (('+' | '-') quantity)* ['in' unit]</code> where each
+ * quantity is a decimal number followed by a unit, for example
+ * <code>6000 MB - 1.34 GB in KB</code>.
+ * </p>
+ * 
+ * <p>
+ * Every quantity is summed exactly in the base unit of its dimension. Should
+ * the target unit be left out the result is expressed in the unit of the
+ * first quantity.
+ * </p>
+ * 
+ * @author Gunnar Hoffman
+ * 
+ */
+final class QuantityParser {
+
+	private final String text;
+	private int position;
+
+	private QuantityParser(String text) {
+		this.text = text;
+	}
+
+	static QuantityExpression parse(String text) {
+		return new QuantityParser(text).parseExpression();
+	}
+
+	private QuantityExpression parseExpression() {
+
+		BigDecimal sum = BigDecimal.ZERO;
+		MeasurementUnit first = null;
+		boolean negative = false;
+
+		while (true) {
+			BigDecimal value = this.parseNumber();
+			MeasurementUnit unit = this.parseUnit();
+			if (first == null) {
+				first = unit;
+			} else if (unit.getDimension() != first.getDimension()) {
+				throw this.error("cannot combine " + first.getDimension()
+						+ " with " + unit.getDimension());
+			}
+
+			value = unit.getSize().applyTo(value, ConversionContext.DEFAULT);
+			sum = negative ? sum.subtract(value) : sum.add(value);
+
+			this.skipWhitespace();
+			if (this.consume('+')) {
+				negative = false;
+			} else if (this.consume('-')) {
+				negative = true;
+			} else {
+				break;
+			}
+		}
+
+		MeasurementUnit target = first;
+		if (this.position < this.text.length()) {
+			if (!"in".equals(this.parseWord())) {
+				throw this.error("expected + - or in");
+			}
+			target = this.parseUnit();
+			if (target.getDimension() != first.getDimension()) {
+				throw this.error("cannot express " + first.getDimension()
+						+ " in " + target.getSymbol());
+			}
+			this.skipWhitespace();
+			if (this.position < this.text.length()) {
+				throw this.error("unexpected text");
+			}
+		}
+
+		if (sum.signum() == -1) {
+			throw new InvalidParameterException("negative "
+					+ first.getDimension().name().toLowerCase(Locale.ROOT)
+					+ " makes no sense!");
+		}
+		return new QuantityExpression(this.text, sum, target);
+	}
+
+	private BigDecimal parseNumber() {
+		this.skipWhitespace();
+		int start = this.position;
+		if (this.position < this.text.length()
+				&& (this.peek() == '-' || this.peek() == '+')) {
+			this.position++;
+		}
+		while (this.position < this.text.length()) {
+			char character = this.peek();
+			if (Character.isDigit(character) || character == '.') {
+				this.position++;
+			} else if ((character == 'e' || character == 'E')
+					&& this.position + 1 < this.text.length()
+					&& "0123456789+-".indexOf(this.text
+							.charAt(this.position + 1)) >= 0) {
+				this.position += 2;
+			} else {
+				break;
+			}
+		}
+		try {
+			return new BigDecimal(this.text.substring(start, this.position));
+		} catch (NumberFormatException exception) {
+			this.position = start;
+			throw this.error("expected a number");
+		}
+	}
+
+	private MeasurementUnit parseUnit() {
+		int start = this.position;
+		String word = this.parseWord();
+		MeasurementUnit unit = UnitRegistry.find(word);
+		if (unit == null) {
+			this.position = start;
+			throw this.error("unknown unit '" + word + "'");
+		}
+		return unit;
+	}
+
+	private String parseWord() {
+		this.skipWhitespace();
+		int start = this.position;
+		// A word may end in digits, such as the 3 of m3.
+		while (this.position < this.text.length()
+				&& (Character.isLetter(this.peek()) || this.position > start
+						&& Character.isDigit(this.peek()))) {
+			this.position++;
+		}
+		return this.text.substring(start, this.position);
+	}
+
+	private boolean consume(char expected) {
+		if (this.position < this.text.length() && this.peek() == expected) {
+			this.position++;
+			return true;
+		}
+		return false;
+	}
+
+	private char peek() {
+		return this.text.charAt(this.position);
+	}
+
+	private void skipWhitespace() {
+		while (this.position < this.text.length()
+				&& Character.isWhitespace(this.peek())) {
+			this.position++;
+		}
+	}
+
+	private InvalidParameterException error(String message) {
+		return new InvalidParameterException(message + " at position "
+				+ this.position + " of '" + this.text + "'!");
+	}
+}
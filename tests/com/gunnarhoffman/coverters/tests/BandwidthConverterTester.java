@@ -0,0 +1,27 @@
+package com.gunnarhoffman.coverters.tests;
+
+import java.math.BigDecimal;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.gunnarhoffman.converters.BandwidthConverter;
+import com.gunnarhoffman.converters.ByteConverter;
+import com.gunnarhoffman.converters.TimeConverter;
+
+public class BandwidthConverterTester {
+
+	@Test
+	public void testMegabytesPerMinuteToMegabitsPerSecond() {
+		final BandwidthConverter rate = BandwidthConverter.from(
+				ByteConverter.fromMegabytes(150), TimeConverter.fromMinutes(1));
+		Assert.assertEquals(rate.toMegabitsPerSecond()
+								.compareTo(new BigDecimal("20")), 0);
+		Assert.assertEquals(rate.toDouble(ByteConverter.Unit.Megabit,
+				TimeConverter.Unit.Second), 20, 0);
+		Assert.assertEquals(BandwidthConverter.convert(150,
+				ByteConverter.Unit.Megabyte, TimeConverter.Unit.Minute,
+				ByteConverter.Unit.Megabit, TimeConverter.Unit.Second), 20, 0);
+	}
+}
@@ -4,9 +4,18 @@ import junit.framework.Assert;
 
 import org.junit.Test;
 
+import com.gunnarhoffman.converters.ByteAccumulator;
 import com.gunnarhoffman.converters.ByteConverter;
+import com.gunnarhoffman.converters.ConversionCache;
+import com.gunnarhoffman.converters.ConversionContext;
+import com.gunnarhoffman.converters.ImmutableByteConverter;
+import com.gunnarhoffman.converters.QuantityCollectors;
 
+import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.security.InvalidParameterException;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 public final class ByteConverterTester {
 
@@ -25,4 +34,117 @@ public final class ByteConverterTester {
 											.addKilobytes(1)
 											.toBytes(), in);
 	}
+
+	@Test
+	public void testFractionalMegabytesToKilobytes() {
+		final BigDecimal in = new BigDecimal("1372.16");
+		Assert.assertEquals(ByteConverter.fromMegabytes(1.34)
+											.toKilobytes()
+											.compareTo(in), 0);
+	}
+
+	@Test
+	public void testAddBeyondLongRange() {
+		final BigInteger in = BigInteger.valueOf(Long.MAX_VALUE)
+											.add(BigInteger.valueOf(1024));
+		Assert.assertEquals(ByteConverter.fromBytes(Long.MAX_VALUE)
+											.addKilobytes(1)
+											.toBytes(), in);
+	}
+
+	@Test
+	public void testImmutableKilobyteIsInterned() {
+		Assert.assertSame(ImmutableByteConverter.fromBytes(1000)
+											.addBytes(24), ImmutableByteConverter.ONE_KILOBYTE);
+	}
+
+	@Test
+	public void testImmutableConverterKeepsACachedContext() {
+		final ConversionCache cache = new ConversionCache(64);
+		final ImmutableByteConverter kilobyte = ImmutableByteConverter.ONE_KILOBYTE
+																		.withContext(ConversionContext.DEFAULT.withCache(cache));
+		Assert.assertSame(kilobyte.getContext()
+									.getCache(), cache);
+		kilobyte.toMegabytes();
+		kilobyte.toMegabytes();
+		Assert.assertEquals(cache.getHits(), 1);
+		Assert.assertEquals(cache.getMisses(), 1);
+	}
+
+	@Test
+	public void testFormatToAppendsLargestUnit() {
+		final StringBuilder out = new StringBuilder("size: ");
+		Assert.assertEquals(ByteConverter.fromMegabytes(1.34)
+											.formatTo(out)
+											.toString(), "size: 1.34 MB");
+	}
+
+	@Test
+	public void testToStringOfAnExactSizePicksItsUnit() {
+		Assert.assertEquals(ByteConverter.fromMegabytes(6000)
+											.addGigabytes(-1.34)
+											.toString(), "4.52 GB");
+		Assert.assertEquals(ByteConverter.fromKilobytes(0.123456789123)
+											.toString(), "126 B");
+	}
+
+	@Test
+	public void testParallelSummingBytesIsExact() {
+		Assert.assertEquals(LongStream.rangeClosed(1, 100000)
+											.boxed()
+											.parallel()
+											.collect(QuantityCollectors.summingBytes(Long::longValue))
+											.toBytes()
+											.longValue(), 5000050000L);
+	}
+
+	@Test
+	public void testChainChecksTheSignOnceAtTheEnd() {
+		Assert.assertEquals(ByteConverter.fromMegabytes(1)
+											.addGigabytes(-1)
+											.addGigabytes(1)
+											.toKilobytes()
+											.compareTo(new BigDecimal("1024")), 0);
+		final ByteConverter negative = ByteConverter.fromMegabytes(1)
+													.addMegabytes(-2);
+		try {
+			negative.toKilobytes();
+			Assert.fail("a negative sum must be rejected");
+		} catch (InvalidParameterException expected) {
+		}
+	}
+
+	@Test
+	public void testAccumulatorMatchesConverterAcrossThreads() {
+		final ByteAccumulator accumulator = new ByteAccumulator();
+		IntStream.range(0, 10000)
+					.parallel()
+					.forEach(i -> accumulator.addKilobytes(1.5)
+												.addBytes(1)
+												.addMegabytes(0.1));
+		ByteConverter expected = ByteConverter.fromBytes(0);
+		for (int i = 0; i < 10000; i++) {
+			expected = expected.addKilobytes(1.5)
+								.addBytes(1)
+								.addMegabytes(0.1);
+		}
+		Assert.assertEquals(accumulator.snapshotThenReset()
+										.toBytes(), expected.toBytes());
+		Assert.assertEquals(accumulator.snapshot()
+										.toBytes(), BigInteger.ZERO);
+	}
+
+	@Test
+	public void testAccumulatorCarriesWholeBytesOutOfFractions() {
+		final ByteAccumulator accumulator = new ByteAccumulator();
+		IntStream.range(0, 1000000)
+					.parallel()
+					.forEach(i -> accumulator.addKilobytes(0.0001));
+		Assert.assertEquals(accumulator.snapshot()
+										.toBytes()
+										.longValue(), 102400);
+		Assert.assertEquals(accumulator.snapshot()
+										.toKilobytes()
+										.compareTo(new BigDecimal("100")), 0);
+	}
 }
@@ -0,0 +1,57 @@
+package com.gunnarhoffman.coverters.tests;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.gunnarhoffman.converters.ByteConverter;
+import com.gunnarhoffman.converters.ConversionMetrics;
+import com.gunnarhoffman.converters.TimeConverter;
+
+public class ConversionMetricsTester {
+
+	@Test
+	public void testRecordsPerConversionAndPerDimension() {
+		final ConversionMetrics metrics = new ConversionMetrics();
+		metrics.record(ByteConverter.Unit.Megabyte.getMeasurementUnit(),
+				ByteConverter.Unit.Gigabyte.getMeasurementUnit(), 100, 3);
+		metrics.record(ByteConverter.Unit.Megabyte.getMeasurementUnit(),
+				ByteConverter.Unit.Gigabyte.getMeasurementUnit(), 50, 1000);
+		metrics.record(TimeConverter.Unit.Second.getMeasurementUnit(),
+				TimeConverter.Unit.Hour.getMeasurementUnit(), 7, 0);
+		Assert.assertEquals(metrics.getCalls(), 3);
+		Assert.assertEquals(metrics.getValues(), 157);
+		Assert.assertEquals(metrics.getCallsByConversion().get(
+				"Megabyte to Gigabyte").longValue(), 2);
+		Assert.assertEquals(metrics.getValuesByDimension().get("Data")
+													.longValue(), 150);
+		final long[] data = metrics.getLatencyHistograms().get("Data");
+		Assert.assertEquals(data[2], 1);
+		Assert.assertEquals(data[10], 1);
+		metrics.reset();
+		Assert.assertTrue(metrics.getCallsByConversion().isEmpty());
+	}
+
+	@Test
+	public void testCountsFluentCallsPerConversion() {
+		final ConversionMetrics metrics = new ConversionMetrics();
+		metrics.record(ByteConverter.Unit.Megabyte.getMeasurementUnit(),
+				ByteConverter.Unit.Byte.getMeasurementUnit());
+		metrics.record(ByteConverter.Unit.Megabyte.getMeasurementUnit(),
+				ByteConverter.Unit.Byte.getMeasurementUnit());
+		metrics.record(ByteConverter.Unit.Megabyte.getMeasurementUnit(),
+				ByteConverter.Unit.Gigabyte.getMeasurementUnit(), 10, 5);
+		Assert.assertEquals(metrics.getCalls(), 3);
+		Assert.assertEquals(metrics.getValues(), 10);
+		Assert.assertEquals(metrics.getNanos(), 5);
+		Assert.assertEquals(metrics.getCallsByConversion().get(
+				"Megabyte to Byte").longValue(), 2);
+		Assert.assertEquals(metrics.getValuesByConversion().get(
+				"Megabyte to Byte").longValue(), 0);
+		long histogram = 0;
+		for (long bucket : metrics.getLatencyHistograms().get("Data")) {
+			histogram += bucket;
+		}
+		Assert.assertEquals(histogram, 1);
+	}
+}
@@ -0,0 +1,40 @@
+package com.gunnarhoffman.coverters.tests;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.gunnarhoffman.converters.example.CsvConverter;
+
+public class CsvConverterTester {
+
+	@Test
+	public void testQuotedFieldsSurviveEveryWindowSize() throws IOException {
+		final String input = "name,size\r\n" + "\"a, b\",1024\r\n"
+				+ "\"two\nlines, \"\"quoted\"\"\",2048\r\n"
+				+ "\"1536\",3072\n" + "plain,4096";
+		final String expected = "name,size\r\n" + "\"a, b\",1\r\n"
+				+ "\"two\nlines, \"\"quoted\"\"\",2\r\n" + "\"1536\",3\n"
+				+ "plain,4";
+		final Path in = Files.createTempFile("in", ".csv");
+		final Path out = Files.createTempFile("out", ".csv");
+		try {
+			Files.write(in, input.getBytes(StandardCharsets.US_ASCII));
+			for (int windowSize = 26; windowSize <= input.length() + 1;
+					windowSize++) {
+				CsvConverter.convert(in, out, 1, "KB", "MB", 9, windowSize);
+				Assert.assertEquals("window of " + windowSize, expected,
+						new String(Files.readAllBytes(out),
+								StandardCharsets.US_ASCII));
+			}
+		} finally {
+			Files.delete(in);
+			Files.delete(out);
+		}
+	}
+}
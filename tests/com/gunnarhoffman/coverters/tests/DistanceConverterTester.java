@@ -1,5 +1,98 @@
 package com.gunnarhoffman.coverters.tests;
 
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.gunnarhoffman.converters.BulkConversion;
+import com.gunnarhoffman.converters.ConversionCache;
+import com.gunnarhoffman.converters.ConversionContext;
+import com.gunnarhoffman.converters.DistanceConverter;
+import com.gunnarhoffman.converters.DistanceConverter.Unit;
+import com.gunnarhoffman.converters.TemperatureConverter;
+import com.gunnarhoffman.converters.UnitRegistry;
+
 public class DistanceConverterTester {
 
+	@Test
+	public void testBulkMilesToKilometers() {
+		final double[] in = { 0, 1, 26.2 };
+		final double[] out = new double[4];
+		DistanceConverter.convert(Unit.Mile, in, 0, Unit.Kilometer, out, 1,
+				in.length);
+		for (int i = 0; i < in.length; i++) {
+			Assert.assertEquals(DistanceConverter.fromMiles(in[i])
+												.toKilometers()
+												.doubleValue(), out[i + 1], 1e-9);
+		}
+	}
+
+	@Test
+	public void testParallelMillimetersToInches() {
+		final double[] millimeters = new double[BulkConversion.THRESHOLD * 3 + 5];
+		final long[] whole = new long[millimeters.length];
+		for (int i = 0; i < millimeters.length; i++) {
+			millimeters[i] = i * 25.4;
+			whole[i] = i * 254L;
+		}
+		final double[] inches = new double[millimeters.length];
+		DistanceConverter.convert(Unit.Millimeter, whole, 0, Unit.Inch, inches,
+				0, whole.length);
+		DistanceConverter.convert(Unit.Millimeter, millimeters, 0, Unit.Inch,
+				millimeters, 0, millimeters.length);
+		for (int i = 0; i < millimeters.length; i++) {
+			Assert.assertEquals(millimeters[i], i, 1e-9);
+			Assert.assertEquals(inches[i], i * 10, 1e-9);
+		}
+	}
+
+	@Test
+	public void testCachedContextCachesDistancesAndTemperatures() {
+		final ConversionCache cache = new ConversionCache(64);
+		final ConversionContext cached = ConversionContext.DEFAULT.withCache(cache);
+		final DistanceConverter marathon = DistanceConverter.fromMiles(26.2);
+		Assert.assertEquals(marathon.toKilometers(cached), marathon.toKilometers());
+		Assert.assertEquals(marathon.toKilometers(cached), marathon.toKilometers());
+		final TemperatureConverter boiling = TemperatureConverter.fromCelsius(100);
+		Assert.assertEquals(boiling.toFahrenheit(cached), boiling.toFahrenheit());
+		Assert.assertEquals(boiling.toFahrenheit(cached), boiling.toFahrenheit());
+		Assert.assertEquals(cache.getMisses(), 2);
+		Assert.assertEquals(cache.getHits(), 2);
+	}
+
+	@Test
+	public void testDirectBufferMetersToFeetInPlace() {
+		final DoubleBuffer buffer = ByteBuffer.allocateDirect(3 * Double.BYTES)
+												.asDoubleBuffer();
+		buffer.put(0, 0).put(1, 1).put(2, 1609.344);
+		DistanceConverter.convert(Unit.Meter, buffer, Unit.Foot, buffer);
+		Assert.assertEquals(buffer.position(), 3);
+		Assert.assertEquals(buffer.get(2), 5280, 1e-9);
+	}
+
+	@Test
+	public void testToStringAgreesWithTheOutputMethods() {
+		final DistanceConverter almostALightYear = DistanceConverter.fromInches(new BigDecimal(
+				"372461748020000000"));
+		Assert.assertTrue(almostALightYear.toLightYears()
+											.compareTo(BigDecimal.ONE) < 0);
+		Assert.assertTrue(almostALightYear.toString()
+											.endsWith(" Astronumical Units"));
+		Assert.assertEquals(DistanceConverter.fromLightYears(1)
+												.toString(), "1.00 Light Years");
+	}
+
+	@Test
+	public void testRegistryMilesToKilometersIsExact() {
+		Assert.assertEquals(DistanceConverter.fromMiles(1)
+												.toKilometers()
+												.compareTo(new BigDecimal("1.609344")), 0);
+		Assert.assertEquals(UnitRegistry.find("miles")
+										.factorTo(UnitRegistry.find("km")),
+				Unit.Mile.factorTo(Unit.Kilometer), 0);
+	}
 }
@@ -0,0 +1,47 @@
+package com.gunnarhoffman.coverters.tests;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.gunnarhoffman.converters.ByteConverter;
+import com.gunnarhoffman.converters.DistanceConverter;
+import com.gunnarhoffman.converters.QuantityCodec;
+import com.gunnarhoffman.converters.SpeedConverter;
+import com.gunnarhoffman.converters.TemperatureConverter;
+import com.gunnarhoffman.converters.TimeConverter;
+
+public class QuantityCodecTester {
+
+	@Test
+	public void testValuesReadBackExactly() {
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+		QuantityCodec.write(buffer, ByteConverter.fromMegabytes(6000));
+		Assert.assertEquals(buffer.position(), 7);
+		QuantityCodec.write(buffer, ByteConverter.fromBytes(new BigDecimal(
+				"1e30")));
+		QuantityCodec.write(buffer, TimeConverter.fromHours(1.5));
+		QuantityCodec.write(buffer, SpeedConverter.from(88.5,
+				DistanceConverter.Unit.Kilometer, TimeConverter.Unit.Hour));
+		QuantityCodec.write(buffer, TemperatureConverter.fromFahrenheit(-40));
+		buffer.flip();
+		Assert.assertEquals(QuantityCodec.readByteConverter(buffer)
+											.toBytes()
+											.longValue(), 6291456000L);
+		Assert.assertEquals(QuantityCodec.readByteConverter(buffer)
+											.toBytes(), new BigDecimal("1e30").toBigInteger());
+		Assert.assertEquals(QuantityCodec.readTimeConverter(buffer)
+											.toMinutes()
+											.intValue(), 90);
+		Assert.assertEquals(QuantityCodec.readSpeedConverter(buffer)
+											.toKilometersPer(SpeedConverter.TimeIncrement.Hour)
+											.compareTo(new BigDecimal("88.5")), 0);
+		Assert.assertEquals(QuantityCodec.readTemperatureConverter(buffer)
+											.toCelsius()
+											.intValue(), -40);
+		Assert.assertEquals(buffer.remaining(), 0);
+	}
+}
@@ -0,0 +1,25 @@
+package com.gunnarhoffman.coverters.tests;
+
+import java.math.BigDecimal;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.gunnarhoffman.converters.expression.QuantityExpression;
+
+public class QuantityExpressionTester {
+
+	@Test
+	public void testMegabytesMinusGigabytesInKilobytes() {
+		final BigDecimal in = new BigDecimal("4738908.16");
+		Assert.assertEquals(QuantityExpression.evaluate("6000 MB - 1.34 GB in KB")
+											.compareTo(in), 0);
+	}
+
+	@Test
+	public void testCompiledExpressionIsCached() {
+		Assert.assertSame(QuantityExpression.compile("90 min in h"),
+				QuantityExpression.compile("90 min in h"));
+	}
+}
@@ -1,5 +1,61 @@
 package com.gunnarhoffman.coverters.tests;
 
+import java.math.BigDecimal;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.gunnarhoffman.converters.DistanceConverter;
+import com.gunnarhoffman.converters.SpeedConverter;
+import com.gunnarhoffman.converters.SpeedConverter.TimeIncrement;
+import com.gunnarhoffman.converters.TimeConverter;
+
 public class SpeedConverterTester {
 
+	@Test
+	public void testFeetPerSecondToMilesPerHour() {
+		final BigDecimal in = new BigDecimal("102.27272727");
+		Assert.assertEquals(SpeedConverter.fromFeetPer(150, TimeIncrement.Second)
+											.toMilesPer(TimeIncrement.Hour)
+											.setScale(8, BigDecimal.ROUND_HALF_UP), in);
+	}
+
+	@Test
+	public void testKilometersPerHourRoundTripIsExact() {
+		final BigDecimal in = new BigDecimal("100");
+		Assert.assertEquals(SpeedConverter.fromKilometersPer(in, TimeIncrement.Hour)
+											.toKilometersPer(TimeIncrement.Hour)
+											.compareTo(in), 0);
+	}
+
+	@Test
+	public void testCachedFactorsFollowTheSpeed() {
+		final SpeedConverter first = SpeedConverter.fromKilometersPer(36,
+				TimeIncrement.Hour);
+		final SpeedConverter second = SpeedConverter.fromKilometersPer(72,
+				TimeIncrement.Hour);
+		for (int i = 0; i < 2; i++) {
+			Assert.assertEquals(first.toMetersPer(TimeIncrement.Second)
+										.compareTo(BigDecimal.TEN), 0);
+			Assert.assertEquals(second.toMetersPer(TimeIncrement.Second)
+										.compareTo(BigDecimal.valueOf(20)), 0);
+		}
+		first.setUnit(BigDecimal.ONE);
+		Assert.assertEquals(first.toKilometersPer(TimeIncrement.Hour)
+									.compareTo(new BigDecimal("3.6")), 0);
+	}
+
+	@Test
+	public void testKilometersPerFifteenMinutesToKilometersPerHour() {
+		final BigDecimal in = new BigDecimal("80");
+		Assert.assertEquals(SpeedConverter.from(new BigDecimal("20"),
+				DistanceConverter.Unit.Kilometer, new BigDecimal("15"),
+				TimeConverter.Unit.Minute)
+											.toKilometersPer(TimeIncrement.Hour)
+											.compareTo(in), 0);
+		Assert.assertEquals(TimeIncrement.Year.getSeconds()
+											.movePointRight(6)
+											.compareTo(TimeConverter.MICROSECONDS_IN_A_YEAR), 0);
+	}
 }
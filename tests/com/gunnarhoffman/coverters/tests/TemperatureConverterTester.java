@@ -1,5 +1,7 @@
 package com.gunnarhoffman.coverters.tests;
 
+import com.gunnarhoffman.converters.BulkConversion;
+import com.gunnarhoffman.converters.ConversionContext;
 import com.gunnarhoffman.converters.TemperatureConverter;
 import org.junit.Test;
 import org.junit.Assert;
@@ -28,4 +30,45 @@ public class TemperatureConverterTester {
         TemperatureConverter actual = TemperatureConverter.fromKelvin(273.15);
         Assert.assertEquals(expected, actual.toCelsius());
     }
+
+    @Test
+    public void testKelvinToFahrenheit() {
+        final BigDecimal expected = new BigDecimal("70.7");
+        TemperatureConverter actual = TemperatureConverter.fromKelvin(294.65);
+        Assert.assertEquals(expected, actual.toFahrenheit());
+    }
+
+    @Test
+    public void testReadingsKeepTheirScale() {
+        final BigDecimal large = new BigDecimal("5.0E+10");
+        Assert.assertSame(large, TemperatureConverter.fromCelsius(large).toCelsius());
+        final BigDecimal small = new BigDecimal("1.0E-7");
+        Assert.assertEquals(small, TemperatureConverter.fromKelvin(small).toKelvin());
+        Assert.assertEquals(new BigDecimal("50.90"),
+                TemperatureConverter.fromCelsius(new BigDecimal("10.50")).toFahrenheit());
+        Assert.assertEquals(new BigDecimal("273.15"),
+                TemperatureConverter.fromCelsius(0).toKelvin());
+    }
+
+    @Test
+    public void testNonTerminatingFahrenheitToCelsiusIsRounded() {
+        final BigDecimal expected = new BigDecimal("0.5555555555555556");
+        TemperatureConverter actual = TemperatureConverter.fromFahrenheit(33);
+        Assert.assertEquals(expected, actual.toCelsius(ConversionContext.DECIMAL64));
+    }
+
+    @Test
+    public void testBulkCelsiusToFahrenheitMatchesScalarKernel() {
+        final double[] celsius = new double[BulkConversion.THRESHOLD + 7];
+        for (int i = 0; i < celsius.length; i++) {
+            celsius[i] = i - 273;
+        }
+        final double[] expected = new double[celsius.length];
+        BulkConversion.getScalarKernel().multiplyAdd(celsius, 0, expected, 0,
+                celsius.length, 1.8, 32);
+        final double[] actual = new double[celsius.length];
+        BulkConversion.convert(celsius, 0, actual, 0, celsius.length, 1.8, 32);
+        Assert.assertArrayEquals(expected, actual, 0);
+        Assert.assertEquals(212, actual[373], 1e-9);
+    }
 }
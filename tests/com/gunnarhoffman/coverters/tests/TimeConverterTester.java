@@ -4,6 +4,9 @@ import junit.framework.Assert;
 
 import org.junit.Test;
 
+import com.gunnarhoffman.converters.BulkConversion;
+import com.gunnarhoffman.converters.ConversionCache;
+import com.gunnarhoffman.converters.ConversionContext;
 import com.gunnarhoffman.converters.TimeConverter;
 
 public class TimeConverterTester {
@@ -14,4 +17,43 @@ public class TimeConverterTester {
 											.toMinutes()
 											.intValue(), 10080);
 	}
+
+	@Test
+	public void testMinutesToHoursWithDecimal64() {
+		Assert.assertEquals(TimeConverter.fromMinutes(1)
+											.toHours(ConversionContext.DECIMAL64)
+											.toString(), "0.01666666666666667");
+	}
+
+	@Test
+	public void testCachedContextReusesQuotients() {
+		final ConversionCache cache = new ConversionCache(64);
+		final ConversionContext cached = ConversionContext.DEFAULT.withCache(cache);
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals(TimeConverter.fromSeconds(7)
+												.toHours(cached),
+					TimeConverter.fromSeconds(7)
+									.toHours());
+		}
+		Assert.assertEquals(cache.getMisses(), 1);
+		Assert.assertEquals(cache.getHits(), 2);
+		Assert.assertEquals(cached, ConversionContext.DEFAULT);
+	}
+
+	@Test
+	public void testParallelConvertMatchesSequential() {
+		double[] minutes = new double[BulkConversion.THRESHOLD * 4 + 3];
+		for (int i = 0; i < minutes.length; i++) {
+			minutes[i] = i;
+		}
+		double[] hours = new double[minutes.length];
+		TimeConverter.convert(TimeConverter.Unit.Minute, minutes, 0,
+				TimeConverter.Unit.Hour, hours, 0, minutes.length);
+		Assert.assertEquals(hours[minutes.length - 1],
+				(minutes.length - 1) / 60.0, 1e-9);
+		Assert.assertEquals(TimeConverter.parallelStream(
+				TimeConverter.Unit.Minute, minutes, TimeConverter.Unit.Hour)
+				.sum(), (minutes.length - 1) * (double) minutes.length / 120,
+				1e-3);
+	}
 }
@@ -1,5 +1,31 @@
 package com.gunnarhoffman.coverters.tests;
 
+import java.math.BigDecimal;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import com.gunnarhoffman.converters.VolumeConverter;
+import com.gunnarhoffman.converters.VolumeConverter.Unit;
+
 public class VolumeConverterTester {
 
+	@Test
+	public void testUSGallonsToLitersIsExactAndMatchesBulk() {
+		final double[] in = { 0, 1, 5.5 };
+		final double[] out = new double[in.length];
+		VolumeConverter.convert(Unit.USGallon, in, 0, Unit.Liter, out, 0,
+				in.length);
+		Assert.assertEquals(VolumeConverter.fromUSGallons(1)
+											.toLiters()
+											.compareTo(new BigDecimal("3.785411784")), 0);
+		for (int i = 0; i < in.length; i++) {
+			Assert.assertEquals(VolumeConverter.fromUSGallons(in[i])
+												.toLiters()
+												.doubleValue(), out[i], 1e-12);
+			Assert.assertEquals(VolumeConverter.convert(in[i], Unit.USGallon,
+					Unit.Liter), out[i], 0);
+		}
+	}
 }
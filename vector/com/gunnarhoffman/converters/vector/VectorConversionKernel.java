@@ -0,0 +1,98 @@
+package com.gunnarhoffman.converters.vector;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import com.gunnarhoffman.converters.ConversionKernel;
+
+/**
+ * <p>
+ * Conversion loops written with the Vector API, so each iteration converts as
+ * many values as the widest vector registers of the processor hold: four
+ * doubles with AVX2 and eight with AVX-512. The values left over past the
+ * last full vector are converted one at a time.
+ * </p>
+ *
+ * <p>
+ * The product and the sum of multiplyAdd are rounded separately rather than
+ * fused, so the results are exactly those of the scalar kernel.
+ * </p>
+ *
+ * <p>
+ * This needs Java 16 or later with the jdk.incubator.vector module added,
+ * both to compile and to run. BulkConversion loads it by name and falls back
+ * to its scalar kernel when it is unavailable.
+ * </p>
+ *
+ * @author Gunnar Hoffman
+ *
+ */
+public final class VectorConversionKernel implements ConversionKernel {
+
+	private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+	/*
+	 * Longs and doubles are the same width, so this species has as many lanes
+	 * as DOUBLES and a long vector converts into a double vector of one shape.
+	 */
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+	@Override
+	public void multiply(double[] source, int sourceOffset,
+			double[] destination, int destinationOffset, int length,
+			double factor) {
+		int i = 0;
+		for (int bound = DOUBLES.loopBound(length); i < bound; i += DOUBLES
+				.length()) {
+			DoubleVector.fromArray(DOUBLES, source, sourceOffset + i)
+					.mul(factor)
+					.intoArray(destination, destinationOffset + i);
+		}
+		for (; i < length; i++) {
+			destination[destinationOffset + i] = source[sourceOffset + i]
+					* factor;
+		}
+	}
+
+	@Override
+	public void multiply(long[] source, int sourceOffset, double[] destination,
+			int destinationOffset, int length, double factor) {
+		int i = 0;
+		for (int bound = LONGS.loopBound(length); i < bound; i += LONGS
+				.length()) {
+			((DoubleVector) LongVector.fromArray(LONGS, source,
+					sourceOffset + i).convert(VectorOperators.L2D, 0))
+					.mul(factor)
+					.intoArray(destination, destinationOffset + i);
+		}
+		for (; i < length; i++) {
+			destination[destinationOffset + i] = source[sourceOffset + i]
+					* factor;
+		}
+	}
+
+	@Override
+	public void multiplyAdd(double[] source, int sourceOffset,
+			double[] destination, int destinationOffset, int length,
+			double factor, double addend) {
+		int i = 0;
+		for (int bound = DOUBLES.loopBound(length); i < bound; i += DOUBLES
+				.length()) {
+			DoubleVector.fromArray(DOUBLES, source, sourceOffset + i)
+					.mul(factor)
+					.add(addend)
+					.intoArray(destination, destinationOffset + i);
+		}
+		for (; i < length; i++) {
+			destination[destinationOffset + i] = source[sourceOffset + i]
+					* factor + addend;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "vector " + DOUBLES;
+	}
+}